@@ -0,0 +1,84 @@
+package com.team3310.benchmark;
+
+import java.util.List;
+
+import frc.team3310.robot.paths.TrajectoryGenerator;
+import frc.team3310.robot.paths.TrajectoryGenerator.PathDefinition;
+import frc.team3310.robot.planners.DriveMotionPlanner;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.spline.QuinticHermiteSpline;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryUtil;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
+
+/**
+ * A few paths from TrajectoryGenerator's TrajectorySet, named after its fields, so that every benchmark runs on the
+ * paths the robot actually drives. Waypoints, constraints and limits come from the set itself.
+ */
+public class BenchmarkPaths {
+    public final boolean reversed;
+    public final List<Pose2d> waypoints;
+    public final List<TimingConstraint<Pose2dWithCurvature>> constraints;
+    private final PathDefinition mDefinition;
+
+    private BenchmarkPaths(PathDefinition definition) {
+        mDefinition = definition;
+        reversed = definition.reversed;
+        waypoints = definition.waypoints;
+        constraints = definition.constraints;
+    }
+
+    /**
+     * @param name a field of TrajectoryGenerator.TrajectorySet, e.g. level1StartToCargoFront, rocketBackToLoading,
+     *             loadingToRocketBack or loadingToCargoFrontTrack2v2
+     */
+    public static BenchmarkPaths get(String name) {
+        TrajectoryGenerator generator = TrajectoryGenerator.getInstance();
+        // Only creates the set; its trajectories are generated when first used.
+        generator.generateTrajectories();
+        PathDefinition definition = generator.getTrajectorySet().getPathDefinition(name);
+        if (definition == null) {
+            throw new RuntimeException("Unknown path " + name);
+        }
+        return new BenchmarkPaths(definition);
+    }
+
+    /**
+     * The waypoints the splines are fit through, i.e. flipped for reversed paths as DriveMotionPlanner does.
+     */
+    public List<Pose2d> splineWaypoints() {
+        return DriveMotionPlanner.splineWaypoints(reversed, waypoints);
+    }
+
+    public List<QuinticHermiteSpline> splines() {
+        return TrajectoryUtil.splinesFromWaypoints(splineWaypoints());
+    }
+
+    public Trajectory<TimedState<Pose2dWithCurvature>> generate(DriveMotionPlanner planner) {
+        return planner.generateTrajectory(reversed, waypoints, constraints, mDefinition.start_vel,
+                mDefinition.end_vel, maxVelocity(), maxAccel(), maxVoltage(), DriveMotionPlanner.kMaxDx,
+                DriveMotionPlanner.kMaxDy, DriveMotionPlanner.kMaxDTheta);
+    }
+
+    public double startVelocity() {
+        return mDefinition.start_vel;
+    }
+
+    public double endVelocity() {
+        return mDefinition.end_vel;
+    }
+
+    public double maxVelocity() {
+        return mDefinition.max_vel;
+    }
+
+    public double maxAccel() {
+        return mDefinition.max_accel;
+    }
+
+    public double maxVoltage() {
+        return mDefinition.max_voltage;
+    }
+}
@@ -0,0 +1,64 @@
+package com.team3310.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3310.robot.planners.DriveMotionPlanner;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * One 10 ms path following tick of DriveMotionPlanner for each follower, with the robot exactly on the setpoint. The
+ * trajectory restarts when it is done.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DriveMotionPlannerBenchmark {
+    private static final double kDt = 0.01;
+
+    @Param({"level1StartToCargoFront", "loadingToRocketBack"})
+    public String path;
+
+    @Param
+    public DriveMotionPlanner.FollowerType follower;
+
+    private DriveMotionPlanner mPlanner;
+    private Trajectory<TimedState<Pose2dWithCurvature>> mTrajectory;
+    private double mTime;
+
+    @Setup
+    public void setup() {
+        mPlanner = new DriveMotionPlanner();
+        mPlanner.setFollowerType(follower);
+        mTrajectory = BenchmarkPaths.get(path).generate(mPlanner);
+        mPlanner.setTrajectory(new TrajectoryIterator<>(new TimedView<>(mTrajectory)));
+        mTime = 0.0;
+    }
+
+    @Benchmark
+    public DriveMotionPlanner.Output update() {
+        if (mPlanner.isDone()) {
+            mPlanner.setTrajectory(new TrajectoryIterator<>(new TimedView<>(mTrajectory)));
+        }
+        mTime += kDt;
+        return mPlanner.update(mTime, mPlanner.setpoint().state().getPose());
+    }
+}
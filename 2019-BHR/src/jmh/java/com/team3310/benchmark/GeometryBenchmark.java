@@ -0,0 +1,65 @@
+package com.team3310.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Twist2d;
+
+/**
+ * The Pose2d primitives used at loop rate by odometry and path following.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeometryBenchmark {
+    // Non-final so the JIT cannot constant fold them.
+    private Pose2d mPose = new Pose2d(120.0, -48.0, Rotation2d.fromDegrees(30.0));
+    private Pose2d mOther = new Pose2d(2.0, 0.1, Rotation2d.fromDegrees(1.5));
+    private Twist2d mTwist = new Twist2d(2.0, 0.0, Math.toRadians(1.5));
+    private final MutablePose2d mScratch = new MutablePose2d();
+
+    @Benchmark
+    public Pose2d exp() {
+        return Pose2d.exp(mTwist);
+    }
+
+    @Benchmark
+    public Twist2d log() {
+        return Pose2d.log(mOther);
+    }
+
+    @Benchmark
+    public Pose2d transformBy() {
+        return mPose.transformBy(mOther);
+    }
+
+    @Benchmark
+    public Pose2d inverseTransformBy() {
+        return mPose.inverse().transformBy(mOther);
+    }
+
+    @Benchmark
+    public MutablePose2d inverseTransformByInPlace() {
+        return mScratch.set(mPose).inverse().transformBy(mOther);
+    }
+
+    @Benchmark
+    public MutablePose2d integrateInPlace() {
+        return mScratch.set(mPose).transformByExp(mTwist);
+    }
+}
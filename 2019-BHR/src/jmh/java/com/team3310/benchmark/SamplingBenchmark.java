@@ -0,0 +1,67 @@
+package com.team3310.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3310.robot.planners.DriveMotionPlanner;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
+import frc.team3310.utility.lib.trajectory.TrajectorySamplePoint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * Sampling a generated trajectory one 10 ms loop at a time, by time and through an iterator. Both wrap around to the
+ * start when they reach the end.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SamplingBenchmark {
+    private static final double kDt = 0.01;
+
+    @Param({"level1StartToCargoFront", "loadingToRocketBack"})
+    public String path;
+
+    private TimedView<Pose2dWithCurvature> mView;
+    private TrajectoryIterator<TimedState<Pose2dWithCurvature>> mIterator;
+    private double mTime;
+
+    @Setup
+    public void setup() {
+        mView = new TimedView<>(BenchmarkPaths.get(path).generate(new DriveMotionPlanner()));
+        mIterator = new TrajectoryIterator<>(mView);
+        mTime = mView.first_interpolant();
+    }
+
+    @Benchmark
+    public TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> sample() {
+        mTime += kDt;
+        if (mTime > mView.last_interpolant()) {
+            mTime = mView.first_interpolant();
+        }
+        return mView.sample(mTime);
+    }
+
+    @Benchmark
+    public TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> advance() {
+        if (mIterator.isDone()) {
+            mIterator = new TrajectoryIterator<>(mView);
+        }
+        return mIterator.advance(kDt);
+    }
+}
@@ -0,0 +1,102 @@
+package com.team3310.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.trajectory.DistanceView;
+import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
+import frc.team3310.utility.lib.trajectory.TrajectorySamplePoint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * Sampling straight-line trajectories of increasing length, by time and by distance, both sequentially through an
+ * iterator and at scattered points. The cost per sample should stay roughly flat as the length grows; see
+ * SamplingBenchmark for the paths the robot actually drives.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SamplingScalingBenchmark {
+    private static final double kDt = 0.01;
+    // Fraction of the trajectory to jump per scattered sample; irrational so that the samples never fall into a cycle.
+    private static final double kScatter = 0.6180339887498949;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int length;
+
+    private TimedView<Translation2d> mTimedView;
+    private DistanceView<Translation2d> mDistanceView;
+    private TrajectoryIterator<TimedState<Translation2d>> mTimedIterator;
+    private TrajectoryIterator<Translation2d> mDistanceIterator;
+    private double mTime;
+    private double mDistance;
+
+    @Setup
+    public void setup() {
+        List<TimedState<Translation2d>> states = new ArrayList<>(length);
+        List<Translation2d> points = new ArrayList<>(length);
+        for (int i = 0; i < length; ++i) {
+            states.add(new TimedState<>(new Translation2d(i, 0.0), i * kDt, 100.0, 0.0));
+            points.add(new Translation2d(i, 0.0));
+        }
+        mTimedView = new TimedView<>(new Trajectory<>(states));
+        mDistanceView = new DistanceView<>(new Trajectory<>(points));
+        mTimedIterator = new TrajectoryIterator<>(mTimedView);
+        mDistanceIterator = new TrajectoryIterator<>(mDistanceView);
+        mTime = mTimedView.first_interpolant();
+        mDistance = mDistanceView.first_interpolant();
+    }
+
+    private static double scatter(double value, double first, double last) {
+        value += kScatter * (last - first);
+        return value > last ? value - (last - first) : value;
+    }
+
+    @Benchmark
+    public TrajectorySamplePoint<TimedState<Translation2d>> timedSample() {
+        mTime = scatter(mTime, mTimedView.first_interpolant(), mTimedView.last_interpolant());
+        return mTimedView.sample(mTime);
+    }
+
+    @Benchmark
+    public TrajectorySamplePoint<TimedState<Translation2d>> timedAdvance() {
+        if (mTimedIterator.isDone()) {
+            mTimedIterator = new TrajectoryIterator<>(mTimedView);
+        }
+        return mTimedIterator.advance(kDt);
+    }
+
+    @Benchmark
+    public TrajectorySamplePoint<Translation2d> distanceSample() {
+        mDistance = scatter(mDistance, mDistanceView.first_interpolant(), mDistanceView.last_interpolant());
+        return mDistanceView.sample(mDistance);
+    }
+
+    @Benchmark
+    public TrajectorySamplePoint<Translation2d> distanceAdvance() {
+        if (mDistanceIterator.isDone()) {
+            mDistanceIterator = new TrajectoryIterator<>(mDistanceView);
+        }
+        // The points are 1 inch apart, so this steps through every segment in turn.
+        return mDistanceIterator.advance(1.0);
+    }
+}
@@ -0,0 +1,75 @@
+package com.team3310.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3310.robot.planners.DriveMotionPlanner;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.spline.QuinticHermiteSpline;
+import frc.team3310.utility.lib.spline.SplineGenerator;
+
+/**
+ * Spline construction, optimization and parameterization, the first stages of DriveMotionPlanner.generateTrajectory.
+ * The optimizers modify the splines they are given, so the optimize benchmarks include construction; subtract
+ * construct to get the optimizer alone.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SplineBenchmark {
+    @Param({"level1StartToCargoFront", "rocketBackToLoading", "loadingToRocketBack", "loadingToCargoFrontTrack2v2"})
+    public String path;
+
+    private List<Pose2d> mWaypoints;
+    private List<QuinticHermiteSpline> mOptimizedSplines;
+
+    @Setup
+    public void setup() {
+        BenchmarkPaths paths = BenchmarkPaths.get(path);
+        mWaypoints = paths.splineWaypoints();
+        mOptimizedSplines = paths.splines();
+        QuinticHermiteSpline.optimizeSplineAnalytic(mOptimizedSplines);
+    }
+
+    @Benchmark
+    public List<QuinticHermiteSpline> construct() {
+        List<QuinticHermiteSpline> splines = new ArrayList<>(mWaypoints.size() - 1);
+        for (int i = 1; i < mWaypoints.size(); ++i) {
+            splines.add(new QuinticHermiteSpline(mWaypoints.get(i - 1), mWaypoints.get(i)));
+        }
+        return splines;
+    }
+
+    @Benchmark
+    public double optimizeSpline() {
+        return QuinticHermiteSpline.optimizeSpline(construct());
+    }
+
+    @Benchmark
+    public double optimizeSplineAnalytic() {
+        return QuinticHermiteSpline.optimizeSplineAnalytic(construct());
+    }
+
+    @Benchmark
+    public List<Pose2dWithCurvature> parameterizeSplines() {
+        return SplineGenerator.parameterizeSplines(mOptimizedSplines, DriveMotionPlanner.kMaxDx,
+                DriveMotionPlanner.kMaxDy, DriveMotionPlanner.kMaxDTheta);
+    }
+}
@@ -0,0 +1,79 @@
+package com.team3310.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import frc.team3310.robot.planners.DriveMotionPlanner;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.physics.DifferentialDrive;
+import frc.team3310.utility.lib.trajectory.DistanceView;
+import frc.team3310.utility.lib.trajectory.FlippedTrajectory;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryUtil;
+import frc.team3310.utility.lib.trajectory.timing.DifferentialDriveDynamicsConstraint;
+import frc.team3310.utility.lib.trajectory.timing.DifferentialDriveDynamicsTableConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimingUtil;
+
+/**
+ * Time parameterization of an already sampled path with the same constraints as DriveMotionPlanner, using either the
+ * exact drive dynamics constraint or the precomputed table.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimingBenchmark {
+    @Param({"level1StartToCargoFront", "rocketBackToLoading", "loadingToRocketBack", "loadingToCargoFrontTrack2v2"})
+    public String path;
+
+    @Param({"table", "exact"})
+    public String dynamics;
+
+    private BenchmarkPaths mPath;
+    private DistanceView<Pose2dWithCurvature> mDistanceView;
+    private List<TimingConstraint<Pose2dWithCurvature>> mConstraints;
+
+    @Setup
+    public void setup() {
+        mPath = BenchmarkPaths.get(path);
+        Trajectory<Pose2dWithCurvature> trajectory = TrajectoryUtil.trajectoryFromSplineWaypoints(
+                mPath.splineWaypoints(), DriveMotionPlanner.kMaxDx, DriveMotionPlanner.kMaxDy,
+                DriveMotionPlanner.kMaxDTheta);
+        if (mPath.reversed) {
+            trajectory = new FlippedTrajectory(trajectory);
+        }
+        mDistanceView = new DistanceView<>(trajectory);
+
+        final DifferentialDrive model = DriveMotionPlanner.createDriveModel();
+        mConstraints = new ArrayList<>();
+        if (dynamics.equals("table")) {
+            mConstraints.add(new DifferentialDriveDynamicsTableConstraint<>(model, mPath.maxVoltage()));
+        } else {
+            mConstraints.add(new DifferentialDriveDynamicsConstraint<>(model, mPath.maxVoltage()));
+        }
+        mConstraints.addAll(mPath.constraints);
+    }
+
+    @Benchmark
+    public Trajectory<TimedState<Pose2dWithCurvature>> timeParameterizeTrajectory() {
+        return TimingUtil.timeParameterizeTrajectory(mPath.reversed, mDistanceView, DriveMotionPlanner.kMaxDx,
+                mConstraints, mPath.startVelocity(), mPath.endVelocity(), mPath.maxVelocity(), mPath.maxAccel());
+    }
+}
@@ -4,7 +4,7 @@ import edu.wpi.first.wpilibj.Timer;
 import frc.team3310.robot.subsystems.Drive;
 import frc.team3310.utility.lib.control.RobotStatus;
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
-import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.PackedTrajectory;
 import frc.team3310.utility.lib.trajectory.Trajectory;
 import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
@@ -22,7 +22,7 @@ public class DriveTrajectory implements Action {
 
 
     public DriveTrajectory(Trajectory<TimedState<Pose2dWithCurvature>> trajectory, boolean resetPose) {
-        mTrajectory = new TrajectoryIterator<>(new TimedView<>(trajectory));
+        mTrajectory = new TrajectoryIterator<>(PackedTrajectory.timedView(trajectory));
         mResetPose = resetPose;
     }
 
@@ -1,6 +1,5 @@
 package frc.team3310.auto.actions;
 
-import edu.wpi.first.wpilibj.Timer;
 import frc.team3310.utility.lib.control.RobotStatus;
 
 public class WaitUntilCrossXBoundaryCommand implements Action {
@@ -13,7 +12,7 @@ public class WaitUntilCrossXBoundaryCommand implements Action {
 
     @Override
     public boolean isFinished() {
-        return RobotStatus.getInstance().getFieldToVehicle(Timer.getFPGATimestamp()).getTranslation().x() > mXBoundary;
+        return RobotStatus.getInstance().getSnapshot().field_to_vehicle.getTranslation().x() > mXBoundary;
     }
 
     @Override
@@ -17,7 +17,7 @@ import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
 import frc.team3310.utility.lib.trajectory.LazyLoadTrajectory;
 import frc.team3310.utility.lib.trajectory.MirroredTrajectory;
-import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.PackedTrajectory;
 import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 
@@ -45,17 +45,17 @@ public class DriveMotionCommand extends Command {
     MirroredTrajectory mirroredTrajectory = mLazyLoadTrajectory.getTrajectory();
     TrajectoryIterator<TimedState<Pose2dWithCurvature>> mTrajectory = null;
     if (Robot.trajectoryGenerator.getRightLeftAutonSide() == RightLeftAutonSide.RIGHT) {
-      mTrajectory = new TrajectoryIterator<TimedState<Pose2dWithCurvature>>(new TimedView<>(mirroredTrajectory.right));
+      mTrajectory = new TrajectoryIterator<TimedState<Pose2dWithCurvature>>(PackedTrajectory.timedView(mirroredTrajectory.right));
     }  
     else {
-      mTrajectory = new TrajectoryIterator<TimedState<Pose2dWithCurvature>>(new TimedView<>(mirroredTrajectory.left));
+      mTrajectory = new TrajectoryIterator<TimedState<Pose2dWithCurvature>>(PackedTrajectory.timedView(mirroredTrajectory.left));
     }
     // System.out.println("Starting trajectory on " + Robot.trajectoryGenerator.getRightLeftAutonSide() + " side! (length=" + mTrajectory.getRemainingProgress() + ")");
     if (mResetPose) {
       RobotStatus.getInstance().reset(Timer.getFPGATimestamp(), mTrajectory.getState().state().getPose());
     }
     else if (mResetXYPose) {
-      Pose2d resetPose = new Pose2d(mTrajectory.getState().state().getPose().getTranslation(), RobotStatus.getInstance().getFieldToVehicle(Timer.getFPGATimestamp()).getRotation());
+      Pose2d resetPose = new Pose2d(mTrajectory.getState().state().getPose().getTranslation(), RobotStatus.getInstance().getSnapshot().field_to_vehicle.getRotation());
       RobotStatus.getInstance().reset(Timer.getFPGATimestamp(), resetPose);
     }
 
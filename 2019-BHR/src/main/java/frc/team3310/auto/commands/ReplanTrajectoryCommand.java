@@ -0,0 +1,93 @@
+package frc.team3310.auto.commands;
+
+import java.util.List;
+
+import edu.wpi.first.wpilibj.command.Command;
+import frc.team3310.robot.planners.TrajectoryReplanner;
+import frc.team3310.robot.subsystems.Drive;
+import frc.team3310.utility.lib.control.RobotStatus;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.trajectory.PackedTrajectory;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
+
+/**
+ * Drives to a goal pose along a path planned from wherever the robot is when the command starts, instead of a path
+ * generated at boot.
+ */
+public class ReplanTrajectoryCommand extends Command {
+  // Created with the first command rather than when one starts, since it builds the drive dynamics tables.
+  private static final TrajectoryReplanner sReplanner = new TrajectoryReplanner();
+
+  private final boolean mReversed;
+  private final Pose2d mGoal;
+  private final List<TimingConstraint<Pose2dWithCurvature>> mConstraints;
+  private final double mMaxVel;
+  private final double mMaxAccel;
+  private final double mMaxVoltage;
+
+  private TrajectoryReplanner.PendingTrajectory mPending;
+  private boolean mStarted;
+
+  public ReplanTrajectoryCommand(boolean reversed, Pose2d goal, List<TimingConstraint<Pose2dWithCurvature>> constraints,
+      double max_vel, double max_accel, double max_voltage) {
+    mReversed = reversed;
+    mGoal = goal;
+    mConstraints = constraints;
+    mMaxVel = max_vel;
+    mMaxAccel = max_accel;
+    mMaxVoltage = max_voltage;
+  }
+
+  // Called just before this Command runs the first time
+  @Override
+  protected void initialize() {
+    RobotStatus status = RobotStatus.getInstance();
+    Pose2d start = status.getLatestFieldToVehicle().getValue();
+    double velocity = status.getPredictedVelocity().dx;
+    mStarted = false;
+    mPending = sReplanner.replan(mReversed, start, velocity, mGoal, mConstraints, mMaxVel, mMaxAccel,
+        mMaxVoltage);
+  }
+
+  // Called repeatedly when this Command is scheduled to run
+  @Override
+  protected void execute() {
+    if (mStarted) {
+      return;
+    }
+    Trajectory<TimedState<Pose2dWithCurvature>> trajectory = mPending.poll();
+    if (trajectory != null) {
+      if (mPending.isCoarse()) {
+        System.out.println("Replanning missed its deadline, driving the coarse path");
+      }
+      Drive.getInstance().setTrajectory(new TrajectoryIterator<>(PackedTrajectory.timedView(trajectory)));
+      mStarted = true;
+    }
+  }
+
+  // Make this return true when this Command no longer needs to run execute()
+  @Override
+  protected boolean isFinished() {
+    if (mPending.hasFailed()) {
+      System.out.println("Replanning failed");
+      return true;
+    }
+    return mStarted && Drive.getInstance().isDoneWithTrajectory();
+  }
+
+  // Called once after isFinished returns true
+  @Override
+  protected void end() {
+  }
+
+  // Called when another command which requires one or more of the same
+  // subsystems is scheduled to run
+  @Override
+  protected void interrupted() {
+    mPending.cancel();
+  }
+}
@@ -1,7 +1,6 @@
 package frc.team3310.auto.commands;
 
 import frc.team3310.utility.lib.control.RobotStatus;
-import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.command.Command;
 
 public class WaitUntilCrossXBoundary extends Command {
@@ -20,10 +19,10 @@ public class WaitUntilCrossXBoundary extends Command {
     public boolean isFinished() {
         // System.out.println("X Position" +RobotStatus.getInstance().getFieldToVehicle().getTranslation().x() + ", Y Position" +RobotStatus.getInstance().getFieldToVehicle().getTranslation().y());
         if (mMovingDirection == MovingXDirection.Positive) {
-            return RobotStatus.getInstance().getFieldToVehicle(Timer.getFPGATimestamp()).getTranslation().x() > mXBoundary;
+            return RobotStatus.getInstance().getSnapshot().field_to_vehicle.getTranslation().x() > mXBoundary;
         }
         else {
-            return RobotStatus.getInstance().getFieldToVehicle(Timer.getFPGATimestamp()).getTranslation().x() < mXBoundary;
+            return RobotStatus.getInstance().getSnapshot().field_to_vehicle.getTranslation().x() < mXBoundary;
         }
     }
 
@@ -1,5 +1,6 @@
 package frc.team3310.path.controller;
 
+import java.io.File;
 import java.lang.reflect.Field;
 import java.net.URLDecoder;
 import java.util.ArrayList;
@@ -22,11 +23,14 @@ import frc.team3310.utility.lib.spline.SplineGenerator;
 import frc.team3310.utility.lib.trajectory.LazyLoadTrajectory;
 import frc.team3310.utility.lib.trajectory.MirroredTrajectory;
 import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryCache;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 
 @RestController
 @RequestMapping("api")
 public class APIController {
+    private static final File kTrajectoryCacheDirectory = new File(System.getProperty("java.io.tmpdir"),
+            "hawkpath_trajectory_cache");
 
     @RequestMapping(value = "/calculate_splines", method = RequestMethod.POST)
     public @ResponseBody String calcSplines(@RequestBody String message) {
@@ -65,6 +69,7 @@ public class APIController {
         }
 
         TrajectoryGenerator trajectories = TrajectoryGenerator.getInstance();
+        trajectories.setTrajectoryCache(new TrajectoryCache(kTrajectoryCacheDirectory));
         trajectories.generateTrajectories();
 
         Trajectory<TimedState<Pose2dWithCurvature>> trajectory = null;
@@ -102,6 +107,7 @@ public class APIController {
     @RequestMapping(value = "/get_trajectory_list", method = RequestMethod.POST)
     public @ResponseBody String getTrajectoryList(@RequestBody String message) {
         TrajectoryGenerator trajectories = TrajectoryGenerator.getInstance();
+        trajectories.setTrajectoryCache(new TrajectoryCache(kTrajectoryCacheDirectory));
         trajectories.generateTrajectories();
 
         StringBuilder strBuilder = new StringBuilder();
@@ -132,7 +138,7 @@ public class APIController {
                 mQuinticHermiteSplines.add(new QuinticHermiteSpline(points.get(i), points.get(i + 1)));
             }
 
-            QuinticHermiteSpline.optimizeSpline(mQuinticHermiteSplines);
+            QuinticHermiteSpline.optimizeSplineAnalytic(mQuinticHermiteSplines);
 
             for (QuinticHermiteSpline mQuinticHermiteSpline : mQuinticHermiteSplines) {
                 mSplines.add(mQuinticHermiteSpline);
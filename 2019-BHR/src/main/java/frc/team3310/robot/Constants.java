@@ -7,6 +7,29 @@ package frc.team3310.robot;
  */
 public class Constants {
     public static final double kLooperDt = 0.01;
+    // How often Looper timing percentiles go to the dashboard, in seconds. Zero turns the summary off.
+    public static final double kLooperTimingSummaryPeriod = 1.0;
+
+    // Control loop periods and priorities. Drive reads the encoders and gyro in its read phase, and the estimator
+    // integrates them before Drive's path follower uses the pose, so the estimator goes first. Odometry gains nothing
+    // from running faster than Drive reads the sensors.
+    public static final double kDriveLoopPeriod = kLooperDt;
+    public static final int kDriveLoopPriority = 0;
+    public static final double kRobotStateEstimatorPeriod = kLooperDt;
+    public static final int kRobotStateEstimatorPriority = 1;
+    // Fraction of the way a vision position fix moves the estimated position at the frame's capture time.
+    public static final double kVisionTranslationGain = 0.5;
+
+    // Solve the drive feedforward for every trajectory sample when the trajectory is generated, instead of on every
+    // path follower update. The check solves it live as well and reports the interpolation error on the dashboard.
+    public static final boolean kPrecomputeDriveFeedforward = true;
+    public static final boolean kCheckDriveFeedforward = false;
+    // Drive master sets are skipped while the demand and the arbitrary feedforward stay within these of the last set
+    // sent. Percent output demands and the feedforward use half of the Talon's 1/1023 output resolution; velocity
+    // demands use half a tick per 100ms, the Talon's velocity resolution.
+    public static final double kDrivePercentOutputEpsilon = 0.5 / 1023.0;
+    public static final double kDriveVelocityEpsilon = 0.5; // ticks per 100ms
+    public static final double kDriveFeedforwardEpsilon = 0.5 / 1023.0;
 
     /* ROBOT PHYSICAL CONSTANTS */
 
@@ -73,6 +96,8 @@ public class Constants {
     public static final double kPathKX = 4.0;// 4.0; // units/s per unit of error
     public static final double kPathLookaheadTime = 0.4; // seconds to look ahead along the path for steering
     public static final double kPathMinLookaheadDistance = 24.0; // inches
+    public static final double kReplanDeadlineSeconds = 0.05; // fall back to a coarse replanned path after this
+    public static final double kReplanMaxVoltage = 10.0; // voltage limit the replanner is prepared for at startup
 
     public static final double kDriveVelocityKp = 0.7; // 0.9;
     public static final double kDriveVelocityKi = 0.0;
@@ -206,4 +231,7 @@ public class Constants {
     public static final int kCANTimeoutMs = 10; // use for on the fly updates
     public static final int kLongCANTimeoutMs = 100; // use for constructors
 
+    /* FILES */
+    public static final String kTrajectoryCacheDirectory = "/home/lvuser/trajectory_cache";
+
 }
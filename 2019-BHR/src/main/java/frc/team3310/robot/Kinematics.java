@@ -1,5 +1,8 @@
 package frc.team3310.robot;
 
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableRotation2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
 import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Rotation2d;
 import frc.team3310.utility.lib.geometry.Twist2d;
@@ -26,11 +29,38 @@ public class Kinematics {
         return new Twist2d(dx, 0.0, delta_rotation_rads);
     }
 
+    /**
+     * Same as forwardKinematics(left_wheel_delta, right_wheel_delta), but writes the result in place.
+     */
+    public static MutableTwist2d forwardKinematics(double left_wheel_delta, double right_wheel_delta,
+                                                   MutableTwist2d result) {
+        double delta_rotation = (right_wheel_delta - left_wheel_delta) / (Constants.kDriveWheelTrackWidthInches * Constants.kTrackScrubFactor);
+        return result.set((left_wheel_delta + right_wheel_delta) / 2.0, 0.0, delta_rotation);
+    }
+
     public static Twist2d forwardKinematics(Rotation2d prev_heading, double left_wheel_delta, double right_wheel_delta,
                                             Rotation2d current_heading) {
         final double dx = (left_wheel_delta + right_wheel_delta) / 2.0;
         final double dy = 0.0;
-        return new Twist2d(dx, dy, prev_heading.inverse().rotateBy(current_heading).getRadians());
+        return new Twist2d(dx, dy, prev_heading.distance(current_heading));
+    }
+
+    public static Twist2d forwardKinematics(MutableRotation2d prev_heading, double left_wheel_delta,
+                                            double right_wheel_delta, Rotation2d current_heading) {
+        final double dx = (left_wheel_delta + right_wheel_delta) / 2.0;
+        final double dy = 0.0;
+        return new Twist2d(dx, dy, prev_heading.distance(current_heading));
+    }
+
+    /**
+     * Same as above, but writes the result in place.
+     */
+    public static MutableTwist2d forwardKinematics(MutableRotation2d prev_heading, double left_wheel_delta,
+                                                   double right_wheel_delta, Rotation2d current_heading,
+                                                   MutableTwist2d result) {
+        final double dx = (left_wheel_delta + right_wheel_delta) / 2.0;
+        final double dy = 0.0;
+        return result.set(dx, dy, prev_heading.distance(current_heading));
     }
 
     /**
@@ -40,4 +70,17 @@ public class Kinematics {
                                                     Twist2d forward_kinematics) {
         return current_pose.transformBy(Pose2d.exp(forward_kinematics));
     }
+
+    /**
+     * Same as above, but updates current_pose in place.
+     */
+    public static MutablePose2d integrateForwardKinematics(MutablePose2d current_pose,
+                                                           Twist2d forward_kinematics) {
+        return current_pose.transformByExp(forward_kinematics);
+    }
+
+    public static MutablePose2d integrateForwardKinematics(MutablePose2d current_pose,
+                                                           MutableTwist2d forward_kinematics) {
+        return current_pose.transformByExp(forward_kinematics.dx, forward_kinematics.dy, forward_kinematics.dtheta);
+    }
 }
@@ -7,7 +7,10 @@
 
 package frc.team3310.robot;
 
+import java.io.File;
+
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.PowerDistributionPanel;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.command.Command;
@@ -19,10 +22,12 @@ import frc.team3310.auto.commands.LazyLoadCommandGroup;
 import frc.team3310.robot.loops.Looper;
 import frc.team3310.robot.paths.TrajectoryGenerator;
 import frc.team3310.robot.paths.TrajectoryGenerator.RightLeftAutonSide;
+import frc.team3310.robot.paths.TrajectoryPrecompiler;
 import frc.team3310.robot.subsystems.Drive;
 import frc.team3310.robot.subsystems.Drive.DriveControlMode;
 import frc.team3310.robot.subsystems.RobotStateEstimator;
 import frc.team3310.utility.lib.control.RobotStatus;
+import frc.team3310.utility.lib.trajectory.TrajectoryCache;
 
 public class Robot extends TimedRobot {
 	// public static OI oi;
@@ -70,8 +75,11 @@ public class Robot extends TimedRobot {
 	public void robotInit() {
 		// oi = OI.getInstance();
 
-		controlLoop.register(drive);
+		controlLoop.register(drive, Constants.kDriveLoopPeriod, Constants.kDriveLoopPriority);
 		RobotStateEstimator.getInstance().registerEnabledLoops(controlLoop);
+		// Load trajectories precompiled at build time, falling back to generating them on a key mismatch.
+		trajectoryGenerator.setTrajectoryCache(new TrajectoryCache(new File(Constants.kTrajectoryCacheDirectory),
+				new File(Filesystem.getDeployDirectory(), TrajectoryPrecompiler.kDeploySubdirectory)));
 		trajectoryGenerator.generateTrajectories();
 
 		operationModeChooser = new SendableChooser<OperationMode>();
@@ -187,5 +195,6 @@ public class Robot extends TimedRobot {
 	public void updateStatus() {
 		drive.updateStatus(operationMode);
 		robotState.updateStatus(operationMode);
+		controlLoop.outputToSmartDashboard();
 	}
 }
@@ -1,5 +1,16 @@
 package frc.team3310.robot.loops;
 
 public interface ILooper {
+    public static final int kDefaultPriority = 0;
+
+    /**
+     * Runs loop every Constants.kLooperDt at kDefaultPriority.
+     */
     void register(Loop loop);
+
+    /**
+     * Runs loop every period seconds. Loops due on the same tick run in order of decreasing priority, then in the
+     * order they were registered.
+     */
+    void register(Loop loop, double period, int priority);
 }
@@ -3,12 +3,37 @@ package frc.team3310.robot.loops;
 /**
  * Interface for loops, which are routine that run periodically in the robot code (such as periodic gyroscope
  * calibration, etc.)
+ * <p>
+ * Each tick of the Looper runs in three phases across all loops due on it: onRead for every loop, then onLoop for
+ * every loop, then onWrite for every loop. Sensor reads (e.g. CAN status) belong in onRead and actuator writes in
+ * onWrite, so that all of the tick's inputs are sampled together before any control math and all outputs go out
+ * together after it.
  */
 public interface Loop {
 
     public void onStart(double timestamp);
 
+    /**
+     * Reads sensors for this tick.
+     */
+    public default void onRead(double timestamp) {
+    }
+
     public void onLoop(double timestamp);
 
+    /**
+     * Writes the outputs computed in onLoop.
+     */
+    public default void onWrite(double timestamp) {
+    }
+
     public void onStop(double timestamp);
+
+    /**
+     * Sheddable loops are skipped for a tick when the previous tick ran past the Looper period, to give the rest of
+     * the loops their time back. Only loops that can miss a tick (e.g. telemetry) should return true.
+     */
+    public default boolean isSheddable() {
+        return false;
+    }
 }
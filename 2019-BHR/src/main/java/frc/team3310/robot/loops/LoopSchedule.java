@@ -0,0 +1,121 @@
+package frc.team3310.robot.loops;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Looper's schedule for a set of loop periods, kept apart from the Notifier so that it can be checked off the robot.
+ * <p>
+ * The tick period is the greatest common divisor of the periods. Loop i runs on ticks where
+ * tick % ticks_per_run[i] == phase[i]. Loops get phases in registration order, each taking the phase whose busiest
+ * tick has the fewest loops already scheduled (the lowest such phase on a tie).
+ */
+final class LoopSchedule {
+    static final long kMinPeriodMicros = 1000;
+    // Limit on the ticks in one full cycle of the schedule, to catch periods with no useful common divisor.
+    static final int kMaxScheduleLength = 1 << 16;
+
+    final long tick_micros;
+    // Ticks in one full cycle of the schedule, the least common multiple of ticks_per_run.
+    final int length;
+    // Loop indices in the order they run within a tick: decreasing priority, then registration order.
+    final int[] order;
+    final int[] ticks_per_run;
+    final int[] phase;
+
+    private LoopSchedule(long tick_micros, int length, int[] order, int[] ticks_per_run, int[] phase) {
+        this.tick_micros = tick_micros;
+        this.length = length;
+        this.order = order;
+        this.ticks_per_run = ticks_per_run;
+        this.phase = phase;
+    }
+
+    /**
+     * @param period_micros each loop's period in microseconds, in registration order
+     * @param priority      each loop's priority, in registration order
+     * @throws RuntimeException if a period is shorter than kMinPeriodMicros, the periods have no common divisor of at
+     *                          least kMinPeriodMicros, or the schedule would be longer than kMaxScheduleLength ticks
+     */
+    static LoopSchedule create(long[] period_micros, int[] priority) {
+        final int count = period_micros.length;
+        if (count == 0) {
+            throw new RuntimeException("No loops to schedule");
+        }
+        long tick_micros = 0;
+        for (long period : period_micros) {
+            if (period < kMinPeriodMicros) {
+                throw new RuntimeException("Loop period " + period + " us is shorter than " + kMinPeriodMicros + " us");
+            }
+            tick_micros = gcd(tick_micros, period);
+        }
+        if (tick_micros < kMinPeriodMicros) {
+            throw new RuntimeException("Loop periods have no common tick period of at least " + kMinPeriodMicros
+                    + " us");
+        }
+
+        final int[] ticks_per_run = new int[count];
+        long length = 1;
+        for (int i = 0; i < count; ++i) {
+            final long ticks = period_micros[i] / tick_micros;
+            length = length / gcd(length, ticks) * ticks;
+            if (length > kMaxScheduleLength) {
+                throw new RuntimeException("Loop periods repeat only after more than " + kMaxScheduleLength + " ticks");
+            }
+            ticks_per_run[i] = (int) ticks;
+        }
+
+        final int[] load = new int[(int) length];
+        final int[] phase = new int[count];
+        for (int i = 0; i < count; ++i) {
+            int best_phase = 0;
+            int best_load = Integer.MAX_VALUE;
+            for (int p = 0; p < ticks_per_run[i]; ++p) {
+                int phase_load = 0;
+                for (int tick = p; tick < load.length; tick += ticks_per_run[i]) {
+                    phase_load = Math.max(phase_load, load[tick]);
+                }
+                if (phase_load < best_load) {
+                    best_load = phase_load;
+                    best_phase = p;
+                }
+            }
+            phase[i] = best_phase;
+            for (int tick = best_phase; tick < load.length; tick += ticks_per_run[i]) {
+                load[tick]++;
+            }
+        }
+
+        // Insertion keeps registration order within a priority.
+        final List<Integer> by_priority = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            int index = by_priority.size();
+            while (index > 0 && priority[by_priority.get(index - 1)] < priority[i]) {
+                index--;
+            }
+            by_priority.add(index, i);
+        }
+        final int[] order = new int[count];
+        for (int i = 0; i < count; ++i) {
+            order[i] = by_priority.get(i);
+        }
+
+        return new LoopSchedule(tick_micros, (int) length, order, ticks_per_run, phase);
+    }
+
+    /**
+     * Seconds between ticks.
+     */
+    double getPeriod() {
+        return tick_micros * 1E-6;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            final long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
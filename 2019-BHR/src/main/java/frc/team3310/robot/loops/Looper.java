@@ -8,22 +8,87 @@ import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import frc.team3310.robot.Constants;
 import frc.team3310.utility.CrashTrackingRunnable;
+import frc.team3310.utility.LatencyHistogram;
 
 /**
  * This code runs all of the robot's loops. Loop objects are stored in a List
  * object. They are started when the robot powers up and stopped after the
  * match.
+ * <p>
+ * Loops can run at different rates. A single Notifier ticks at the greatest
+ * common divisor of the registered periods, and each loop runs on every n-th
+ * tick with a phase offset that spreads the slower loops across ticks. Phases
+ * only depend on the order of registration, so the schedule is the same every
+ * time the robot starts.
+ * <p>
+ * Every tick runs in three phases over the loops due on it: all onRead calls,
+ * then all onLoop calls, then all onWrite calls (see Loop).
+ * <p>
+ * Each tick is timed: how long every loop takes over its three phases, how
+ * long each phase and the whole tick take, and how far the time between ticks
+ * is from the tick period (jitter). The tick time is the latency from the
+ * first sensor read to the last output write. A tick that takes longer than the tick period is an overrun, and
+ * sheddable loops are skipped on the tick after one.
  */
 public class Looper implements ILooper {
-    public final double kPeriod = Constants.kLooperDt;
+    public enum Phase {
+        READ, COMPUTE, WRITE
+    }
+
+    private static final double kHistogramResolution = 50E-6; // 50 us
+    private static final double kHistogramMax = 4.0 * Constants.kLooperDt;
+    // Phase.values() allocates a copy on every call.
+    private static final Phase[] kPhases = Phase.values();
 
     private boolean running_;
 
     private final Notifier notifier_;
-    private final List<Loop> loops_;
+    // In the order they run within a tick (see LoopSchedule.order).
+    private final List<TimedLoop> loops_;
+    private final List<TimedLoop> registered_;
     private final Object taskRunningLock_ = new Object();
     private double timestamp_ = 0;
     private double dt_ = 0;
+    private double period_ = Constants.kLooperDt;
+    private long tick_ = 0;
+
+    private final LatencyHistogram tick_time_ = new LatencyHistogram(kHistogramResolution, kHistogramMax);
+    private final LatencyHistogram jitter_ = new LatencyHistogram(kHistogramResolution, kHistogramMax);
+    private final LatencyHistogram[] phase_time_ = new LatencyHistogram[kPhases.length];
+    private long overrun_count_ = 0;
+    private boolean overran_ = false;
+
+    private double timing_summary_period_ = Constants.kLooperTimingSummaryPeriod;
+    private double last_timing_summary_time_ = Double.NEGATIVE_INFINITY;
+
+    private static class TimedLoop {
+        final Loop loop;
+        final long period_micros;
+        final int priority;
+        // Runs on ticks where tick % ticks_per_run == phase.
+        int ticks_per_run = 1;
+        int phase = 0;
+        // Whether the loop runs on the current tick, and its time so far on it.
+        boolean due = false;
+        long tick_nanos = 0;
+        final LatencyHistogram execution_time = new LatencyHistogram(kHistogramResolution, kHistogramMax);
+        long shed_count = 0;
+        // Dashboard keys, built once so the summary does not concatenate strings.
+        final String p99_key;
+        final String max_key;
+        final String shed_key;
+
+        TimedLoop(Loop loop, long period_micros, int priority) {
+            this.loop = loop;
+            this.period_micros = period_micros;
+            this.priority = priority;
+            String name = loop.getClass().getName();
+            name = name.substring(name.lastIndexOf('.') + 1);
+            p99_key = "looper_" + name + "_p99_ms";
+            max_key = "looper_" + name + "_max_ms";
+            shed_key = "looper_" + name + "_shed";
+        }
+    }
 
     private final CrashTrackingRunnable runnable_ = new CrashTrackingRunnable() {
         @Override
@@ -31,27 +96,114 @@ public class Looper implements ILooper {
             synchronized (taskRunningLock_) {
                 if (running_) {
                     double now = Timer.getFPGATimestamp();
+                    final long tick_start = System.nanoTime();
+                    final boolean shed = overran_;
+
+                    for (int i = 0; i < loops_.size(); ++i) {
+                        final TimedLoop timed = loops_.get(i);
+                        timed.due = tick_ % timed.ticks_per_run == timed.phase;
+                        timed.tick_nanos = 0;
+                        if (timed.due && shed && timed.loop.isSheddable()) {
+                            timed.due = false;
+                            timed.shed_count++;
+                        }
+                    }
+
+                    long phase_start = tick_start;
+                    for (Phase phase : kPhases) {
+                        for (int i = 0; i < loops_.size(); ++i) {
+                            final TimedLoop timed = loops_.get(i);
+                            if (!timed.due) {
+                                continue;
+                            }
+                            final long loop_start = System.nanoTime();
+                            if (phase == Phase.READ) {
+                                timed.loop.onRead(now);
+                            } else if (phase == Phase.COMPUTE) {
+                                timed.loop.onLoop(now);
+                            } else {
+                                timed.loop.onWrite(now);
+                            }
+                            timed.tick_nanos += System.nanoTime() - loop_start;
+                        }
+                        final long phase_end = System.nanoTime();
+                        phase_time_[phase.ordinal()].record((phase_end - phase_start) * 1E-9);
+                        phase_start = phase_end;
+                    }
+
+                    for (int i = 0; i < loops_.size(); ++i) {
+                        final TimedLoop timed = loops_.get(i);
+                        if (timed.due) {
+                            timed.execution_time.record(timed.tick_nanos * 1E-9);
+                        }
+                    }
 
-                    for (Loop loop : loops_) {
-                        loop.onLoop(now);
+                    final double tick_time = (phase_start - tick_start) * 1E-9;
+                    tick_time_.record(tick_time);
+                    overran_ = tick_time > period_;
+                    if (overran_) {
+                        overrun_count_++;
                     }
 
                     dt_ = now - timestamp_;
+                    jitter_.record(Math.abs(dt_ - period_));
                     timestamp_ = now;
+                    tick_++;
                 }
             }
         }
     };
 
     public Looper() {
+        for (Phase phase : kPhases) {
+            phase_time_[phase.ordinal()] = new LatencyHistogram(kHistogramResolution, kHistogramMax);
+        }
         notifier_ = new Notifier(runnable_);
         running_ = false;
         loops_ = new ArrayList<>();
+        registered_ = new ArrayList<>();
     }
 
     public synchronized void register(Loop loop) {
+        register(loop, Constants.kLooperDt, kDefaultPriority);
+    }
+
+    public synchronized void register(Loop loop, double period, int priority) {
+        final TimedLoop timed = new TimedLoop(loop, Math.round(period * 1E6), priority);
+        synchronized (taskRunningLock_) {
+            final int count = registered_.size() + 1;
+            final long[] periods = new long[count];
+            final int[] priorities = new int[count];
+            for (int i = 0; i < count - 1; ++i) {
+                periods[i] = registered_.get(i).period_micros;
+                priorities[i] = registered_.get(i).priority;
+            }
+            periods[count - 1] = timed.period_micros;
+            priorities[count - 1] = timed.priority;
+            // Throws before anything changes if the new loop cannot be scheduled.
+            final LoopSchedule schedule = LoopSchedule.create(periods, priorities);
+
+            registered_.add(timed);
+            loops_.clear();
+            for (int i : schedule.order) {
+                final TimedLoop scheduled = registered_.get(i);
+                scheduled.ticks_per_run = schedule.ticks_per_run[i];
+                scheduled.phase = schedule.phase[i];
+                loops_.add(scheduled);
+            }
+            period_ = schedule.getPeriod();
+        }
+        if (running_) {
+            notifier_.startPeriodic(period_);
+        }
+    }
+
+    /**
+     * Seconds between ticks, the greatest common divisor of the registered loop periods.
+     */
+    public double getPeriod() {
         synchronized (taskRunningLock_) {
-            loops_.add(loop);
+            return period_;
         }
     }
 
@@ -60,12 +212,14 @@ public class Looper implements ILooper {
             // System.out.println("Starting loops");
             synchronized (taskRunningLock_) {
                 timestamp_ = Timer.getFPGATimestamp();
-                for (Loop loop : loops_) {
-                    loop.onStart(timestamp_);
+                for (TimedLoop timed : loops_) {
+                    timed.loop.onStart(timestamp_);
                 }
+                overran_ = false;
+                tick_ = 0;
                 running_ = true;
             }
-            notifier_.startPeriodic(kPeriod);
+            notifier_.startPeriodic(period_);
         }
     }
 
@@ -76,15 +230,137 @@ public class Looper implements ILooper {
             synchronized (taskRunningLock_) {
                 running_ = false;
                 timestamp_ = Timer.getFPGATimestamp();
-                for (Loop loop : loops_) {
+                for (TimedLoop timed : loops_) {
                     // System.out.println("Stopping " + loop);
-                    loop.onStop(timestamp_);
+                    timed.loop.onStop(timestamp_);
                 }
             }
         }
     }
 
+    /**
+     * Time in seconds that percentile percent of loop's ticks (onRead, onLoop and onWrite together) finished within,
+     * or 0 if loop is not registered or has not run.
+     */
+    public double getLoopTimePercentile(Loop loop, double percentile) {
+        synchronized (taskRunningLock_) {
+            TimedLoop timed = find(loop);
+            return timed == null ? 0.0 : timed.execution_time.getPercentile(percentile);
+        }
+    }
+
+    /**
+     * Longest tick of loop (onRead, onLoop and onWrite together) in seconds.
+     */
+    public double getLoopTimeMax(Loop loop) {
+        synchronized (taskRunningLock_) {
+            TimedLoop timed = find(loop);
+            return timed == null ? 0.0 : timed.execution_time.getMax();
+        }
+    }
+
+    /**
+     * Number of ticks loop was skipped because the tick before it overran.
+     */
+    public long getShedCount(Loop loop) {
+        synchronized (taskRunningLock_) {
+            TimedLoop timed = find(loop);
+            return timed == null ? 0 : timed.shed_count;
+        }
+    }
+
+    /**
+     * Time in seconds that percentile percent of ticks (all loops due on the tick together) finished within, i.e. the
+     * latency from the first sensor read to the last output write.
+     */
+    public double getTickTimePercentile(double percentile) {
+        synchronized (taskRunningLock_) {
+            return tick_time_.getPercentile(percentile);
+        }
+    }
+
+    /**
+     * Time in seconds that percentile percent of ticks finished phase within, over all loops due on the tick.
+     */
+    public double getPhaseTimePercentile(Phase phase, double percentile) {
+        synchronized (taskRunningLock_) {
+            return phase_time_[phase.ordinal()].getPercentile(percentile);
+        }
+    }
+
+    /**
+     * Difference in seconds between the time from one tick to the next and getPeriod(), at percentile percent.
+     */
+    public double getJitterPercentile(double percentile) {
+        synchronized (taskRunningLock_) {
+            return jitter_.getPercentile(percentile);
+        }
+    }
+
+    /**
+     * Number of ticks that took longer than getPeriod().
+     */
+    public long getOverrunCount() {
+        synchronized (taskRunningLock_) {
+            return overrun_count_;
+        }
+    }
+
+    public void resetTiming() {
+        synchronized (taskRunningLock_) {
+            tick_time_.reset();
+            jitter_.reset();
+            for (LatencyHistogram histogram : phase_time_) {
+                histogram.reset();
+            }
+            overrun_count_ = 0;
+            for (TimedLoop timed : loops_) {
+                timed.execution_time.reset();
+                timed.shed_count = 0;
+            }
+        }
+    }
+
+    /**
+     * How often outputToSmartDashboard publishes the timing summary, in seconds. Zero or less turns it off.
+     */
+    public void setTimingSummaryPeriod(double seconds) {
+        timing_summary_period_ = seconds;
+    }
+
+    private TimedLoop find(Loop loop) {
+        for (TimedLoop timed : loops_) {
+            if (timed.loop == loop) {
+                return timed;
+            }
+        }
+        return null;
+    }
+
     public void outputToSmartDashboard() {
         SmartDashboard.putNumber("looper_dt", dt_);
+
+        final double now = Timer.getFPGATimestamp();
+        if (timing_summary_period_ <= 0.0 || now - last_timing_summary_time_ < timing_summary_period_) {
+            return;
+        }
+        last_timing_summary_time_ = now;
+        synchronized (taskRunningLock_) {
+            SmartDashboard.putNumber("looper_tick_p50_ms", tick_time_.getPercentile(50.0) * 1000.0);
+            SmartDashboard.putNumber("looper_tick_p99_ms", tick_time_.getPercentile(99.0) * 1000.0);
+            SmartDashboard.putNumber("looper_tick_max_ms", tick_time_.getMax() * 1000.0);
+            SmartDashboard.putNumber("looper_read_p99_ms", phase_time_[Phase.READ.ordinal()].getPercentile(99.0) * 1000.0);
+            SmartDashboard.putNumber("looper_compute_p99_ms",
+                    phase_time_[Phase.COMPUTE.ordinal()].getPercentile(99.0) * 1000.0);
+            SmartDashboard.putNumber("looper_write_p99_ms",
+                    phase_time_[Phase.WRITE.ordinal()].getPercentile(99.0) * 1000.0);
+            SmartDashboard.putNumber("looper_jitter_p99_ms", jitter_.getPercentile(99.0) * 1000.0);
+            SmartDashboard.putNumber("looper_overruns", overrun_count_);
+            for (TimedLoop timed : loops_) {
+                SmartDashboard.putNumber(timed.p99_key, timed.execution_time.getPercentile(99.0) * 1000.0);
+                SmartDashboard.putNumber(timed.max_key, timed.execution_time.getMax() * 1000.0);
+                SmartDashboard.putNumber(timed.shed_key, timed.shed_count);
+            }
+        }
     }
 }
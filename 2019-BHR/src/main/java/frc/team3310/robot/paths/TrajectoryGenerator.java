@@ -1,9 +1,16 @@
 package frc.team3310.robot.paths;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+import frc.team3310.robot.Constants;
 import frc.team3310.robot.planners.DriveMotionPlanner;
 import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
@@ -11,6 +18,7 @@ import frc.team3310.utility.lib.geometry.Rotation2d;
 import frc.team3310.utility.lib.geometry.Translation2d;
 import frc.team3310.utility.lib.trajectory.LazyLoadTrajectory;
 import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryCache;
 import frc.team3310.utility.lib.trajectory.timing.CentripetalAccelerationConstraint;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
@@ -41,6 +49,11 @@ public class TrajectoryGenerator {
 
         private TrajectoryGenerator() {
                 mMotionPlanner = new DriveMotionPlanner();
+                mMotionPlanner.setPrecomputeFeedforward(Constants.kPrecomputeDriveFeedforward);
+        }
+
+        public void setTrajectoryCache(TrajectoryCache cache) {
+                mMotionPlanner.setTrajectoryCache(cache);
         }
 
         public void setRightLeftAutonSide(RightLeftAutonSide side) {
@@ -59,10 +72,44 @@ public class TrajectoryGenerator {
                 }
         }
 
+        /**
+         * Generates every trajectory in the set (and its mirror) up front, fanning the work out across a
+         * ForkJoin pool. Each trajectory is independent, so this scales with the number of cores.
+         */
+        public void generateTrajectoriesParallel() {
+                generateTrajectoriesParallel(ForkJoinPool.commonPool());
+        }
+
+        public void generateTrajectoriesParallel(ForkJoinPool pool) {
+                generateTrajectories();
+
+                final long start = System.nanoTime();
+                Map<String, LazyLoadTrajectory> trajectories = mTrajectorySet.getAllTrajectories();
+                List<ForkJoinTask<?>> tasks = new ArrayList<>(trajectories.size());
+                for (LazyLoadTrajectory trajectory : trajectories.values()) {
+                        tasks.add(pool.submit(trajectory::activate));
+                }
+                for (ForkJoinTask<?> task : tasks) {
+                        task.join();
+                }
+                final double totalMs = (System.nanoTime() - start) / 1.0e6;
+
+                for (Map.Entry<String, LazyLoadTrajectory> entry : trajectories.entrySet()) {
+                        System.out.println(String.format("  %-32s %8.1f ms", entry.getKey(),
+                                        entry.getValue().getGenerationTimeMs()));
+                }
+                System.out.println(String.format("Generated %d trajectories in %.1f ms on %d threads",
+                                trajectories.size(), totalMs, pool.getParallelism()));
+        }
+
         public TrajectorySet getTrajectorySet() {
                 return mTrajectorySet;
         }
 
+        public Trajectory<TimedState<Pose2dWithCurvature>> generateTrajectory(PathDefinition path) {
+                return path.generate(mMotionPlanner);
+        }
+
         public Trajectory<TimedState<Pose2dWithCurvature>> generateTrajectory(boolean reversed,
                         final List<Pose2d> waypoints, final List<TimingConstraint<Pose2dWithCurvature>> constraints,
                         double max_vel, // inches/s
@@ -83,6 +130,45 @@ public class TrajectoryGenerator {
                                 max_accel, max_voltage);
         }
 
+        /**
+         * Everything a trajectory in the TrajectorySet is generated from, so that tools and benchmarks can generate the
+         * same paths with a planner of their own.
+         */
+        public static class PathDefinition {
+                public final boolean reversed;
+                public final List<Pose2d> waypoints;
+                public final List<TimingConstraint<Pose2dWithCurvature>> constraints;
+                public final double start_vel; // inches/s
+                public final double end_vel; // inches/s
+                public final double max_vel; // inches/s
+                public final double max_accel; // inches/s^2
+                public final double max_voltage;
+
+                public PathDefinition(boolean reversed, List<Pose2d> waypoints,
+                                List<TimingConstraint<Pose2dWithCurvature>> constraints, double max_vel,
+                                double max_accel, double max_voltage) {
+                        this(reversed, waypoints, constraints, 0.0, 0.0, max_vel, max_accel, max_voltage);
+                }
+
+                public PathDefinition(boolean reversed, List<Pose2d> waypoints,
+                                List<TimingConstraint<Pose2dWithCurvature>> constraints, double start_vel,
+                                double end_vel, double max_vel, double max_accel, double max_voltage) {
+                        this.reversed = reversed;
+                        this.waypoints = waypoints;
+                        this.constraints = constraints;
+                        this.start_vel = start_vel;
+                        this.end_vel = end_vel;
+                        this.max_vel = max_vel;
+                        this.max_accel = max_accel;
+                        this.max_voltage = max_voltage;
+                }
+
+                public Trajectory<TimedState<Pose2dWithCurvature>> generate(DriveMotionPlanner planner) {
+                        return planner.generateTrajectory(reversed, waypoints, constraints, start_vel, end_vel,
+                                        max_vel, max_accel, max_voltage);
+                }
+        }
+
         // CRITICAL POSES
         // Origin is the center of the robot when the robot is placed against the middle
         // of the alliance station wall.
@@ -226,6 +312,7 @@ public class TrajectoryGenerator {
                         Rotation2d.fromDegrees(181.00));
 
         public class TrajectorySet {
+                private final Map<LazyLoadTrajectory, PathDefinition> mDefinitions = new IdentityHashMap<>();
 
                 // public final LazyLoadTrajectory level1StartToRocketFront;
                 public final LazyLoadTrajectory level1StartReversedToRocketBack;
@@ -256,330 +343,362 @@ public class TrajectoryGenerator {
                 // public final LazyLoadTrajectory platformToCargoFront;
 
                 private TrajectorySet() {
-                        // level1StartToRocketFront        = new LazyLoadTrajectory(()->getLevel1StartToRocketFront());
-                        level1StartReversedToRocketBack = new LazyLoadTrajectory(()->getLevel1SideStartToRocketBack());
-                        level1StartReversedToCargoSide  = new LazyLoadTrajectory(()->getLevel1StartToCargoSideReversed());
-                        level1StartToCargoFront         = new LazyLoadTrajectory(()->getLevel1StartToCargoFront());
-                        // rocketFrontToTurn1A             = new LazyLoadTrajectory(()->getRocketFrontToTurn1());
-                        // rocketFrontTurn1AToLoading      = new LazyLoadTrajectory(()->getRocketFrontTurnToLoading());
-                        // rocketFrontFaceWallToLoading    = new LazyLoadTrajectory(()->getRocketFaceWallToLoading());
-                        rocketBackToLoading             = new LazyLoadTrajectory(()->getRocketBackToLoading());
-                        loadingToRocketBack             = new LazyLoadTrajectory(()->getLoadingToRocketBack());
-                        // turn3ToRocketBack               = new LazyLoadTrajectory(()->getTurn3ToRocketBack());
-                        cargoFrontToTurn1               = new LazyLoadTrajectory(()->getCargoFrontToTurn1());
-                        cargoFrontTurn1ToLoading        = new LazyLoadTrajectory(()->getCargoFrontTurn1ToLoading());
-                        loadingToCargoFrontTrack2v2     = new LazyLoadTrajectory(()->getLoadingToCargoFrontTrack2());
-                        track2v2PoseToCargo2            = new LazyLoadTrajectory(()->getCargoTrack2ToCargoScore2Pose());
-                        // cargoBackNearToLoading          = new LazyLoadTrajectory(()->getCargoNearBackToLoading());
-                        cargoBackMidToLoading           = new LazyLoadTrajectory(()->getCargoMidBackToLoading());
-                        // cargoBackFarToLoading        = new LazyLoadTrajectory(()->getCargoFarBackToLoading());
-                        loadingToCargoSide              = new LazyLoadTrajectory(()->getLoadingToCargoSide());
-                        loadingToCargoSideLvl2          = new LazyLoadTrajectory(()->getLoadingToCargoSideLvl2());
-
-
-                        driveStraight                   = new LazyLoadTrajectory(()->getLevel2StartDriveStraight());
-                        // driveStraightReversed           = new LazyLoadTrajectory(()->getLevel2StartDriveStraightReversed());
-                        // platformToCargoFront            = new LazyLoadTrajectory(()->getPlatformToCargoFront());
-                        // platformToCargoSideReversed     = new LazyLoadTrajectory(()->getPlatformToCargoSideReversed());
-                        platformToCargoSide             = new LazyLoadTrajectory(()->getPlatformToCargoSide());
-                        // platformToRocketFront           = new LazyLoadTrajectory(()->getPlatformToRocketFront());
-                        // platformToRocketBack            = new LazyLoadTrajectory(()->getPlatformToRocketBackReversed());
-
-                }
-
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLevel2StartDriveStraightReversed() {
+                        // level1StartToRocketFront        = load(getLevel1StartToRocketFront());
+                        level1StartReversedToRocketBack = load(getLevel1SideStartToRocketBack());
+                        level1StartReversedToCargoSide  = load(getLevel1StartToCargoSideReversed());
+                        level1StartToCargoFront         = load(getLevel1StartToCargoFront());
+                        // rocketFrontToTurn1A             = load(getRocketFrontToTurn1());
+                        // rocketFrontTurn1AToLoading      = load(getRocketFrontTurnToLoading());
+                        // rocketFrontFaceWallToLoading    = load(getRocketFaceWallToLoading());
+                        rocketBackToLoading             = load(getRocketBackToLoading());
+                        loadingToRocketBack             = load(getLoadingToRocketBack());
+                        // turn3ToRocketBack               = load(getTurn3ToRocketBack());
+                        cargoFrontToTurn1               = load(getCargoFrontToTurn1());
+                        cargoFrontTurn1ToLoading        = load(getCargoFrontTurn1ToLoading());
+                        loadingToCargoFrontTrack2v2     = load(getLoadingToCargoFrontTrack2());
+                        track2v2PoseToCargo2            = load(getCargoTrack2ToCargoScore2Pose());
+                        // cargoBackNearToLoading          = load(getCargoNearBackToLoading());
+                        cargoBackMidToLoading           = load(getCargoMidBackToLoading());
+                        // cargoBackFarToLoading        = load(getCargoFarBackToLoading());
+                        loadingToCargoSide              = load(getLoadingToCargoSide());
+                        loadingToCargoSideLvl2          = load(getLoadingToCargoSideLvl2());
+
+
+                        driveStraight                   = load(getLevel2StartDriveStraight());
+                        // driveStraightReversed           = load(getLevel2StartDriveStraightReversed());
+                        // platformToCargoFront            = load(getPlatformToCargoFront());
+                        // platformToCargoSideReversed     = load(getPlatformToCargoSideReversed());
+                        platformToCargoSide             = load(getPlatformToCargoSide());
+                        // platformToRocketFront           = load(getPlatformToRocketFront());
+                        // platformToRocketBack            = load(getPlatformToRocketBackReversed());
+
+                }
+
+                private LazyLoadTrajectory load(PathDefinition definition) {
+                        LazyLoadTrajectory trajectory = new LazyLoadTrajectory(() -> generateTrajectory(definition));
+                        mDefinitions.put(trajectory, definition);
+                        return trajectory;
+                }
+
+                /**
+                 * What the trajectory in the field of the given name is generated from, or null if there is no such
+                 * field.
+                 */
+                public PathDefinition getPathDefinition(String name) {
+                        LazyLoadTrajectory trajectory = getAllTrajectories().get(name);
+                        return trajectory == null ? null : mDefinitions.get(trajectory);
+                }
+
+                /**
+                 * All trajectories in the set keyed by field name, in declaration order.
+                 */
+                public Map<String, LazyLoadTrajectory> getAllTrajectories() {
+                        Map<String, LazyLoadTrajectory> trajectories = new LinkedHashMap<>();
+                        for (Field field : TrajectorySet.class.getDeclaredFields()) {
+                                if (field.getType().equals(LazyLoadTrajectory.class)) {
+                                        try {
+                                                trajectories.put(field.getName(), (LazyLoadTrajectory) field.get(this));
+                                        } catch (IllegalAccessException e) {
+                                                throw new RuntimeException(e);
+                                        }
+                                }
+                        }
+                        return trajectories;
+                }
+
+                private PathDefinition getLevel2StartDriveStraightReversed() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kStartReversedLevel2);
                         waypoints.add(kReversedFrontPlatfromPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         0, kFirstPathMaxVel, kFirstPathMaxVel, kFirstPathMaxAccel,
                                         kFirstPathMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLevel2StartDriveStraight() {
+                private PathDefinition getLevel2StartDriveStraight() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kSideStartLevel2);
                         waypoints.add(kFrontPlatfromPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         0, kFirstPathMaxVel, kFirstPathMaxVel, kFirstPathMaxAccel,
                                         kFirstPathMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLevel1StartToRocketFront() {
+                private PathDefinition getLevel1StartToRocketFront() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kSideStartLevel1);
                         waypoints.add(kFrontPlatfromPose);
                         waypoints.add(kRocketFrontTrackPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLevel1SideStartToRocketBack() {
+                private PathDefinition getLevel1SideStartToRocketBack() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kSideStartLevel1Reversed);
                         waypoints.add(kRocketBackTurnPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLevel1StartToCargoSideReversed() {
+                private PathDefinition getLevel1StartToCargoSideReversed() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kSideStartLevel1Reversed);
                         waypoints.add(kCargoMidReversedPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, 80, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLevel1StartToCargoFront() {
+                private PathDefinition getLevel1StartToCargoFront() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kSideStartLevel1);
                         waypoints.add(kFrontPlatfromPose);
                         waypoints.add(kCargoFrontPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getRocketFrontToTurn1() {
+                private PathDefinition getRocketFrontToTurn1() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kRocketFrontScorePose);
                         waypoints.add(kRocketFrontTurnPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getRocketFaceWallToLoading() {
+                private PathDefinition getRocketFaceWallToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kRocketFrontFaceLoading);
                         waypoints.add(kLoadingGrabPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLoadingToRocketBack() {
+                private PathDefinition getLoadingToRocketBack() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kLoadingGrabPose);
                         waypoints.add(kMidRocketBackPose);
                         waypoints.add(kRocketBackTurnv2Pose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getRocketBackToLoading() {
+                private PathDefinition getRocketBackToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kRocketBackPose);
                         waypoints.add(kLoadingMidFudgePose);
                         waypoints.add(kLoadingGrabPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getTurn3ToRocketBack() {
+                private PathDefinition getTurn3ToRocketBack() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kRocketBackTurnPose);
                         waypoints.add(kRocketBackScorePose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getCargoFrontToTurn1() {
+                private PathDefinition getCargoFrontToTurn1() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kCargoFrontPose);
                         waypoints.add(kCargoFrontTurn1Pose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kPathMaxCentripetalAccel)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getCargoFrontTurn1ToLoading() {
+                private PathDefinition getCargoFrontTurn1ToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kCargoFrontTurn1Pose);
                         waypoints.add(kLoadingGrabFudgePose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getRocketFrontTurnToLoading() {
+                private PathDefinition getRocketFrontTurnToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kRocketFrontTurnPose);
                         waypoints.add(kLoadingTrackPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLoadingToCargoSide() {
+                private PathDefinition getLoadingToCargoSide() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kLoadingGrabPose);
                         waypoints.add(kLoadingToCargoNear);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLoadingToCargoSideLvl2() {
+                private PathDefinition getLoadingToCargoSideLvl2() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kLoadingGrabPose);
                         waypoints.add(kLoadingToCargoNearLvl2);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getLoadingToCargoFrontTrack2() {
+                private PathDefinition getLoadingToCargoFrontTrack2() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kLoadingGrabPose);
                         waypoints.add(kCargo2MidPose);
                         waypoints.add(kCargoFront2TrackPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getCargoTrack2ToCargoScore2Pose() {
+                private PathDefinition getCargoTrack2ToCargoScore2Pose() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kCargoFront2TrackPose);
                         waypoints.add(kCargoFrontScore2Pose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getCargoFarBackToLoading() {
+                private PathDefinition getCargoFarBackToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kCargoFarFaceLoadingPose);
                         waypoints.add(kLoadingMidFudgev2Pose);
                         waypoints.add(kLoadingTrackFudgev2Pose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         0, 24, kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getCargoMidBackToLoading() {
+                private PathDefinition getCargoMidBackToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kCargoMidFaceLoadingPose);
                         waypoints.add(kLoadingMidFudgePose);
                         waypoints.add(kLoadingGrabFudgePose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                          kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
                 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getCargoNearBackToLoading() {
+                private PathDefinition getCargoNearBackToLoading() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kCargoNearFaceLoadingPose);
                         waypoints.add(kLoadingGrabFudgev2Pose);
                         waypoints.add(kLoadingGrabFudgev2Pose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         0, 24, kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getPlatformToCargoSideReversed() {
+                private PathDefinition getPlatformToCargoSideReversed() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kReversedFrontPlatfromPose);
                         waypoints.add(kCargoMidReversedPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kFirstPathMaxVel, 0, kPathMaxVelocity, kPathMaxAccel,
                                         kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getPlatformToCargoSide() {
+                private PathDefinition getPlatformToCargoSide() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kFrontPlatfromPose);
                         waypoints.add(kCargoMidv2Pose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kFirstPathMaxVel, 0, kPathMaxVelocity, kPathMaxAccel, kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getPlatformToRocketBackReversed() {
+                private PathDefinition getPlatformToRocketBackReversed() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kReversedFrontPlatfromPose);
                         waypoints.add(kRocketBackTurnPose);
 
-                        return generateTrajectory(true, waypoints,
+                        return new PathDefinition(true, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kFirstPathMaxVel, 0, kPathMaxVelocity, kPathMaxAccel,
                                         kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getPlatformToCargoFront() {
+                private PathDefinition getPlatformToCargoFront() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kFrontPlatfromPose);
                         waypoints.add(kCargoFrontPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kFirstPathMaxVel, 0, kPathMaxVelocity, kPathMaxAccel,
                                         kMaxVoltage);
                 }
 
-                private Trajectory<TimedState<Pose2dWithCurvature>> getPlatformToRocketFront() {
+                private PathDefinition getPlatformToRocketFront() {
                         List<Pose2d> waypoints = new ArrayList<>();
                         waypoints.add(kFrontPlatfromPose);
                         waypoints.add(kRocketFrontTrackPose);
 
-                        return generateTrajectory(false, waypoints,
+                        return new PathDefinition(false, waypoints,
                                         Arrays.asList(new CentripetalAccelerationConstraint(
                                                         kMaxCentripetalAccelElevatorDown)),
                                         kFirstPathMaxVel, 0, kPathMaxVelocity, kPathMaxAccel,
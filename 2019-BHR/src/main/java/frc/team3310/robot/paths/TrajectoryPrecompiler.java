@@ -0,0 +1,29 @@
+package frc.team3310.robot.paths;
+
+import java.io.File;
+
+import frc.team3310.utility.lib.trajectory.TrajectoryCache;
+
+/**
+ * Generates every trajectory in the TrajectorySet and writes them as binary cache entries into the given directory.
+ * Run on a development machine by the precompileTrajectories Gradle task so the robot can load them from its deploy
+ * directory instead of generating them in robotInit.
+ */
+public class TrajectoryPrecompiler {
+        public static final String kDeploySubdirectory = "trajectories";
+
+        public static void main(String... args) {
+                if (args.length != 1) {
+                        System.err.println("Usage: TrajectoryPrecompiler <output directory>");
+                        System.exit(1);
+                }
+
+                TrajectoryCache cache = new TrajectoryCache(new File(args[0]));
+                cache.clear();
+
+                TrajectoryGenerator generator = TrajectoryGenerator.getInstance();
+                generator.setTrajectoryCache(cache);
+                generator.generateTrajectoriesParallel();
+                System.out.println("Wrote precompiled trajectories to " + cache.getDirectory().getAbsolutePath());
+        }
+}
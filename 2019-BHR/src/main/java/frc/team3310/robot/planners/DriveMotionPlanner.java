@@ -7,28 +7,36 @@ import java.util.List;
 import frc.team3310.utility.CSVWritable;
 import frc.team3310.utility.Units;
 import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
 import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
-import frc.team3310.utility.lib.geometry.Rotation2d;
-import frc.team3310.utility.lib.geometry.Translation2d;
 import frc.team3310.utility.lib.physics.DCMotorTransmission;
 import frc.team3310.utility.lib.physics.DifferentialDrive;
+import frc.team3310.utility.lib.physics.DifferentialDriveDynamicsTable;
 import frc.team3310.utility.lib.trajectory.DistanceView;
+import frc.team3310.utility.lib.trajectory.FeedforwardTrajectory;
+import frc.team3310.utility.lib.trajectory.FlippedTrajectory;
+import frc.team3310.utility.lib.trajectory.LookaheadFinder;
+import frc.team3310.utility.lib.trajectory.MirroredTimedTrajectory;
+import frc.team3310.utility.lib.trajectory.PackedTrajectory;
 import frc.team3310.utility.lib.trajectory.PurePursuitController;
+import frc.team3310.utility.lib.trajectory.TimedPoseSample;
 import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryCache;
 import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
-import frc.team3310.utility.lib.trajectory.TrajectorySamplePoint;
 import frc.team3310.utility.lib.trajectory.TrajectoryUtil;
-import frc.team3310.utility.lib.trajectory.timing.DifferentialDriveDynamicsConstraint;
+import frc.team3310.utility.lib.trajectory.timing.DifferentialDriveDynamicsTableConstraint;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
 import frc.team3310.utility.lib.trajectory.timing.TimingUtil;
 import frc.team3310.robot.Constants;
 
 public class DriveMotionPlanner implements CSVWritable {
-    private static final double kMaxDx = 2.0;
-    private static final double kMaxDy = 0.25;
-    private static final double kMaxDTheta = Math.toRadians(5.0);
+    // Spline sampling resolution of generated trajectories. kMaxDx is also the distance step of time parameterization.
+    public static final double kMaxDx = 2.0;
+    public static final double kMaxDy = 0.25;
+    public static final double kMaxDTheta = Math.toRadians(5.0);
 
     public enum FollowerType {
         FEEDFORWARD_ONLY, PURE_PURSUIT, PID, NONLINEAR_FEEDBACK
@@ -41,32 +49,87 @@ public class DriveMotionPlanner implements CSVWritable {
     }
 
     final DifferentialDrive mModel;
+    TrajectoryCache mTrajectoryCache = null;
+    boolean mPrecomputeFeedforward = false;
+    boolean mCheckFeedforward = false;
 
     TrajectoryIterator<TimedState<Pose2dWithCurvature>> mCurrentTrajectory;
+    // The view of mCurrentTrajectory if it samples packed columns, so that update() can sample it in place.
+    PackedTrajectory.PackedTimedView mPackedView = null;
     boolean mIsReversed = false;
+    LookaheadFinder<Pose2dWithCurvature> mLookahead = null;
+    // Feedforward stored with the trajectory being followed, or null to solve it every update.
+    FeedforwardTrajectory mFeedforward = null;
+    boolean mFeedforwardMirrored = false;
+    double mMaxFeedforwardVoltageError = 0.0;
+    double mMaxFeedforwardVelocityError = 0.0;
     double mLastTime = Double.POSITIVE_INFINITY;
+    // Built from mSetpointSample by setpoint() when update() sampled a packed view, and null until then.
     public TimedState<Pose2dWithCurvature> mSetpoint = new TimedState<>(Pose2dWithCurvature.identity());
-    Pose2d mError = Pose2d.identity();
+    final TimedPoseSample mSetpointSample = new TimedPoseSample();
+    final MutablePose2d mError = new MutablePose2d(Pose2d.identity());
     Output mOutput = new Output();
 
     DifferentialDrive.ChassisState prev_velocity_ = new DifferentialDrive.ChassisState();
     double mDt = 0.0;
 
+    // Reused every update so that following a path does not allocate.
+    final DifferentialDrive.ChassisState mSetpointVelocity = new DifferentialDrive.ChassisState();
+    final DifferentialDrive.ChassisState mSetpointAcceleration = new DifferentialDrive.ChassisState();
+    final DifferentialDrive.ChassisState mAdjustedVelocity = new DifferentialDrive.ChassisState();
+    final DifferentialDrive.WheelState mAdjustedWheelVelocity = new DifferentialDrive.WheelState();
+    final DifferentialDrive.DriveDynamics mDynamics = new DifferentialDrive.DriveDynamics();
+    final DifferentialDrive.DriveDynamics mFeedforwardDynamics = new DifferentialDrive.DriveDynamics();
+    final DifferentialDrive.DriveDynamics mLiveDynamics = new DifferentialDrive.DriveDynamics();
+    final TimedPoseSample mLookaheadSample = new TimedPoseSample();
+    final MutablePose2d mArcPose = new MutablePose2d();
+    final MutableTwist2d mArcTwist = new MutableTwist2d();
+
     public DriveMotionPlanner() {
+        mModel = createDriveModel();
+    }
+
+    /**
+     * Builds the dynamic model of the drive from Constants.
+     */
+    public static DifferentialDrive createDriveModel() {
         final DCMotorTransmission transmission = new DCMotorTransmission(1.0 / Constants.kDriveKv,
                 Units.inches_to_meters(Constants.kDriveWheelRadiusInches)
                         * Units.inches_to_meters(Constants.kDriveWheelRadiusInches) * Constants.kRobotLinearInertia
                         / (2.0 * Constants.kDriveKa),
                 Constants.kDriveVIntercept);
-        mModel = new DifferentialDrive(Constants.kRobotLinearInertia, Constants.kRobotAngularInertia,
+        return new DifferentialDrive(Constants.kRobotLinearInertia, Constants.kRobotAngularInertia,
                 Constants.kRobotAngularDrag, Units.inches_to_meters(Constants.kDriveWheelDiameterInches / 2.0),
                 Units.inches_to_meters(Constants.kDriveWheelTrackWidthInches / 2.0 * Constants.kTrackScrubFactor),
                 transmission, transmission);
     }
 
+    /**
+     * Builds the dynamics table generateTrajectory uses at max_voltage, if it has not been built already, so the
+     * first trajectory generated at that voltage does not pay for it.
+     */
+    public void prepareDynamicsTable(double max_voltage) {
+        DifferentialDriveDynamicsTable.get(mModel, max_voltage);
+    }
+
     public void setTrajectory(final TrajectoryIterator<TimedState<Pose2dWithCurvature>> trajectory) {
         mCurrentTrajectory = trajectory;
+        mPackedView = trajectory.view() instanceof PackedTrajectory.PackedTimedView
+                ? (PackedTrajectory.PackedTimedView) trajectory.view() : null;
         mSetpoint = trajectory.getState();
+        mSetpointSample.set(trajectory.getSample());
+        // Only pure pursuit needs it; built on its first update.
+        mLookahead = null;
+        mFeedforward = null;
+        mFeedforwardMirrored = false;
+        final Trajectory<?> source = trajectory.trajectory() instanceof MirroredTimedTrajectory
+                ? ((MirroredTimedTrajectory<?>) trajectory.trajectory()).getSource() : trajectory.trajectory();
+        if (source instanceof FeedforwardTrajectory) {
+            mFeedforward = (FeedforwardTrajectory) source;
+            mFeedforwardMirrored = source != trajectory.trajectory();
+        }
+        mMaxFeedforwardVoltageError = 0.0;
+        mMaxFeedforwardVelocityError = 0.0;
         for (int i = 0; i < trajectory.trajectory().length(); ++i) {
             if (trajectory.trajectory().getState(i).velocity() > Util.kEpsilon) {
                 mIsReversed = false;
@@ -78,8 +141,56 @@ public class DriveMotionPlanner implements CSVWritable {
         }
     }
 
+    /**
+     * Generated trajectories are looked up in (and saved to) this cache. Pass null to always generate.
+     */
+    public void setTrajectoryCache(TrajectoryCache cache) {
+        mTrajectoryCache = cache;
+    }
+
+    /**
+     * If set, generated trajectories are FeedforwardTrajectories with the inverse dynamics of every sample solved up
+     * front, and update() interpolates them instead of solving the dynamics every tick.
+     */
+    public void setPrecomputeFeedforward(boolean precompute) {
+        mPrecomputeFeedforward = precompute;
+    }
+
+    /**
+     * If set, update() also solves the dynamics live while following a FeedforwardTrajectory and keeps the largest
+     * difference, see getMaxFeedforwardVoltageError(). This costs the solve that precomputing saves.
+     */
+    public void setCheckFeedforward(boolean check) {
+        mCheckFeedforward = check;
+    }
+
+    /**
+     * Largest difference in feedforward voltage (V) between the interpolated and the live solution, over either
+     * wheel, since the trajectory was set. Zero unless setCheckFeedforward(true).
+     */
+    public double getMaxFeedforwardVoltageError() {
+        return mMaxFeedforwardVoltageError;
+    }
+
+    /**
+     * Same as getMaxFeedforwardVoltageError() for the wheel velocity (rad/s).
+     */
+    public double getMaxFeedforwardVelocityError() {
+        return mMaxFeedforwardVelocityError;
+    }
+
+    /**
+     * Content hash of everything that determines the output of generateTrajectory, including the drive model.
+     */
+    public String getTrajectoryKey(boolean reversed, final List<Pose2d> waypoints,
+            final List<TimingConstraint<Pose2dWithCurvature>> constraints, double start_vel, double end_vel,
+            double max_vel, double max_accel, double max_voltage) {
+        return TrajectoryCache.key(reversed, waypoints, constraints, start_vel, end_vel, max_vel, max_accel,
+                max_voltage, kMaxDx, kMaxDy, kMaxDTheta, mModel);
+    }
+
     public void reset() {
-        mError = Pose2d.identity();
+        mError.set(Pose2d.identity());
         mOutput = new Output();
         mLastTime = Double.POSITIVE_INFINITY;
     }
@@ -96,32 +207,50 @@ public class DriveMotionPlanner implements CSVWritable {
             double start_vel, double end_vel, double max_vel, // inches/s
             double max_accel, // inches/s^2
             double max_voltage) {
-        List<Pose2d> waypoints_maybe_flipped = waypoints;
-        final Pose2d flip = Pose2d.fromRotation(new Rotation2d(-1, 0, false));
-        // TODO re-architect the spline generator to support reverse.
-        if (reversed) {
-            waypoints_maybe_flipped = new ArrayList<>(waypoints.size());
-            for (int i = 0; i < waypoints.size(); ++i) {
-                waypoints_maybe_flipped.add(waypoints.get(i).transformBy(flip));
-            }
+        if (mTrajectoryCache == null) {
+            return maybePrecomputeFeedforward(generateTrajectoryUncached(reversed, waypoints, constraints, start_vel,
+                    end_vel, max_vel, max_accel, max_voltage));
         }
+        final String key = getTrajectoryKey(reversed, waypoints, constraints, start_vel, end_vel, max_vel,
+                max_accel, max_voltage);
+        Trajectory<TimedState<Pose2dWithCurvature>> timed_trajectory = mTrajectoryCache.get(key);
+        if (timed_trajectory == null) {
+            timed_trajectory = generateTrajectoryUncached(reversed, waypoints, constraints, start_vel, end_vel,
+                    max_vel, max_accel, max_voltage);
+            mTrajectoryCache.put(key, timed_trajectory);
+        }
+        return maybePrecomputeFeedforward(timed_trajectory);
+    }
 
+    private Trajectory<TimedState<Pose2dWithCurvature>> generateTrajectoryUncached(boolean reversed,
+            final List<Pose2d> waypoints, final List<TimingConstraint<Pose2dWithCurvature>> constraints,
+            double start_vel, double end_vel, double max_vel, // inches/s
+            double max_accel, // inches/s^2
+            double max_voltage) {
+        return generateTrajectory(reversed, waypoints, constraints, start_vel, end_vel, max_vel, max_accel,
+                max_voltage, kMaxDx, kMaxDy, kMaxDTheta);
+    }
+
+    /**
+     * Generates a trajectory at the given spline sampling resolution, bypassing the cache. max_dx is also used as
+     * the distance step for time parameterization, so larger values are coarser and faster to generate.
+     */
+    public Trajectory<TimedState<Pose2dWithCurvature>> generateTrajectory(boolean reversed,
+            final List<Pose2d> waypoints, final List<TimingConstraint<Pose2dWithCurvature>> constraints,
+            double start_vel, double end_vel, double max_vel, // inches/s
+            double max_accel, // inches/s^2
+            double max_voltage, double max_dx, double max_dy, double max_dtheta) {
         // Create a trajectory from splines.
         Trajectory<Pose2dWithCurvature> trajectory = TrajectoryUtil
-                .trajectoryFromSplineWaypoints(waypoints_maybe_flipped, kMaxDx, kMaxDy, kMaxDTheta);
+                .trajectoryFromSplineWaypoints(splineWaypoints(reversed, waypoints), max_dx, max_dy, max_dtheta);
 
         if (reversed) {
-            List<Pose2dWithCurvature> flipped = new ArrayList<>(trajectory.length());
-            for (int i = 0; i < trajectory.length(); ++i) {
-                flipped.add(new Pose2dWithCurvature(trajectory.getState(i).getPose().transformBy(flip),
-                        -trajectory.getState(i).getCurvature(), trajectory.getState(i).getDCurvatureDs()));
-            }
-            trajectory = new Trajectory<>(flipped);
+            trajectory = new FlippedTrajectory(trajectory);
         }
         // Create the constraint that the robot must be able to traverse the trajectory
         // without ever applying more
         // than the specified voltage.
-        final DifferentialDriveDynamicsConstraint<Pose2dWithCurvature> drive_constraints = new DifferentialDriveDynamicsConstraint<>(
+        final DifferentialDriveDynamicsTableConstraint<Pose2dWithCurvature> drive_constraints = new DifferentialDriveDynamicsTableConstraint<>(
                 mModel, max_voltage);
         List<TimingConstraint<Pose2dWithCurvature>> all_constraints = new ArrayList<>();
         all_constraints.add(drive_constraints);
@@ -130,22 +259,117 @@ public class DriveMotionPlanner implements CSVWritable {
         }
         // Generate the timed trajectory.
         Trajectory<TimedState<Pose2dWithCurvature>> timed_trajectory = TimingUtil.timeParameterizeTrajectory(reversed,
-                new DistanceView<>(trajectory), kMaxDx, all_constraints, start_vel, end_vel, max_vel, max_accel);
+                new DistanceView<>(trajectory), max_dx, all_constraints, start_vel, end_vel, max_vel, max_accel);
         return timed_trajectory;
     }
 
+    /**
+     * The waypoints the splines of a path are fit through: waypoints themselves, or for a reversed path the waypoints
+     * flipped, since the splines are generated driving forwards and the result is flipped back.
+     */
+    public static List<Pose2d> splineWaypoints(boolean reversed, final List<Pose2d> waypoints) {
+        // TODO re-architect the spline generator to support reverse.
+        if (!reversed) {
+            return waypoints;
+        }
+        final Pose2d flip = FlippedTrajectory.getFlip();
+        List<Pose2d> waypoints_flipped = new ArrayList<>(waypoints.size());
+        for (int i = 0; i < waypoints.size(); ++i) {
+            waypoints_flipped.add(waypoints.get(i).transformBy(flip));
+        }
+        return waypoints_flipped;
+    }
+
+    /**
+     * Packs trajectory into a FeedforwardTrajectory with the inverse dynamics update() would solve at each sample,
+     * and at the end of the segment after it.
+     */
+    public FeedforwardTrajectory precomputeFeedforward(final Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        final FeedforwardTrajectory feedforward = new FeedforwardTrajectory(trajectory);
+        final DifferentialDrive.ChassisState velocity = new DifferentialDrive.ChassisState();
+        final DifferentialDrive.ChassisState acceleration = new DifferentialDrive.ChassisState();
+        final DifferentialDrive.DriveDynamics start = new DifferentialDrive.DriveDynamics();
+        final DifferentialDrive.DriveDynamics end = new DifferentialDrive.DriveDynamics();
+        for (int i = 0; i < trajectory.length(); ++i) {
+            final TimedState<Pose2dWithCurvature> state = trajectory.getState(i);
+            getSetpointChassisState(state, velocity, acceleration);
+            mModel.solveInverseDynamics(velocity, acceleration, start);
+            if (i + 1 < trajectory.length()) {
+                // Where TimedState.interpolate ends up just before the next sample.
+                final TimedState<Pose2dWithCurvature> next = trajectory.getState(i + 1);
+                getSetpointChassisState(new TimedState<>(next.state(), next.t(),
+                        state.velocity() + state.acceleration() * (next.t() - state.t()), state.acceleration()),
+                        velocity, acceleration);
+                mModel.solveInverseDynamics(velocity, acceleration, end);
+                end.voltage.left = holdFriction(mModel.left_transmission(), start.wheel_velocity.left,
+                        end.wheel_velocity.left, end.wheel_torque.left, end.voltage.left);
+                end.voltage.right = holdFriction(mModel.right_transmission(), start.wheel_velocity.right,
+                        end.wheel_velocity.right, end.wheel_torque.right, end.voltage.right);
+                feedforward.setFeedforward(i, start, end);
+            } else {
+                feedforward.setFeedforward(i, start, start);
+            }
+        }
+        return feedforward;
+    }
+
+    /**
+     * A wheel that comes to a stop right at the end of a segment is still rolling (and the transmission's friction
+     * still opposes it) everywhere before that, so the end voltage uses the friction of its direction of travel
+     * rather than the static friction getVoltageForTorque picks at zero speed.
+     */
+    private static double holdFriction(DCMotorTransmission transmission, double start_speed, double end_speed,
+            double end_torque, double end_voltage) {
+        final double kStoppedSpeed = 1e-9; // rad/s
+        if (Math.abs(end_speed) > kStoppedSpeed || Math.abs(start_speed) <= kStoppedSpeed) {
+            return end_voltage;
+        }
+        return end_torque / transmission.torque_per_volt() + end_speed / transmission.speed_per_volt()
+                + Math.copySign(transmission.friction_voltage(), start_speed);
+    }
+
+    private Trajectory<TimedState<Pose2dWithCurvature>> maybePrecomputeFeedforward(
+            final Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        if (!mPrecomputeFeedforward || trajectory instanceof FeedforwardTrajectory) {
+            return trajectory;
+        }
+        return precomputeFeedforward(trajectory);
+    }
+
+    /**
+     * Converts a setpoint (inches) to the chassis velocity and acceleration (meters) of the drive model.
+     */
+    static void getSetpointChassisState(final TimedState<Pose2dWithCurvature> setpoint,
+            DifferentialDrive.ChassisState velocity, DifferentialDrive.ChassisState acceleration) {
+        getSetpointChassisState(setpoint.velocity(), setpoint.acceleration(), setpoint.state().getCurvature(),
+                setpoint.state().getDCurvatureDs(), velocity, acceleration);
+    }
+
+    static void getSetpointChassisState(double setpoint_velocity, double setpoint_acceleration, double curvature,
+            double dcurvature_ds, DifferentialDrive.ChassisState velocity,
+            DifferentialDrive.ChassisState acceleration) {
+        final double velocity_m = Units.inches_to_meters(setpoint_velocity);
+        final double curvature_m = Units.meters_to_inches(curvature);
+        final double dcurvature_ds_m = Units.meters_to_inches(Units.meters_to_inches(dcurvature_ds));
+        final double acceleration_m = Units.inches_to_meters(setpoint_acceleration);
+        velocity.linear = velocity_m;
+        velocity.angular = velocity_m * curvature_m;
+        acceleration.linear = acceleration_m;
+        acceleration.angular = acceleration_m * curvature_m + velocity_m * velocity_m * dcurvature_ds_m;
+    }
+
     @Override
     public String toCSV() {
         DecimalFormat fmt = new DecimalFormat("#0.000");
         return fmt.format(mOutput.left_velocity) + "," + fmt.format(mOutput.right_velocity) + ","
                 + fmt.format(mOutput.left_feedforward_voltage) + "," + fmt.format(mOutput.right_feedforward_voltage)
-                + "," + mSetpoint.toCSV();
+                + "," + setpoint().toCSV();
     }
 
     @Override
     public String toCSVHeader() {
         return "left_velocity,right_velocity,left_feedforward_voltage,right_feedforward_voltage,"
-                + mSetpoint.toCSVHeader();
+                + setpoint().toCSVHeader();
     }
 
     public static class Output {
@@ -171,6 +395,17 @@ public class DriveMotionPlanner implements CSVWritable {
         public double left_feedforward_voltage;
         public double right_feedforward_voltage;
 
+        public Output set(double left_velocity, double right_velocity, double left_accel, double right_accel,
+                double left_feedforward_voltage, double right_feedforward_voltage) {
+            this.left_velocity = left_velocity;
+            this.right_velocity = right_velocity;
+            this.left_accel = left_accel;
+            this.right_accel = right_accel;
+            this.left_feedforward_voltage = left_feedforward_voltage;
+            this.right_feedforward_voltage = right_feedforward_voltage;
+            return this;
+        }
+
         public void flip() {
             double tmp_left_velocity = left_velocity;
             left_velocity = -right_velocity;
@@ -187,7 +422,7 @@ public class DriveMotionPlanner implements CSVWritable {
     }
 
     protected Output updatePID(DifferentialDrive.DriveDynamics dynamics, Pose2d current_state) {
-        DifferentialDrive.ChassisState adjusted_velocity = new DifferentialDrive.ChassisState();
+        final DifferentialDrive.ChassisState adjusted_velocity = mAdjustedVelocity;
         // Feedback on longitudinal error (distance).
         final double kPathKX = 5.0;
         final double kPathKY = 1.0;
@@ -205,50 +440,51 @@ public class DriveMotionPlanner implements CSVWritable {
         }
 
         // Compute adjusted left and right wheel velocities.
-        final DifferentialDrive.WheelState wheel_velocities = mModel.solveInverseKinematics(adjusted_velocity);
+        final DifferentialDrive.WheelState wheel_velocities = mAdjustedWheelVelocity;
+        mModel.solveInverseKinematics(adjusted_velocity, wheel_velocities);
         final double left_voltage = dynamics.voltage.left
                 + (wheel_velocities.left - dynamics.wheel_velocity.left) / mModel.left_transmission().speed_per_volt();
         final double right_voltage = dynamics.voltage.right + (wheel_velocities.right - dynamics.wheel_velocity.right)
                 / mModel.right_transmission().speed_per_volt();
 
-        return new Output(wheel_velocities.left, wheel_velocities.right, dynamics.wheel_acceleration.left,
+        return mOutput.set(wheel_velocities.left, wheel_velocities.right, dynamics.wheel_acceleration.left,
                 dynamics.wheel_acceleration.right, left_voltage, right_voltage);
     }
 
     protected Output updatePurePursuit(DifferentialDrive.DriveDynamics dynamics, Pose2d current_state) {
-        double lookahead_time = Constants.kPathLookaheadTime;
-        final double kLookaheadSearchDt = 0.01;
-        TimedState<Pose2dWithCurvature> lookahead_state = mCurrentTrajectory.preview(lookahead_time).state();
-        double actual_lookahead_distance = mSetpoint.state().distance(lookahead_state.state());
-        while (actual_lookahead_distance < Constants.kPathMinLookaheadDistance
-                && mCurrentTrajectory.getRemainingProgress() > lookahead_time) {
-            lookahead_time += kLookaheadSearchDt;
-            lookahead_state = mCurrentTrajectory.preview(lookahead_time).state();
-            actual_lookahead_distance = mSetpoint.state().distance(lookahead_state.state());
+        // Look ahead at least kPathLookaheadTime and kPathMinLookaheadDistance along the path.
+        if (mLookahead == null) {
+            mLookahead = new LookaheadFinder<>(mCurrentTrajectory.trajectory());
         }
+        final double progress = mCurrentTrajectory.getProgress();
+        final double distance = mLookahead.getDistance(progress);
+        final double lookahead_time = mLookahead.getLookaheadTime(progress, distance, Constants.kPathLookaheadTime,
+                Constants.kPathMinLookaheadDistance);
+        final TimedPoseSample lookahead_state = mLookaheadSample;
+        if (mPackedView != null) {
+            mPackedView.sample(mCurrentTrajectory.getPreviewProgress(lookahead_time - progress), lookahead_state);
+        } else {
+            lookahead_state.set(mCurrentTrajectory.preview(lookahead_time - progress));
+        }
+        final double actual_lookahead_distance = mLookahead.getDistance(lookahead_time) - distance;
         if (actual_lookahead_distance < Constants.kPathMinLookaheadDistance) {
-            lookahead_state = new TimedState<>(
-                    new Pose2dWithCurvature(
-                            lookahead_state.state().getPose()
-                                    .transformBy(Pose2d.fromTranslation(new Translation2d(
-                                            (mIsReversed ? -1.0 : 1.0)
-                                                    * (Constants.kPathMinLookaheadDistance - actual_lookahead_distance),
-                                            0.0))),
-                            0.0),
-                    lookahead_state.t(), lookahead_state.velocity(), lookahead_state.acceleration());
+            // Extend the lookahead point straight ahead (or behind) by the missing distance.
+            lookahead_state.pose.transformBy((mIsReversed ? -1.0 : 1.0)
+                    * (Constants.kPathMinLookaheadDistance - actual_lookahead_distance), 0.0, 1.0, 0.0);
         }
 
-        DifferentialDrive.ChassisState adjusted_velocity = new DifferentialDrive.ChassisState();
+        final DifferentialDrive.ChassisState adjusted_velocity = mAdjustedVelocity;
         // Feedback on longitudinal error (distance).
         adjusted_velocity.linear = dynamics.chassis_velocity.linear
                 + Constants.kPathKX * Units.inches_to_meters(mError.getTranslation().x());
 
         // Use pure pursuit to peek ahead along the trajectory and generate a new
         // curvature.
-        final PurePursuitController.Arc<Pose2dWithCurvature> arc = new PurePursuitController.Arc<>(current_state,
-                lookahead_state.state());
+        final double radius = PurePursuitController.Arc.getRadius(current_state,
+                lookahead_state.pose.getTranslation().x(), lookahead_state.pose.getTranslation().y(), mArcPose,
+                mArcTwist);
 
-        double curvature = 1.0 / Units.inches_to_meters(arc.radius);
+        double curvature = 1.0 / Units.inches_to_meters(radius);
         if (Double.isInfinite(curvature)) {
             adjusted_velocity.linear = 0.0;
             adjusted_velocity.angular = dynamics.chassis_velocity.angular;
@@ -256,10 +492,12 @@ public class DriveMotionPlanner implements CSVWritable {
             adjusted_velocity.angular = curvature * dynamics.chassis_velocity.linear;
         }
 
-        dynamics.chassis_velocity = adjusted_velocity;
-        dynamics.wheel_velocity = mModel.solveInverseKinematics(adjusted_velocity);
-        return new Output(dynamics.wheel_velocity.left, dynamics.wheel_velocity.right, dynamics.wheel_acceleration.left,
-                dynamics.wheel_acceleration.right, dynamics.voltage.left, dynamics.voltage.right);
+        dynamics.chassis_velocity.linear = adjusted_velocity.linear;
+        dynamics.chassis_velocity.angular = adjusted_velocity.angular;
+        mModel.solveInverseKinematics(adjusted_velocity, dynamics.wheel_velocity);
+        return mOutput.set(dynamics.wheel_velocity.left, dynamics.wheel_velocity.right,
+                dynamics.wheel_acceleration.left, dynamics.wheel_acceleration.right, dynamics.voltage.left,
+                dynamics.voltage.right);
     }
 
     protected Output updateNonlinearFeedback(DifferentialDrive.DriveDynamics dynamics, Pose2d current_state) {
@@ -277,30 +515,39 @@ public class DriveMotionPlanner implements CSVWritable {
         final double angle_error_rads = mError.getRotation().getRadians();
         final double sin_x_over_x = Util.epsilonEquals(angle_error_rads, 0.0, 1E-2) ? 1.0
                 : mError.getRotation().sin() / angle_error_rads;
-        final DifferentialDrive.ChassisState adjusted_velocity = new DifferentialDrive.ChassisState(
-                dynamics.chassis_velocity.linear * mError.getRotation().cos()
-                        + k * Units.inches_to_meters(mError.getTranslation().x()),
-                dynamics.chassis_velocity.angular + k * angle_error_rads + dynamics.chassis_velocity.linear * kBeta
-                        * sin_x_over_x * Units.inches_to_meters(mError.getTranslation().y()));
+        final double adjusted_linear = dynamics.chassis_velocity.linear * mError.getRotation().cos()
+                + k * Units.inches_to_meters(mError.getTranslation().x());
+        final double adjusted_angular = dynamics.chassis_velocity.angular + k * angle_error_rads
+                + dynamics.chassis_velocity.linear * kBeta * sin_x_over_x
+                        * Units.inches_to_meters(mError.getTranslation().y());
 
         // Compute adjusted left and right wheel velocities.
-        dynamics.chassis_velocity = adjusted_velocity;
-        dynamics.wheel_velocity = mModel.solveInverseKinematics(adjusted_velocity);
+        dynamics.chassis_velocity.linear = adjusted_linear;
+        dynamics.chassis_velocity.angular = adjusted_angular;
+        mModel.solveInverseKinematics(dynamics.chassis_velocity, dynamics.wheel_velocity);
 
         dynamics.chassis_acceleration.linear = mDt == 0 ? 0.0
                 : (dynamics.chassis_velocity.linear - prev_velocity_.linear) / mDt;
         dynamics.chassis_acceleration.angular = mDt == 0 ? 0.0
                 : (dynamics.chassis_velocity.angular - prev_velocity_.angular) / mDt;
 
-        prev_velocity_ = dynamics.chassis_velocity;
+        prev_velocity_.linear = dynamics.chassis_velocity.linear;
+        prev_velocity_.angular = dynamics.chassis_velocity.angular;
 
-        DifferentialDrive.WheelState feedforward_voltages = mModel.solveInverseDynamics(dynamics.chassis_velocity,
-                dynamics.chassis_acceleration).voltage;
+        mModel.solveInverseDynamics(dynamics.chassis_velocity, dynamics.chassis_acceleration, mFeedforwardDynamics);
+        final DifferentialDrive.WheelState feedforward_voltages = mFeedforwardDynamics.voltage;
 
-        return new Output(dynamics.wheel_velocity.left, dynamics.wheel_velocity.right, dynamics.wheel_acceleration.left,
-                dynamics.wheel_acceleration.right, feedforward_voltages.left, feedforward_voltages.right);
+        return mOutput.set(dynamics.wheel_velocity.left, dynamics.wheel_velocity.right,
+                dynamics.wheel_acceleration.left, dynamics.wheel_acceleration.right, feedforward_voltages.left,
+                feedforward_voltages.right);
     }
 
+    /**
+     * Allocates nothing when following a trajectory through PackedTrajectory.timedView(); setpoint() then builds the
+     * setpoint the first time it is asked for after each update.
+     *
+     * @return the demand for this timestep. The same Output is overwritten by the next call.
+     */
     public Output update(double timestamp, Pose2d current_state) {
         if (mCurrentTrajectory == null)
             return new Output();
@@ -311,24 +558,38 @@ public class DriveMotionPlanner implements CSVWritable {
 
         mDt = timestamp - mLastTime;
         mLastTime = timestamp;
-        TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> sample_point = mCurrentTrajectory.advance(mDt);
-        mSetpoint = sample_point.state();
+        final TimedPoseSample setpoint = mSetpointSample;
+        if (mPackedView != null) {
+            mPackedView.sample(mCurrentTrajectory.advanceProgress(mDt), setpoint);
+            mSetpoint = null;
+        } else {
+            mSetpoint = mCurrentTrajectory.advance(mDt).state();
+            setpoint.set(mCurrentTrajectory.getSample());
+        }
 
         if (!mCurrentTrajectory.isDone()) {
             // Generate feedforward voltages.
-            final double velocity_m = Units.inches_to_meters(mSetpoint.velocity());
-            final double curvature_m = Units.meters_to_inches(mSetpoint.state().getCurvature());
-            final double dcurvature_ds_m = Units
-                    .meters_to_inches(Units.meters_to_inches(mSetpoint.state().getDCurvatureDs()));
-            final double acceleration_m = Units.inches_to_meters(mSetpoint.acceleration());
-            final DifferentialDrive.DriveDynamics dynamics = mModel.solveInverseDynamics(
-                    new DifferentialDrive.ChassisState(velocity_m, velocity_m * curvature_m),
-                    new DifferentialDrive.ChassisState(acceleration_m,
-                            acceleration_m * curvature_m + velocity_m * velocity_m * dcurvature_ds_m));
-            mError = current_state.inverse().transformBy(mSetpoint.state().getPose());
+            getSetpointChassisState(setpoint.velocity, setpoint.acceleration, setpoint.curvature,
+                    setpoint.dcurvature_ds, mSetpointVelocity, mSetpointAcceleration);
+            final DifferentialDrive.DriveDynamics dynamics = mDynamics;
+            if (mFeedforward != null) {
+                // The followers only read the chassis state and the wheel velocities, accelerations and voltages.
+                dynamics.chassis_velocity.linear = mSetpointVelocity.linear;
+                dynamics.chassis_velocity.angular = mSetpointVelocity.angular;
+                dynamics.chassis_acceleration.linear = mSetpointAcceleration.linear;
+                dynamics.chassis_acceleration.angular = mSetpointAcceleration.angular;
+                mFeedforward.getFeedforward(setpoint.index_floor, setpoint.index_ceil, setpoint.t,
+                        mFeedforwardMirrored, dynamics);
+                if (mCheckFeedforward) {
+                    checkFeedforward(dynamics);
+                }
+            } else {
+                mModel.solveInverseDynamics(mSetpointVelocity, mSetpointAcceleration, dynamics);
+            }
+            mError.set(current_state).inverse().transformBy(setpoint.pose);
 
             if (mFollowerType == FollowerType.FEEDFORWARD_ONLY) {
-                mOutput = new Output(dynamics.wheel_velocity.left, dynamics.wheel_velocity.right,
+                mOutput.set(dynamics.wheel_velocity.left, dynamics.wheel_velocity.right,
                         dynamics.wheel_acceleration.left, dynamics.wheel_acceleration.right, dynamics.voltage.left,
                         dynamics.voltage.right);
             } else if (mFollowerType == FollowerType.PURE_PURSUIT) {
@@ -340,20 +601,33 @@ public class DriveMotionPlanner implements CSVWritable {
             }
         } else {
             // TODO Possibly switch to a pose stabilizing controller?
-            mOutput = new Output();
+            mOutput.set(0.0, 0.0, 0.0, 0.0, 0.0, 0.0);
         }
         return mOutput;
     }
 
+    private void checkFeedforward(final DifferentialDrive.DriveDynamics interpolated) {
+        mModel.solveInverseDynamics(mSetpointVelocity, mSetpointAcceleration, mLiveDynamics);
+        mMaxFeedforwardVoltageError = Math.max(mMaxFeedforwardVoltageError,
+                Math.max(Math.abs(interpolated.voltage.left - mLiveDynamics.voltage.left),
+                        Math.abs(interpolated.voltage.right - mLiveDynamics.voltage.right)));
+        mMaxFeedforwardVelocityError = Math.max(mMaxFeedforwardVelocityError,
+                Math.max(Math.abs(interpolated.wheel_velocity.left - mLiveDynamics.wheel_velocity.left),
+                        Math.abs(interpolated.wheel_velocity.right - mLiveDynamics.wheel_velocity.right)));
+    }
+
     public boolean isDone() {
         return mCurrentTrajectory != null && mCurrentTrajectory.isDone();
     }
 
     public Pose2d error() {
-        return mError;
+        return mError.toPose2d();
     }
 
     public TimedState<Pose2dWithCurvature> setpoint() {
+        if (mSetpoint == null) {
+            mSetpoint = mSetpointSample.toTimedState();
+        }
         return mSetpoint;
     }
 }
@@ -0,0 +1,192 @@
+package frc.team3310.robot.planners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import frc.team3310.robot.Constants;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
+
+/**
+ * Plans trajectories from the robot's current pose and velocity on background threads, so a path can be replaced in
+ * the middle of auto (e.g. after being bumped) without blocking the main loop.
+ * <p>
+ * Every request is planned twice in parallel: at the normal resolution, and at a coarse resolution that finishes much
+ * sooner. The normal result is used if it is ready by the deadline, otherwise the coarse one is.
+ */
+public class TrajectoryReplanner {
+    private static final double kCoarseMaxDx = 6.0;
+    private static final double kCoarseMaxDy = 1.0;
+    private static final double kCoarseMaxDTheta = Math.toRadians(15.0);
+
+    private final DriveMotionPlanner mMotionPlanner = new DriveMotionPlanner();
+    private final ExecutorService mExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "TrajectoryReplanner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private double mDeadlineSeconds;
+
+    public TrajectoryReplanner() {
+        this(Constants.kReplanDeadlineSeconds, Constants.kReplanMaxVoltage);
+    }
+
+    /**
+     * @param max_voltages voltage limits to build the drive dynamics tables for up front. Replanning at any other
+     *                     limit builds its table on the first request, on the planning threads.
+     */
+    public TrajectoryReplanner(double deadline_seconds, double... max_voltages) {
+        mDeadlineSeconds = deadline_seconds;
+        for (double max_voltage : max_voltages) {
+            mMotionPlanner.prepareDynamicsTable(max_voltage);
+        }
+    }
+
+    public synchronized void setDeadline(double deadline_seconds) {
+        mDeadlineSeconds = deadline_seconds;
+    }
+
+    public synchronized double getDeadline() {
+        return mDeadlineSeconds;
+    }
+
+    /**
+     * Starts planning a path from start to goal that comes to a stop at the goal.
+     *
+     * @param start_velocity current forward velocity of the robot in inches/s (negative when driving backwards)
+     */
+    public PendingTrajectory replan(boolean reversed, Pose2d start, double start_velocity, Pose2d goal,
+            final List<TimingConstraint<Pose2dWithCurvature>> constraints, double max_vel, double max_accel,
+            double max_voltage) {
+        List<Pose2d> waypoints = new ArrayList<>(2);
+        waypoints.add(goal);
+        return replan(reversed, start, start_velocity, waypoints, constraints, 0.0, max_vel, max_accel, max_voltage);
+    }
+
+    /**
+     * Starts planning a path from start through waypoints (the last of which is the goal).
+     *
+     * The trajectory starts at the robot's current speed along the direction of travel, clamped to [0, max_vel]; if
+     * the robot is moving against the direction of the new path it is planned from rest.
+     */
+    public PendingTrajectory replan(boolean reversed, Pose2d start, double start_velocity,
+            final List<Pose2d> waypoints, final List<TimingConstraint<Pose2dWithCurvature>> constraints,
+            double end_vel, double max_vel, double max_accel, double max_voltage) {
+        final long deadline_ns = System.nanoTime() + (long) (getDeadline() * 1.0e9);
+        final List<Pose2d> all_waypoints = new ArrayList<>(waypoints.size() + 1);
+        all_waypoints.add(start);
+        all_waypoints.addAll(waypoints);
+        final double start_vel = Math.max(0.0, Math.min(max_vel, reversed ? -start_velocity : start_velocity));
+
+        Future<Trajectory<TimedState<Pose2dWithCurvature>>> fine = mExecutor.submit(() -> mMotionPlanner
+                .generateTrajectory(reversed, all_waypoints, constraints, start_vel, end_vel, max_vel, max_accel,
+                        max_voltage, DriveMotionPlanner.kMaxDx, DriveMotionPlanner.kMaxDy,
+                        DriveMotionPlanner.kMaxDTheta));
+        Future<Trajectory<TimedState<Pose2dWithCurvature>>> coarse = mExecutor.submit(() -> mMotionPlanner
+                .generateTrajectory(reversed, all_waypoints, constraints, start_vel, end_vel, max_vel, max_accel,
+                        max_voltage, kCoarseMaxDx, kCoarseMaxDy, kCoarseMaxDTheta));
+        return new PendingTrajectory(fine, coarse, deadline_ns);
+    }
+
+    public void shutdown() {
+        mExecutor.shutdownNow();
+    }
+
+    /**
+     * A replanning request in flight.
+     */
+    public static class PendingTrajectory {
+        private final Future<Trajectory<TimedState<Pose2dWithCurvature>>> mFine;
+        private final Future<Trajectory<TimedState<Pose2dWithCurvature>>> mCoarse;
+        private final long mDeadlineNs;
+        private Trajectory<TimedState<Pose2dWithCurvature>> mResult = null;
+        private boolean mIsCoarse = false;
+
+        PendingTrajectory(Future<Trajectory<TimedState<Pose2dWithCurvature>>> fine,
+                Future<Trajectory<TimedState<Pose2dWithCurvature>>> coarse, long deadline_ns) {
+            mFine = fine;
+            mCoarse = coarse;
+            mDeadlineNs = deadline_ns;
+        }
+
+        /**
+         * Non-blocking; call once per loop.
+         *
+         * @return the full resolution trajectory if it is ready, the coarse one if the deadline has passed (or full
+         *         resolution planning failed) and it is ready, otherwise null.
+         */
+        public synchronized Trajectory<TimedState<Pose2dWithCurvature>> poll() {
+            if (mResult == null) {
+                Trajectory<TimedState<Pose2dWithCurvature>> fine = getIfDone(mFine);
+                if (fine != null) {
+                    mResult = fine;
+                    mCoarse.cancel(false);
+                } else if (System.nanoTime() >= mDeadlineNs || mFine.isDone()) {
+                    mResult = getIfDone(mCoarse);
+                    mIsCoarse = mResult != null;
+                }
+            }
+            return mResult;
+        }
+
+        /**
+         * Blocks until a trajectory is available: the full resolution one if it finishes by the deadline, otherwise
+         * the coarse one.
+         *
+         * @return the trajectory, or null if planning failed at both resolutions.
+         */
+        public Trajectory<TimedState<Pose2dWithCurvature>> get() throws InterruptedException {
+            try {
+                mFine.get(Math.max(0, mDeadlineNs - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException e) {
+                try {
+                    mCoarse.get();
+                } catch (ExecutionException e2) {
+                    // Both failed; poll() returns null.
+                }
+            }
+            return poll();
+        }
+
+        /**
+         * @return whether the trajectory returned by poll() is the coarse fallback.
+         */
+        public synchronized boolean isCoarse() {
+            return mIsCoarse;
+        }
+
+        /**
+         * @return whether planning failed at both resolutions, so poll() will never return a trajectory.
+         */
+        public synchronized boolean hasFailed() {
+            return mResult == null && mFine.isDone() && mCoarse.isDone() && getIfDone(mFine) == null
+                    && getIfDone(mCoarse) == null;
+        }
+
+        public void cancel() {
+            mFine.cancel(false);
+            mCoarse.cancel(false);
+        }
+
+        private static Trajectory<TimedState<Pose2dWithCurvature>> getIfDone(
+                Future<Trajectory<TimedState<Pose2dWithCurvature>>> future) {
+            if (!future.isDone() || future.isCancelled()) {
+                return null;
+            }
+            try {
+                return future.get();
+            } catch (ExecutionException | InterruptedException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -24,11 +24,13 @@ import frc.team3310.robot.Robot;
 import frc.team3310.robot.RobotMap;
 import frc.team3310.robot.loops.Loop;
 import frc.team3310.robot.planners.DriveMotionPlanner;
+import frc.team3310.utility.BinaryLogWriter;
 import frc.team3310.utility.DriveSignal;
-import frc.team3310.utility.ReflectingCSVWriter;
 import frc.team3310.utility.Util;
 import frc.team3310.utility.lib.control.RobotStatus;
+import frc.team3310.utility.lib.drivers.LazyTalonSRXEncoder;
 import frc.team3310.utility.lib.drivers.TalonSRXChecker;
+import frc.team3310.utility.lib.drivers.TalonSRXConfigCache;
 import frc.team3310.utility.lib.drivers.TalonSRXEncoder;
 import frc.team3310.utility.lib.drivers.TalonSRXFactory;
 import frc.team3310.utility.lib.geometry.Pose2d;
@@ -53,18 +55,24 @@ public class Drive extends Subsystem implements Loop {
 	// Motor controllers
 	private ArrayList<TalonSRXEncoder> motorControllers = new ArrayList<TalonSRXEncoder>();
 
-	private TalonSRXEncoder leftDrive1;
+	private LazyTalonSRXEncoder leftDrive1;
 	private TalonSRX leftDrive2;
 	private TalonSRX leftDrive3;
 
-	private TalonSRXEncoder rightDrive1;
+	private LazyTalonSRXEncoder rightDrive1;
 	private TalonSRX rightDrive2;
 	private TalonSRX rightDrive3;
 
+	// Config writes on the masters go through these, so unchanged values are not re-sent.
+	private TalonSRXConfigCache mLeftConfig;
+	private TalonSRXConfigCache mRightConfig;
+
 	private long periodMs = (long) (Constants.kLooperDt * 1000.0);
 
 	protected Rotation2d mAngleAdjustment = Rotation2d.identity();
 	private DriveControlMode driveControlMode = DriveControlMode.JOYSTICK;
+	// Mode the current control loop tick read inputs for, null if it does not drive the motors.
+	private DriveControlMode mLoopControlMode = null;
 
 	private boolean isFinished;
 	private boolean mIsBrakeMode = false;
@@ -81,7 +89,7 @@ public class Drive extends Subsystem implements Loop {
 
 	// Hardware states //Poofs
 	private PeriodicIO mPeriodicIO;
-	private ReflectingCSVWriter<PeriodicIO> mCSVWriter = null;
+	private BinaryLogWriter<PeriodicIO> mLogWriter = null;
 	private DriveMotionPlanner mMotionPlanner;
 	private Rotation2d mGyroOffset = Rotation2d.identity();
 	public boolean mOverrideTrajectory = false;
@@ -101,36 +109,59 @@ public class Drive extends Subsystem implements Loop {
 	}
 
 	@Override
-	public void onLoop(double timestamp) {
+	public void onRead(double timestamp) {
 		synchronized (Drive.this) {
 			DriveControlMode currentControlMode = getControlMode();
 
 			if (currentControlMode == DriveControlMode.JOYSTICK) {
 				// driveWithJoystick();
+				mLoopControlMode = null;
 			} else if (!isFinished()) {
+				mLoopControlMode = currentControlMode;
 				readPeriodicInputs();
-				switch (currentControlMode) {
-				case PATH_FOLLOWING:
-					updatePathFollower();
-					writePeriodicOutputs();
-					break;
-				case OPEN_LOOP:
-					writePeriodicOutputs();
-					break;
-				case MANUAL:
-					break;
-				case VELOCITY_SETPOINT:
-					break;
-				default:
-					System.out.println("Unknown drive control mode: " + currentControlMode);
-					break;
-				}
 			} else {
 				// hold in current state
+				mLoopControlMode = null;
+			}
+		}
+	}
+
+	@Override
+	public void onLoop(double timestamp) {
+		synchronized (Drive.this) {
+			if (mLoopControlMode == null) {
+				return;
+			}
+			switch (mLoopControlMode) {
+			case PATH_FOLLOWING:
+				updatePathFollower();
+				break;
+			case OPEN_LOOP:
+				break;
+			case MANUAL:
+				break;
+			case VELOCITY_SETPOINT:
+				break;
+			default:
+				System.out.println("Unknown drive control mode: " + mLoopControlMode);
+				break;
 			}
 		}
 	}
 
+	@Override
+	public void onWrite(double timestamp) {
+		synchronized (Drive.this) {
+			// Drop this tick's outputs if the mode changed since the inputs were read.
+			if (mLoopControlMode != null && mLoopControlMode == getControlMode() && !isFinished()
+					&& (mLoopControlMode == DriveControlMode.PATH_FOLLOWING
+							|| mLoopControlMode == DriveControlMode.OPEN_LOOP)) {
+				writePeriodicOutputs();
+			}
+			mLoopControlMode = null;
+		}
+	}
+
 	/**
 	 * Configures talons for velocity control
 	 */
@@ -138,50 +169,51 @@ public class Drive extends Subsystem implements Loop {
 	public void configureTalonsForSpeedControl() {
 		if (!usesTalonVelocityControl(driveControlMode)) {
 			leftDrive1.enableVoltageCompensation(true);
-			leftDrive1.configVoltageCompSaturation(12.0, TalonSRXEncoder.TIMEOUT_MS);
-			leftDrive1.configPeakOutputForward(+1.0f, TalonSRXEncoder.TIMEOUT_MS);
-			leftDrive1.configPeakOutputReverse(-1.0f, TalonSRXEncoder.TIMEOUT_MS);
+			mLeftConfig.configVoltageCompSaturation(12.0, TalonSRXEncoder.TIMEOUT_MS);
+			mLeftConfig.configPeakOutputForward(+1.0f, TalonSRXEncoder.TIMEOUT_MS);
+			mLeftConfig.configPeakOutputReverse(-1.0f, TalonSRXEncoder.TIMEOUT_MS);
 
 			rightDrive1.enableVoltageCompensation(true);
-			rightDrive1.configVoltageCompSaturation(12.0, TalonSRXEncoder.TIMEOUT_MS);
-			rightDrive1.configPeakOutputForward(+1.0f, TalonSRXEncoder.TIMEOUT_MS);
-			rightDrive1.configPeakOutputReverse(-1.0f, TalonSRXEncoder.TIMEOUT_MS);
+			mRightConfig.configVoltageCompSaturation(12.0, TalonSRXEncoder.TIMEOUT_MS);
+			mRightConfig.configPeakOutputForward(+1.0f, TalonSRXEncoder.TIMEOUT_MS);
+			mRightConfig.configPeakOutputReverse(-1.0f, TalonSRXEncoder.TIMEOUT_MS);
 
 			System.out.println("configureTalonsForSpeedControl");
 			leftDrive1.selectProfileSlot(kVelocityControlSlot, TalonSRXEncoder.PID_IDX);
-			leftDrive1.configNominalOutputForward(Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
-			leftDrive1.configNominalOutputReverse(-Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
-			leftDrive1.configClosedloopRamp(Constants.kDriveVelocityRampRate, TalonSRXEncoder.TIMEOUT_MS);
+			mLeftConfig.configNominalOutputForward(Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
+			mLeftConfig.configNominalOutputReverse(-Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
+			mLeftConfig.configClosedloopRamp(Constants.kDriveVelocityRampRate, TalonSRXEncoder.TIMEOUT_MS);
 
 			rightDrive1.selectProfileSlot(kVelocityControlSlot, TalonSRXEncoder.PID_IDX);
-			rightDrive1.configNominalOutputForward(Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
-			rightDrive1.configNominalOutputReverse(-Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
-			rightDrive1.configClosedloopRamp(Constants.kDriveVelocityRampRate, TalonSRXEncoder.TIMEOUT_MS);
+			mRightConfig.configNominalOutputForward(Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
+			mRightConfig.configNominalOutputReverse(-Constants.kDriveNominalOutput, TalonSRXEncoder.TIMEOUT_MS);
+			mRightConfig.configClosedloopRamp(Constants.kDriveVelocityRampRate, TalonSRXEncoder.TIMEOUT_MS);
 		}
 	}
 
-	private void configureMaster(TalonSRX talon) {
+	private void configureMaster(TalonSRXConfigCache config) {
+		TalonSRX talon = config.getTalon();
 		talon.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, 5, 100);
 		talon.enableVoltageCompensation(true);
-		talon.configVoltageCompSaturation(12.0, Constants.kLongCANTimeoutMs);
-		talon.configVelocityMeasurementPeriod(VelocityMeasPeriod.Period_50Ms, Constants.kLongCANTimeoutMs);
-		talon.configVelocityMeasurementWindow(1, Constants.kLongCANTimeoutMs);
-		talon.configClosedloopRamp(Constants.kDriveVoltageRampRate, Constants.kLongCANTimeoutMs);
-		talon.configNeutralDeadband(0.04, 0);
+		config.configVoltageCompSaturation(12.0, Constants.kLongCANTimeoutMs);
+		config.configVelocityMeasurementPeriod(VelocityMeasPeriod.Period_50Ms, Constants.kLongCANTimeoutMs);
+		config.configVelocityMeasurementWindow(1, Constants.kLongCANTimeoutMs);
+		config.configClosedloopRamp(Constants.kDriveVoltageRampRate, Constants.kLongCANTimeoutMs);
+		config.configNeutralDeadband(0.04, 0);
 	}
 
 	private Drive() {
 		try {
 			mPeriodicIO = new PeriodicIO();
 
-			leftDrive1 = TalonSRXFactory.createTalonEncoder(RobotMap.DRIVETRAIN_LEFT_MOTOR1_CAN_ID,
+			leftDrive1 = TalonSRXFactory.createLazyTalonEncoder(RobotMap.DRIVETRAIN_LEFT_MOTOR1_CAN_ID,
 					ENCODER_TICKS_TO_INCHES, false, FeedbackDevice.CTRE_MagEncoder_Relative);
 			leftDrive2 = TalonSRXFactory.createPermanentSlaveTalon(RobotMap.DRIVETRAIN_LEFT_MOTOR2_CAN_ID,
 					RobotMap.DRIVETRAIN_LEFT_MOTOR1_CAN_ID);
 			leftDrive3 = TalonSRXFactory.createPermanentSlaveTalon(RobotMap.DRIVETRAIN_LEFT_MOTOR3_CAN_ID,
 					RobotMap.DRIVETRAIN_LEFT_MOTOR1_CAN_ID);
 
-			rightDrive1 = TalonSRXFactory.createTalonEncoder(RobotMap.DRIVETRAIN_RIGHT_MOTOR1_CAN_ID,
+			rightDrive1 = TalonSRXFactory.createLazyTalonEncoder(RobotMap.DRIVETRAIN_RIGHT_MOTOR1_CAN_ID,
 					ENCODER_TICKS_TO_INCHES, true, FeedbackDevice.QuadEncoder);
 			rightDrive2 = TalonSRXFactory.createPermanentSlaveTalon(RobotMap.DRIVETRAIN_RIGHT_MOTOR2_CAN_ID,
 					RobotMap.DRIVETRAIN_RIGHT_MOTOR1_CAN_ID);
@@ -190,6 +222,8 @@ public class Drive extends Subsystem implements Loop {
 
 			leftDrive1.setSafetyEnabled(false);
 			leftDrive1.setSensorPhase(false);
+			leftDrive1.setLazyEpsilons(Constants.kDrivePercentOutputEpsilon, Constants.kDriveVelocityEpsilon,
+					Constants.kDriveFeedforwardEpsilon);
 
 			leftDrive1.setInverted(true);
 			leftDrive2.setInverted(true);
@@ -197,25 +231,34 @@ public class Drive extends Subsystem implements Loop {
 
 			rightDrive1.setSafetyEnabled(false);
 			rightDrive1.setSensorPhase(false);
+			rightDrive1.setLazyEpsilons(Constants.kDrivePercentOutputEpsilon, Constants.kDriveVelocityEpsilon,
+					Constants.kDriveFeedforwardEpsilon);
 
 			rightDrive1.setInverted(false);
 			rightDrive2.setInverted(false);
 			rightDrive3.setInverted(false);
 
-			configureMaster(leftDrive1);
-			configureMaster(rightDrive1);
+			// Each blocking config write waits only on its own Talon, so configure both sides at once.
+			mLeftConfig = new TalonSRXConfigCache(leftDrive1);
+			mRightConfig = new TalonSRXConfigCache(rightDrive1);
+			TalonSRXConfigCache.configureConcurrently(() -> {
+				configureMaster(mLeftConfig);
+				reloadGains(mLeftConfig);
+			}, () -> {
+				configureMaster(mRightConfig);
+				reloadGains(mRightConfig);
+			});
 
 			motorControllers.add(leftDrive1);
 			motorControllers.add(rightDrive1);
 
 			mMotionPlanner = new DriveMotionPlanner();
+			mMotionPlanner.setCheckFeedforward(Constants.kCheckDriveFeedforward);
 
 			gyroPigeon = new PigeonIMU(rightDrive2);
 			gyroPigeon.configFactoryDefault();
 			rightDrive2.setStatusFramePeriod(StatusFrameEnhanced.Status_11_UartGadgeteer, 10, 10);
 
-			reloadGains();
-
 			setBrakeMode(true);
 		} catch (Exception e) {
 			System.err.println("An error occurred in the DriveTrain constructor");
@@ -401,8 +444,8 @@ public class Drive extends Subsystem implements Loop {
 
 	// Auto Setup
 	private void setOpenLoopVoltageRamp(double timeTo12VSec) {
-		leftDrive1.configOpenloopRamp(timeTo12VSec, TalonSRXEncoder.TIMEOUT_MS);
-		rightDrive1.configOpenloopRamp(timeTo12VSec, TalonSRXEncoder.TIMEOUT_MS);
+		mLeftConfig.configOpenloopRamp(timeTo12VSec, TalonSRXEncoder.TIMEOUT_MS);
+		mRightConfig.configOpenloopRamp(timeTo12VSec, TalonSRXEncoder.TIMEOUT_MS);
 
 	}
 	// End
@@ -468,8 +511,8 @@ public class Drive extends Subsystem implements Loop {
 			System.out.println("Switching to open loop");
 			System.out.println(signal);
 			driveControlMode = DriveControlMode.OPEN_LOOP;
-			rightDrive1.configNeutralDeadband(0.04, 0);
-			leftDrive1.configNeutralDeadband(0.04, 0);
+			mRightConfig.configNeutralDeadband(0.04, 0);
+			mLeftConfig.configNeutralDeadband(0.04, 0);
 		}
 		mPeriodicIO.left_demand = signal.getLeft();
 		mPeriodicIO.right_demand = signal.getRight();
@@ -497,8 +540,8 @@ public class Drive extends Subsystem implements Loop {
 			setBrakeMode(true);
 			leftDrive1.selectProfileSlot(kVelocityControlSlot, 0);
 			rightDrive1.selectProfileSlot(kVelocityControlSlot, 0);
-			leftDrive1.configNeutralDeadband(0.0, 0);
-			rightDrive1.configNeutralDeadband(0.0, 0);
+			mLeftConfig.configNeutralDeadband(0.0, 0);
+			mRightConfig.configNeutralDeadband(0.0, 0);
 
 			setControlMode(DriveControlMode.PATH_FOLLOWING);
 		}
@@ -520,7 +563,7 @@ public class Drive extends Subsystem implements Loop {
 			final double now = Timer.getFPGATimestamp();
 
 			DriveMotionPlanner.Output output = mMotionPlanner.update(now,
-					RobotStatus.getInstance().getFieldToVehicle(now));
+					RobotStatus.getInstance().getSnapshot().field_to_vehicle);
 
 			// DriveSignal signal = new DriveSignal(demand.left_feedforward_voltage / 12.0,
 			// demand.right_feedforward_voltage / 12.0);
@@ -547,19 +590,16 @@ public class Drive extends Subsystem implements Loop {
 	}
 
 	public synchronized void reloadGains() {
-		leftDrive1.config_kP(kVelocityControlSlot, Constants.kDriveVelocityKp, Constants.kLongCANTimeoutMs);
-		leftDrive1.config_kI(kVelocityControlSlot, Constants.kDriveVelocityKi, Constants.kLongCANTimeoutMs);
-		leftDrive1.config_kD(kVelocityControlSlot, Constants.kDriveVelocityKd, Constants.kLongCANTimeoutMs);
-		leftDrive1.config_kF(kVelocityControlSlot, Constants.kDriveVelocityKf, Constants.kLongCANTimeoutMs);
-		leftDrive1.config_IntegralZone(kVelocityControlSlot, Constants.kDriveVelocityIZone,
-				Constants.kLongCANTimeoutMs);
+		reloadGains(mLeftConfig);
+		reloadGains(mRightConfig);
+	}
 
-		rightDrive1.config_kP(kVelocityControlSlot, Constants.kDriveVelocityKp, Constants.kLongCANTimeoutMs);
-		rightDrive1.config_kI(kVelocityControlSlot, Constants.kDriveVelocityKi, Constants.kLongCANTimeoutMs);
-		rightDrive1.config_kD(kVelocityControlSlot, Constants.kDriveVelocityKd, Constants.kLongCANTimeoutMs);
-		rightDrive1.config_kF(kVelocityControlSlot, Constants.kDriveVelocityKf, Constants.kLongCANTimeoutMs);
-		rightDrive1.config_IntegralZone(kVelocityControlSlot, Constants.kDriveVelocityIZone,
-				Constants.kLongCANTimeoutMs);
+	private void reloadGains(TalonSRXConfigCache config) {
+		config.config_kP(kVelocityControlSlot, Constants.kDriveVelocityKp, Constants.kLongCANTimeoutMs);
+		config.config_kI(kVelocityControlSlot, Constants.kDriveVelocityKi, Constants.kLongCANTimeoutMs);
+		config.config_kD(kVelocityControlSlot, Constants.kDriveVelocityKd, Constants.kLongCANTimeoutMs);
+		config.config_kF(kVelocityControlSlot, Constants.kDriveVelocityKf, Constants.kLongCANTimeoutMs);
+		config.config_IntegralZone(kVelocityControlSlot, Constants.kDriveVelocityIZone, Constants.kLongCANTimeoutMs);
 	}
 
 	public void writeToLog() {
@@ -589,8 +629,8 @@ public class Drive extends Subsystem implements Loop {
 
 		}
 
-		if (mCSVWriter != null) {
-			mCSVWriter.add(mPeriodicIO);
+		if (mLogWriter != null) {
+			mLogWriter.add(mPeriodicIO);
 		}
 
 		// System.out.println("control state: " + mDriveControlState + ", left: " +
@@ -680,16 +720,23 @@ public class Drive extends Subsystem implements Loop {
 	public void initDefaultCommand() {
 	}
 
+	// Convert the log to CSV off the robot with BinaryLogWriter.exportCSV.
 	public synchronized void startLogging() {
-		if (mCSVWriter == null) {
-			mCSVWriter = new ReflectingCSVWriter<>("/home/lvuser/DRIVE-LOGS.csv", PeriodicIO.class);
+		if (mLogWriter == null) {
+			mLogWriter = new BinaryLogWriter<>("/home/lvuser/DRIVE-LOGS.bin", PeriodicIO.class);
 		}
 	}
 
-	public synchronized void stopLogging() {
-		if (mCSVWriter != null) {
-			mCSVWriter.flush();
-			mCSVWriter = null;
+	public void stopLogging() {
+		// Closing writes out whatever is still buffered, so do it without holding the lock the control loop needs.
+		// Once mLogWriter is cleared under the lock, the loop no longer adds to this writer.
+		final BinaryLogWriter<PeriodicIO> writer;
+		synchronized (this) {
+			writer = mLogWriter;
+			mLogWriter = null;
+		}
+		if (writer != null) {
+			writer.close();
 		}
 	}
 
@@ -762,6 +809,14 @@ public class Drive extends Subsystem implements Loop {
 				SmartDashboard.putNumber("x err", mPeriodicIO.error.getTranslation().x());
 				SmartDashboard.putNumber("y err", mPeriodicIO.error.getTranslation().y());
 				SmartDashboard.putNumber("theta err", mPeriodicIO.error.getRotation().getDegrees());
+				SmartDashboard.putNumber("Feedforward Voltage Err", mMotionPlanner.getMaxFeedforwardVoltageError());
+				SmartDashboard.putNumber("Feedforward Velocity Err", mMotionPlanner.getMaxFeedforwardVelocityError());
+				SmartDashboard.putNumber("Drive Sets Sent",
+						leftDrive1.getSentSetCount() + rightDrive1.getSentSetCount());
+				SmartDashboard.putNumber("Drive Sets Suppressed",
+						leftDrive1.getSuppressedSetCount() + rightDrive1.getSuppressedSetCount());
+				SmartDashboard.putNumber("Drive Configs Skipped",
+						mLeftConfig.getSkippedCount() + mRightConfig.getSkippedCount());
 
 				SmartDashboard.putNumber("Gyro X-accel", getGyroXAccel());
 				SmartDashboard.putNumber("Gyro y-accel", getGyroYAccel());
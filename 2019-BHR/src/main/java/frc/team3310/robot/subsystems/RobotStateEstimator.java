@@ -1,12 +1,13 @@
 package frc.team3310.robot.subsystems;
 
 import edu.wpi.first.wpilibj.command.Subsystem;
+import frc.team3310.robot.Constants;
 import frc.team3310.robot.Kinematics;
 import frc.team3310.robot.loops.ILooper;
 import frc.team3310.robot.loops.Loop;
 import frc.team3310.utility.lib.control.RobotStatus;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
 import frc.team3310.utility.lib.geometry.Rotation2d;
-import frc.team3310.utility.lib.geometry.Twist2d;
 
 public class RobotStateEstimator extends Subsystem {
     public static RobotStateEstimator instance_ = new RobotStateEstimator();
@@ -15,6 +16,9 @@ public class RobotStateEstimator extends Subsystem {
     private double left_encoder_prev_distance_ = 0.0;
     private double right_encoder_prev_distance_ = 0.0;
     private double back_encoder_prev_distance_ = 0.0;
+    // Written by every onLoop and copied by RobotStatus, so the loop does not allocate.
+    private final MutableTwist2d odometry_velocity_ = new MutableTwist2d();
+    private final MutableTwist2d predicted_velocity_ = new MutableTwist2d();
 
     RobotStateEstimator() {
     }
@@ -41,7 +45,8 @@ public class RobotStateEstimator extends Subsystem {
     }
 
     public void registerEnabledLoops(ILooper looper) {
-        looper.register(new EnabledLoop());
+        looper.register(new EnabledLoop(), Constants.kRobotStateEstimatorPeriod,
+                Constants.kRobotStateEstimatorPriority);
     }
 
     private class EnabledLoop implements Loop {
@@ -59,11 +64,11 @@ public class RobotStateEstimator extends Subsystem {
             final double delta_left = left_distance - left_encoder_prev_distance_;
             final double delta_right = right_distance - right_encoder_prev_distance_;
             final Rotation2d gyro_angle = drive_.getHeading();
-            final Twist2d odometry_velocity = robot_state_.generateOdometryFromSensors(delta_left, delta_right,
-                    gyro_angle);
-            final Twist2d predicted_velocity =
+            final MutableTwist2d odometry_velocity = robot_state_.generateOdometryFromSensors(delta_left, delta_right,
+                    gyro_angle, odometry_velocity_);
+            final MutableTwist2d predicted_velocity =
             Kinematics.forwardKinematics(drive_.getLeftLinearVelocity(),
-            drive_.getRightLinearVelocity());
+            drive_.getRightLinearVelocity(), predicted_velocity_);
             robot_state_.addObservations(timestamp, odometry_velocity,
             predicted_velocity);
             // robot_state_.addObservations(timestamp, odometry_velocity);
@@ -0,0 +1,81 @@
+package frc.team3310.utility;
+
+import java.util.Arrays;
+
+/**
+ * Fixed resolution histogram of durations, for timing code that runs at loop rate. Recording does not allocate.
+ * Durations past the last bucket are counted in an overflow bucket and reported as the largest duration seen.
+ * <p>
+ * Not thread safe.
+ */
+public class LatencyHistogram {
+    private final double resolution_;
+    private final long[] counts_;
+
+    private long count_ = 0;
+    private double sum_ = 0.0;
+    private double max_ = 0.0;
+
+    /**
+     * @param resolution width of a bucket in seconds
+     * @param max_value  largest duration in seconds that gets its own bucket
+     */
+    public LatencyHistogram(double resolution, double max_value) {
+        if (!(resolution > 0.0) || !(max_value > resolution)) {
+            throw new RuntimeException("Invalid histogram range: resolution " + resolution + ", max " + max_value);
+        }
+        resolution_ = resolution;
+        counts_ = new long[(int) Math.ceil(max_value / resolution) + 1];
+    }
+
+    public void record(double seconds) {
+        if (!(seconds >= 0.0)) {
+            seconds = 0.0;
+        }
+        final int bucket = (int) Math.min(seconds / resolution_, counts_.length - 1);
+        counts_[bucket]++;
+        count_++;
+        sum_ += seconds;
+        max_ = Math.max(max_, seconds);
+    }
+
+    public long getCount() {
+        return count_;
+    }
+
+    public double getMean() {
+        return count_ == 0 ? 0.0 : sum_ / count_;
+    }
+
+    public double getMax() {
+        return max_;
+    }
+
+    /**
+     * Returns the duration that percentile percent of the recorded durations do not exceed, rounded up to the bucket
+     * edge and never more than getMax(). Returns 0 when nothing has been recorded.
+     *
+     * @param percentile in [0, 100]
+     */
+    public double getPercentile(double percentile) {
+        if (count_ == 0) {
+            return 0.0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(Util.limit(percentile, 0.0, 100.0) / 100.0 * count_));
+        long seen = 0;
+        for (int i = 0; i < counts_.length - 1; ++i) {
+            seen += counts_[i];
+            if (seen >= rank) {
+                return Math.min((i + 1) * resolution_, max_);
+            }
+        }
+        return max_;
+    }
+
+    public void reset() {
+        Arrays.fill(counts_, 0L);
+        count_ = 0;
+        sum_ = 0.0;
+        max_ = 0.0;
+    }
+}
@@ -0,0 +1,222 @@
+package frc.team3310.utility.lib.control;
+
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
+import frc.team3310.utility.lib.geometry.Pose2d;
+
+/**
+ * Fixed capacity history of timestamped poses, kept in a ring buffer of primitive columns so that recording a pose
+ * does not allocate. Lookups by time binary search the buffer and interpolate exactly like an
+ * InterpolatingTreeMap&lt;InterpolatingDouble, Pose2d&gt; of the same poses: before the first or after the last
+ * timestamp they return the nearest pose, otherwise Pose2d.interpolate between the poses on either side.
+ * <p>
+ * Poses are expected in time order. An older timestamp is inserted in place at O(n) cost, and a timestamp already
+ * in the history replaces its pose. When full, the oldest pose is dropped.
+ * <p>
+ * Not thread safe.
+ */
+public class PoseHistory {
+    private final int capacity_;
+    private final double[] timestamp_;
+    private final double[] x_;
+    private final double[] y_;
+    private final double[] cos_;
+    private final double[] sin_;
+    // Buffer index of the oldest pose.
+    private int head_ = 0;
+    private int size_ = 0;
+
+    private final MutablePose2d scratch_pose_ = new MutablePose2d();
+    private final MutableTwist2d scratch_twist_ = new MutableTwist2d();
+    private final MutablePose2d result_pose_ = new MutablePose2d();
+
+    public PoseHistory(int capacity) {
+        if (capacity < 1) {
+            throw new RuntimeException("Pose history capacity must be positive: " + capacity);
+        }
+        capacity_ = capacity;
+        timestamp_ = new double[capacity];
+        x_ = new double[capacity];
+        y_ = new double[capacity];
+        cos_ = new double[capacity];
+        sin_ = new double[capacity];
+    }
+
+    public int capacity() {
+        return capacity_;
+    }
+
+    public int size() {
+        return size_;
+    }
+
+    public boolean isEmpty() {
+        return size_ == 0;
+    }
+
+    public void clear() {
+        head_ = 0;
+        size_ = 0;
+    }
+
+    public void add(double timestamp, final Pose2d pose) {
+        add(timestamp, pose.getTranslation().x(), pose.getTranslation().y(), pose.getRotation().cos(),
+                pose.getRotation().sin());
+    }
+
+    public void add(double timestamp, final MutablePose2d pose) {
+        add(timestamp, pose.getTranslation().x(), pose.getTranslation().y(), pose.getRotation().cos(),
+                pose.getRotation().sin());
+    }
+
+    public void add(double timestamp, double x, double y, double cos, double sin) {
+        // Common case: newer than everything recorded.
+        if (size_ == 0 || timestamp > timestamp_[index(size_ - 1)]) {
+            if (size_ == capacity_) {
+                dropOldest();
+            }
+            set(index(size_), timestamp, x, y, cos, sin);
+            size_++;
+            return;
+        }
+
+        final int floor = floor(timestamp);
+        if (floor >= 0 && timestamp_[index(floor)] == timestamp) {
+            set(index(floor), timestamp, x, y, cos, sin);
+            return;
+        }
+        int position = floor + 1;
+        if (size_ == capacity_) {
+            if (position == 0) {
+                // Older than everything, and there is no room for it.
+                return;
+            }
+            dropOldest();
+            position--;
+        }
+        for (int i = size_; i > position; --i) {
+            final int to = index(i);
+            final int from = index(i - 1);
+            set(to, timestamp_[from], x_[from], y_[from], cos_[from], sin_[from]);
+        }
+        set(index(position), timestamp, x, y, cos, sin);
+        size_++;
+    }
+
+    /**
+     * Moves the pose at timestamp, and every pose after it, by (dx, dy) in the field frame. Odometry only ever adds a
+     * motion relative to the previous pose, so this is the same as moving the pose at timestamp and integrating the
+     * odometry recorded since then again, without having to keep the odometry. The (interpolated) pose at timestamp is
+     * recorded first, so earlier lookups are unchanged. Costs O(log n) plus the number of poses moved.
+     *
+     * @return false, changing nothing, if timestamp is before the oldest pose or after the newest one
+     */
+    public boolean translateFrom(double timestamp, double dx, double dy) {
+        if (size_ == 0 || timestamp < timestamp_[index(0)] || timestamp > getLatestTimestamp()) {
+            return false;
+        }
+        add(timestamp, getInterpolated(timestamp, result_pose_));
+        for (int i = floor(timestamp); i < size_; ++i) {
+            final int index = index(i);
+            x_[index] += dx;
+            y_[index] += dy;
+        }
+        return true;
+    }
+
+    /**
+     * Timestamp of the newest pose. Must not be called when empty.
+     */
+    public double getLatestTimestamp() {
+        return timestamp_[index(size_ - 1)];
+    }
+
+    /**
+     * Writes the newest pose into result, or returns null when empty.
+     */
+    public MutablePose2d getLatest(MutablePose2d result) {
+        if (size_ == 0) {
+            return null;
+        }
+        return get(index(size_ - 1), result);
+    }
+
+    public Pose2d getLatest() {
+        return size_ == 0 ? null : getLatest(result_pose_).toPose2d();
+    }
+
+    /**
+     * Writes the pose at timestamp into result, or returns null when empty.
+     */
+    public MutablePose2d getInterpolated(double timestamp, MutablePose2d result) {
+        if (size_ == 0) {
+            return null;
+        }
+        final int floor = floor(timestamp);
+        if (floor < 0) {
+            return get(index(0), result);
+        }
+        final int lower = index(floor);
+        if (timestamp_[lower] == timestamp || floor == size_ - 1) {
+            return get(lower, result);
+        }
+        final int upper = index(floor + 1);
+
+        // Same as InterpolatingDouble.inverseInterpolate and Pose2d.interpolate.
+        final double x = (timestamp - timestamp_[lower]) / (timestamp_[upper] - timestamp_[lower]);
+        if (x <= 0) {
+            return get(lower, result);
+        } else if (x >= 1) {
+            return get(upper, result);
+        }
+        get(lower, scratch_pose_).inverse().transformBy(x_[upper], y_[upper], cos_[upper], sin_[upper])
+                .log(scratch_twist_);
+        return get(lower, result).transformByExp(scratch_twist_.dx * x, scratch_twist_.dy * x,
+                scratch_twist_.dtheta * x);
+    }
+
+    public Pose2d getInterpolated(double timestamp) {
+        return size_ == 0 ? null : getInterpolated(timestamp, result_pose_).toPose2d();
+    }
+
+    /**
+     * Logical index of the newest pose at or before timestamp, or -1 if every pose is after it.
+     */
+    private int floor(double timestamp) {
+        int low = 0;
+        int high = size_ - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (timestamp_[index(mid)] <= timestamp) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private int index(int logical_index) {
+        final int index = head_ + logical_index;
+        return index < capacity_ ? index : index - capacity_;
+    }
+
+    private void dropOldest() {
+        head_ = index(1);
+        size_--;
+    }
+
+    private void set(int index, double timestamp, double x, double y, double cos, double sin) {
+        timestamp_[index] = timestamp;
+        x_[index] = x;
+        y_[index] = y;
+        cos_[index] = cos;
+        sin_[index] = sin;
+    }
+
+    private MutablePose2d get(int index, MutablePose2d result) {
+        result.getTranslation().set(x_[index], y_[index]);
+        result.getRotation().set(cos_[index], sin_[index], false);
+        return result;
+    }
+}
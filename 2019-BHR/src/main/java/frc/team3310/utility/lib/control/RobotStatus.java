@@ -1,18 +1,67 @@
 package frc.team3310.utility.lib.control;
 
+import java.util.AbstractMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
 
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.team3310.robot.Constants;
 import frc.team3310.robot.Kinematics;
 import frc.team3310.robot.Robot.OperationMode;
 import frc.team3310.robot.subsystems.Drive;
 import frc.team3310.utility.InterpolatingDouble;
-import frc.team3310.utility.InterpolatingTreeMap;
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
 import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
 import frc.team3310.utility.lib.geometry.Twist2d;
 
+/**
+ * Pose and velocity of the robot, updated by the RobotStateEstimator loop.
+ * <p>
+ * The pose history is guarded by this object's lock. The latest state is also published after every update, and
+ * readers on other threads (commands, telemetry) take it as an immutable Snapshot without ever waiting for the
+ * estimator. Publishing only copies primitives; the Snapshot is built by the first reader of each update, so the
+ * estimator loop does not allocate when given MutableTwist2d observations.
+ */
 public class RobotStatus {
+    /**
+     * The latest state of the robot at one instant. Never changes once published.
+     */
+    public static class Snapshot {
+        public final double timestamp;
+        public final Pose2d field_to_vehicle;
+        public final Twist2d measured_velocity;
+        public final Twist2d predicted_velocity;
+        public final double distance_driven;
+        // The publish() this snapshot was built from.
+        private final long version_;
+
+        public Snapshot(double timestamp, Pose2d field_to_vehicle, Twist2d measured_velocity,
+                Twist2d predicted_velocity, double distance_driven) {
+            this(timestamp, field_to_vehicle, measured_velocity, predicted_velocity, distance_driven, -1);
+        }
+
+        private Snapshot(double timestamp, Pose2d field_to_vehicle, Twist2d measured_velocity,
+                Twist2d predicted_velocity, double distance_driven, long version) {
+            version_ = version;
+            this.timestamp = timestamp;
+            this.field_to_vehicle = field_to_vehicle;
+            this.measured_velocity = measured_velocity;
+            this.predicted_velocity = predicted_velocity;
+            this.distance_driven = distance_driven;
+        }
+
+        /**
+         * Same as RobotStatus.getPredictedFieldToVehicle at the time of the snapshot.
+         */
+        public Pose2d getPredictedFieldToVehicle(double lookahead_time) {
+            return field_to_vehicle.transformBy(Pose2d.exp(predicted_velocity.scaled(lookahead_time)));
+        }
+    }
+
     private static RobotStatus instance_ = new RobotStatus();
 
     public static RobotStatus getInstance() {
@@ -22,11 +71,32 @@ public class RobotStatus {
     private static final int kObservationBufferSize = 100;
 
     // FPGATimestamp -> RigidTransform2d or Rotation2d
-    private InterpolatingTreeMap<InterpolatingDouble, Pose2d> field_to_vehicle_;
+    private final PoseHistory field_to_vehicle_ = new PoseHistory(kObservationBufferSize);
     // private Pose2d field_to_vehicle_;
-    private Twist2d vehicle_velocity_predicted_;
-    private Twist2d vehicle_velocity_measured_;
+    private final MutableTwist2d vehicle_velocity_predicted_ = new MutableTwist2d();
+    private final MutableTwist2d vehicle_velocity_measured_ = new MutableTwist2d();
     private double distance_driven_;
+    // Scratch pose for the estimator, only touched while holding the lock.
+    private final MutablePose2d scratch_pose_ = new MutablePose2d();
+
+    // The latest published state. Written by publish() under published_lock_'s write lock, read by getSnapshot()
+    // through optimistic reads.
+    private final StampedLock published_lock_ = new StampedLock();
+    private long published_version_ = 0;
+    private double published_timestamp_;
+    private double published_x_;
+    private double published_y_;
+    private double published_cos_;
+    private double published_sin_;
+    private double published_measured_dx_;
+    private double published_measured_dy_;
+    private double published_measured_dtheta_;
+    private double published_predicted_dx_;
+    private double published_predicted_dy_;
+    private double published_predicted_dtheta_;
+    private double published_distance_driven_;
+    // The most recently built Snapshot, reused until the next publish().
+    private final AtomicReference<Snapshot> snapshot_ = new AtomicReference<>();
 
     private RobotStatus() {
         reset(0, new Pose2d());
@@ -36,17 +106,81 @@ public class RobotStatus {
      * Resets the field to robot transform (robot's position on the field)
      */
     public synchronized void reset(double start_time, Pose2d initial_field_to_vehicle) {
-        field_to_vehicle_ = new InterpolatingTreeMap<>(kObservationBufferSize);
-        field_to_vehicle_.put(new InterpolatingDouble(start_time), initial_field_to_vehicle);
+        field_to_vehicle_.clear();
+        field_to_vehicle_.add(start_time, initial_field_to_vehicle);
         // field_to_vehicle_ = initial_field_to_vehicle;
        Drive.getInstance().setHeading(initial_field_to_vehicle.getRotation());
-        vehicle_velocity_predicted_ = Twist2d.identity();
-        vehicle_velocity_measured_ = Twist2d.identity();
+        vehicle_velocity_predicted_.set(Twist2d.identity());
+        vehicle_velocity_measured_.set(Twist2d.identity());
         distance_driven_ = 0.0;
+        publish();
     }
 
     public synchronized void resetDistanceDriven() {
         distance_driven_ = 0.0;
+        publish();
+    }
+
+    /**
+     * Must be called holding the lock, after every change.
+     */
+    private void publish() {
+        final MutablePose2d latest = field_to_vehicle_.getLatest(scratch_pose_);
+        final long stamp = published_lock_.writeLock();
+        try {
+            ++published_version_;
+            published_timestamp_ = field_to_vehicle_.getLatestTimestamp();
+            published_x_ = latest.getTranslation().x();
+            published_y_ = latest.getTranslation().y();
+            published_cos_ = latest.getRotation().cos();
+            published_sin_ = latest.getRotation().sin();
+            published_measured_dx_ = vehicle_velocity_measured_.dx;
+            published_measured_dy_ = vehicle_velocity_measured_.dy;
+            published_measured_dtheta_ = vehicle_velocity_measured_.dtheta;
+            published_predicted_dx_ = vehicle_velocity_predicted_.dx;
+            published_predicted_dy_ = vehicle_velocity_predicted_.dy;
+            published_predicted_dtheta_ = vehicle_velocity_predicted_.dtheta;
+            published_distance_driven_ = distance_driven_;
+        } finally {
+            published_lock_.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * The latest published state. Does not take the lock, so it is safe to call from any thread at any rate; a
+     * reader that races publish() retries its copy instead. Distance driven from generateOdometryFromSensors shows up
+     * with the following addObservations.
+     */
+    public Snapshot getSnapshot() {
+        final Snapshot cached = snapshot_.get();
+        long stamp = published_lock_.tryOptimisticRead();
+        if (cached != null && cached.version_ == published_version_ && published_lock_.validate(stamp)) {
+            return cached;
+        }
+        while (true) {
+            stamp = published_lock_.tryOptimisticRead();
+            final long version = published_version_;
+            final double timestamp = published_timestamp_;
+            final double x = published_x_;
+            final double y = published_y_;
+            final double cos = published_cos_;
+            final double sin = published_sin_;
+            final double measured_dx = published_measured_dx_;
+            final double measured_dy = published_measured_dy_;
+            final double measured_dtheta = published_measured_dtheta_;
+            final double predicted_dx = published_predicted_dx_;
+            final double predicted_dy = published_predicted_dy_;
+            final double predicted_dtheta = published_predicted_dtheta_;
+            final double distance_driven = published_distance_driven_;
+            if (published_lock_.validate(stamp)) {
+                final Snapshot snapshot = new Snapshot(timestamp,
+                        new Pose2d(new Translation2d(x, y), new Rotation2d(cos, sin, false)),
+                        new Twist2d(measured_dx, measured_dy, measured_dtheta),
+                        new Twist2d(predicted_dx, predicted_dy, predicted_dtheta), distance_driven, version);
+                snapshot_.set(snapshot);
+                return snapshot;
+            }
+        }
     }
 
     /**
@@ -55,64 +189,128 @@ public class RobotStatus {
      */
     public synchronized Pose2d getFieldToVehicle(double timestamp) {
     // public synchronized Pose2d getFieldToVehicle() {
-        return field_to_vehicle_.getInterpolated(new InterpolatingDouble(timestamp));
+        return field_to_vehicle_.getInterpolated(timestamp);
         // return field_to_vehicle_;
     }
 
-    public synchronized Map.Entry<InterpolatingDouble, Pose2d> getLatestFieldToVehicle() {
-        return field_to_vehicle_.lastEntry();
+    public Map.Entry<InterpolatingDouble, Pose2d> getLatestFieldToVehicle() {
+        final Snapshot snapshot = getSnapshot();
+        return new AbstractMap.SimpleImmutableEntry<>(new InterpolatingDouble(snapshot.timestamp),
+                snapshot.field_to_vehicle);
     }
 
-    public synchronized Pose2d getPredictedFieldToVehicle(double lookahead_time) {
-        return getLatestFieldToVehicle().getValue()
-                .transformBy(Pose2d.exp(vehicle_velocity_predicted_.scaled(lookahead_time)));
+    public Pose2d getPredictedFieldToVehicle(double lookahead_time) {
+        return getSnapshot().getPredictedFieldToVehicle(lookahead_time);
     }
 
    public synchronized void addFieldToVehicleObservation(double timestamp, Pose2d observation) {
     // public synchronized void addFieldToVehicleObservation(Pose2d observation) {
-        field_to_vehicle_.put(new InterpolatingDouble(timestamp), observation);
+        field_to_vehicle_.add(timestamp, observation);
         // field_to_vehicle_= observation;
+        publish();
+    }
+
+    /**
+     * Same as addVisionObservation(capture_timestamp, field_to_vehicle, Constants.kVisionTranslationGain).
+     */
+    public boolean addVisionObservation(double capture_timestamp, Translation2d field_to_vehicle) {
+        return addVisionObservation(capture_timestamp, field_to_vehicle, Constants.kVisionTranslationGain);
+    }
+
+    /**
+     * Fuses a field position measured by vision from an image captured at capture_timestamp (FPGA time, i.e. the
+     * time the frame was taken, not the time it arrived). The estimated position at that instant is moved gain of the
+     * way toward the measurement and the odometry recorded since then is applied again on top of it, so the camera's
+     * delay does not show up as error. Heading is left to the gyro, which the next odometry update would restore
+     * anyway.
+     *
+     * @param gain in [0, 1], how far to trust the measurement over odometry
+     * @return false if the capture is older than the pose history or newer than the latest odometry update, in which
+     *         case it is ignored
+     */
+    public synchronized boolean addVisionObservation(double capture_timestamp, Translation2d field_to_vehicle,
+            double gain) {
+        if (field_to_vehicle_.isEmpty() || capture_timestamp > field_to_vehicle_.getLatestTimestamp()) {
+            return false;
+        }
+        final MutablePose2d estimate = field_to_vehicle_.getInterpolated(capture_timestamp, scratch_pose_);
+        if (estimate == null) {
+            return false;
+        }
+        final double dx = gain * (field_to_vehicle.x() - estimate.getTranslation().x());
+        final double dy = gain * (field_to_vehicle.y() - estimate.getTranslation().y());
+        if (!field_to_vehicle_.translateFrom(capture_timestamp, dx, dy)) {
+            return false;
+        }
+        publish();
+        return true;
     }
 
    public synchronized void addObservations(double timestamp, Twist2d measured_velocity, Twist2d predicted_velocity) {
     // public synchronized void addObservations(double timestamp, Twist2d measured_velocity) {
-            addFieldToVehicleObservation(timestamp,
-                Kinematics.integrateForwardKinematics(getLatestFieldToVehicle().getValue(), measured_velocity));
-            // addFieldToVehicleObservation(Kinematics.integrateForwardKinematics(getFieldToVehicle(), measured_velocity));
-        vehicle_velocity_measured_ = measured_velocity;
-        vehicle_velocity_predicted_ = predicted_velocity;
+        vehicle_velocity_measured_.set(measured_velocity);
+        vehicle_velocity_predicted_.set(predicted_velocity);
+        addObservations(timestamp);
+    }
+
+    /**
+     * Same as addObservations(timestamp, measured_velocity.toTwist2d(), predicted_velocity.toTwist2d()), without
+     * the copies.
+     */
+    public synchronized void addObservations(double timestamp, MutableTwist2d measured_velocity,
+            MutableTwist2d predicted_velocity) {
+        vehicle_velocity_measured_.set(measured_velocity.dx, measured_velocity.dy, measured_velocity.dtheta);
+        vehicle_velocity_predicted_.set(predicted_velocity.dx, predicted_velocity.dy, predicted_velocity.dtheta);
+        addObservations(timestamp);
+    }
+
+    private void addObservations(double timestamp) {
+        field_to_vehicle_.add(timestamp, Kinematics.integrateForwardKinematics(
+                field_to_vehicle_.getLatest(scratch_pose_), vehicle_velocity_measured_));
+        // addFieldToVehicleObservation(Kinematics.integrateForwardKinematics(getFieldToVehicle(), measured_velocity));
+        publish();
     }
 
     public synchronized Twist2d generateOdometryFromSensors(double left_encoder_delta_distance,
             double right_encoder_delta_distance, Rotation2d current_gyro_angle) {
-        final Pose2d last_measurement = getLatestFieldToVehicle().getValue();
+        return generateOdometryFromSensors(left_encoder_delta_distance, right_encoder_delta_distance,
+                current_gyro_angle, new MutableTwist2d()).toTwist2d();
+    }
+
+    /**
+     * Same as above, but writes the odometry into result.
+     */
+    public synchronized MutableTwist2d generateOdometryFromSensors(double left_encoder_delta_distance,
+            double right_encoder_delta_distance, Rotation2d current_gyro_angle, MutableTwist2d result) {
+        final MutablePose2d last_measurement = field_to_vehicle_.getLatest(scratch_pose_);
         // final Pose2d last_measurement = getFieldToVehicle();
-        final Twist2d delta = Kinematics.forwardKinematics(last_measurement.getRotation(), left_encoder_delta_distance,
-                right_encoder_delta_distance, current_gyro_angle);
+        final MutableTwist2d delta = Kinematics.forwardKinematics(last_measurement.getRotation(),
+                left_encoder_delta_distance, right_encoder_delta_distance, current_gyro_angle, result);
         distance_driven_ += delta.dx; // do we care about dy here?
         return delta;
     }
 
-    public synchronized double getDistanceDriven() {
-        return distance_driven_;
+    public double getDistanceDriven() {
+        return getSnapshot().distance_driven;
     }
 
-    public synchronized Twist2d getPredictedVelocity() {
-        return vehicle_velocity_predicted_;
+    public Twist2d getPredictedVelocity() {
+        return getSnapshot().predicted_velocity;
     }
 
-    public synchronized Twist2d getMeasuredVelocity() {
-        return vehicle_velocity_measured_;
+    public Twist2d getMeasuredVelocity() {
+        return getSnapshot().measured_velocity;
     }
 
     public void updateStatus(OperationMode operationMode) {
         if (operationMode == OperationMode.COMPETITION) {
-           Pose2d odometry = getLatestFieldToVehicle().getValue();
+            final Snapshot snapshot = getSnapshot();
+           Pose2d odometry = snapshot.field_to_vehicle;
             // Pose2d odometry = getFieldToVehicle();
             SmartDashboard.putNumber("Robot Pose X", odometry.getTranslation().x());
             SmartDashboard.putNumber("Robot Pose Y", odometry.getTranslation().y());
             SmartDashboard.putNumber("Robot Pose Theta", odometry.getRotation().getDegrees());
-            SmartDashboard.putNumber("Robot Linear Vel", vehicle_velocity_measured_.dx);
+            SmartDashboard.putNumber("Robot Linear Vel", snapshot.measured_velocity.dx);
         }
     }
 }
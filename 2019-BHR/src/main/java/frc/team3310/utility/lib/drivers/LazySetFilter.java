@@ -0,0 +1,90 @@
+package frc.team3310.utility.lib.drivers;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+
+/**
+ * Remembers the last demand written to a motor controller so the lazy wrappers can skip writes that would not change
+ * it. A write is skipped only if the control mode and demand type are unchanged and both demands are within their
+ * epsilons of the last write that went out.
+ * <p>
+ * demand0 is in different units depending on the control mode, so it has a separate epsilon for PercentOutput (a
+ * fraction of full output) and Velocity (sensor units per 100ms). In any other mode only an exact repeat of demand0 is
+ * skipped. demand1 (e.g. an arbitrary feedforward, in percent output) has one epsilon. The epsilons default to zero,
+ * which only skips exact repeats.
+ */
+public class LazySetFilter {
+    private ControlMode mLastControlMode = null;
+    private double mLastDemand0 = Double.NaN;
+    private DemandType mLastDemand1Type = null;
+    private double mLastDemand1 = Double.NaN;
+
+    private double mPercentOutputEpsilon = 0.0;
+    private double mVelocityEpsilon = 0.0;
+    private double mDemand1Epsilon = 0.0;
+
+    private long mSentCount = 0;
+    private long mSuppressedCount = 0;
+
+    /**
+     * @return true if the write should go out, in which case it is recorded as the last write.
+     */
+    public boolean shouldSend(ControlMode mode, double demand0, DemandType demand1Type, double demand1) {
+        if (mode == mLastControlMode && demand1Type == mLastDemand1Type
+                && Math.abs(demand0 - mLastDemand0) <= getDemand0Epsilon(mode)
+                && Math.abs(demand1 - mLastDemand1) <= mDemand1Epsilon) {
+            mSuppressedCount++;
+            return false;
+        }
+        mLastControlMode = mode;
+        mLastDemand0 = demand0;
+        mLastDemand1Type = demand1Type;
+        mLastDemand1 = demand1;
+        mSentCount++;
+        return true;
+    }
+
+    /**
+     * Forgets the last write, so the next one always goes out.
+     */
+    public void reset() {
+        mLastControlMode = null;
+        mLastDemand0 = Double.NaN;
+        mLastDemand1Type = null;
+        mLastDemand1 = Double.NaN;
+    }
+
+    public double getLastDemand0() {
+        return mLastDemand0;
+    }
+
+    /**
+     * @param percentOutputEpsilon demand0 epsilon in PercentOutput mode, as a fraction of full output
+     * @param velocityEpsilon      demand0 epsilon in Velocity mode, in sensor units per 100ms
+     * @param demand1Epsilon       demand1 epsilon in any mode
+     */
+    public void setEpsilons(double percentOutputEpsilon, double velocityEpsilon, double demand1Epsilon) {
+        mPercentOutputEpsilon = percentOutputEpsilon;
+        mVelocityEpsilon = velocityEpsilon;
+        mDemand1Epsilon = demand1Epsilon;
+    }
+
+    public long getSentCount() {
+        return mSentCount;
+    }
+
+    public long getSuppressedCount() {
+        return mSuppressedCount;
+    }
+
+    private double getDemand0Epsilon(ControlMode mode) {
+        switch (mode) {
+            case PercentOutput:
+                return mPercentOutputEpsilon;
+            case Velocity:
+                return mVelocityEpsilon;
+            default:
+                return 0.0;
+        }
+    }
+}
@@ -4,6 +4,8 @@ package frc.team3310.utility.lib.drivers;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 
+import com.ctre.phoenix.motorcontrol.DemandType;
+
 import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
 
@@ -14,13 +16,17 @@ import com.ctre.phoenix.motorcontrol.can.TalonSRX;
 
  * commands. (By default the Talon flushes the Tx buffer on every set call).
 
+ *
+
+ * The Talon keeps resending the last control frame on its own period, so a skipped set only skips the immediate
+
+ * flush. Both the plain and the arbitrary feedforward forms of set are deduplicated.
+
  */
 
 public class LazyTalonSRX extends TalonSRX {
 
-    protected double mLastSet = Double.NaN;
-
-    protected ControlMode mLastControlMode = null;
+    private final LazySetFilter mFilter = new LazySetFilter();
 
 
 
@@ -34,7 +40,51 @@ public class LazyTalonSRX extends TalonSRX {
 
     public double getLastSet() {
 
-        return mLastSet;
+        return mFilter.getLastDemand0();
+
+    }
+
+
+
+    /**
+
+     * Sets are skipped while the demands stay within these of the last set that went out. See LazySetFilter.
+
+     */
+
+    public void setLazyEpsilons(double percentOutputEpsilon, double velocityEpsilon, double demand1Epsilon) {
+
+        mFilter.setEpsilons(percentOutputEpsilon, velocityEpsilon, demand1Epsilon);
+
+    }
+
+
+
+    /**
+
+     * Makes the next set go out even if it is a duplicate.
+
+     */
+
+    public void resetLazySet() {
+
+        mFilter.reset();
+
+    }
+
+
+
+    public long getSentSetCount() {
+
+        return mFilter.getSentCount();
+
+    }
+
+
+
+    public long getSuppressedSetCount() {
+
+        return mFilter.getSuppressedCount();
 
     }
 
@@ -44,13 +94,23 @@ public class LazyTalonSRX extends TalonSRX {
 
     public void set(ControlMode mode, double value) {
 
-        if (value != mLastSet || mode != mLastControlMode) {
+        if (mFilter.shouldSend(mode, value, DemandType.Neutral, 0.0)) {
 
-            mLastSet = value;
+            super.set(mode, value);
 
-            mLastControlMode = mode;
+        }
 
-            super.set(mode, value);
+    }
+
+
+
+    @Override
+
+    public void set(ControlMode mode, double demand0, DemandType demand1Type, double demand1) {
+
+        if (mFilter.shouldSend(mode, demand0, demand1Type, demand1)) {
+
+            super.set(mode, demand0, demand1Type, demand1);
 
         }
 
@@ -0,0 +1,56 @@
+package frc.team3310.utility.lib.drivers;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.FeedbackDevice;
+
+/**
+ * A TalonSRXEncoder that skips duplicate set commands, like LazyTalonSRX.
+ */
+public class LazyTalonSRXEncoder extends TalonSRXEncoder {
+	private final LazySetFilter mFilter = new LazySetFilter();
+
+	public LazyTalonSRXEncoder(int deviceNumber, double encoderTicksToWorld, boolean isRight, FeedbackDevice feedbackDevice) {
+		super(deviceNumber, encoderTicksToWorld, isRight, feedbackDevice);
+	}
+
+	public double getLastSet() {
+		return mFilter.getLastDemand0();
+	}
+
+	/**
+	 * Sets are skipped while the demands stay within these of the last set that went out. See LazySetFilter.
+	 */
+	public void setLazyEpsilons(double percentOutputEpsilon, double velocityEpsilon, double demand1Epsilon) {
+		mFilter.setEpsilons(percentOutputEpsilon, velocityEpsilon, demand1Epsilon);
+	}
+
+	/**
+	 * Makes the next set go out even if it is a duplicate.
+	 */
+	public void resetLazySet() {
+		mFilter.reset();
+	}
+
+	public long getSentSetCount() {
+		return mFilter.getSentCount();
+	}
+
+	public long getSuppressedSetCount() {
+		return mFilter.getSuppressedCount();
+	}
+
+	@Override
+	public void set(ControlMode mode, double value) {
+		if (mFilter.shouldSend(mode, value, DemandType.Neutral, 0.0)) {
+			super.set(mode, value);
+		}
+	}
+
+	@Override
+	public void set(ControlMode mode, double demand0, DemandType demand1Type, double demand1) {
+		if (mFilter.shouldSend(mode, demand0, demand1Type, demand1)) {
+			super.set(mode, demand0, demand1Type, demand1);
+		}
+	}
+}
@@ -0,0 +1,181 @@
+package frc.team3310.utility.lib.drivers;
+
+import com.ctre.phoenix.ErrorCode;
+import com.ctre.phoenix.motorcontrol.VelocityMeasPeriod;
+import com.ctre.phoenix.motorcontrol.can.TalonSRX;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Remembers the last value written to each config parameter (per slot) of a TalonSRX and skips writes that would not
+ * change it. Each config write with a timeout blocks until the Talon acknowledges it, so re-sending an unchanged
+ * configuration on every mode switch costs real time on the loop thread.
+ *
+ * A value is only remembered once the Talon has acknowledged it, so a failed write is retried the next time. Writes
+ * with a zero timeout are never acknowledged, so they are always sent and never remembered. Anything
+ * that changes the Talon's config behind the cache's back (a factory default, a power cycle of a Talon that lost its
+ * settings) should be followed by invalidate().
+ */
+public class TalonSRXConfigCache {
+    private interface ConfigWrite {
+        ErrorCode write();
+    }
+
+    private final TalonSRX mTalon;
+    private final Map<String, Double> mValues = new HashMap<>();
+    private long mSentCount = 0;
+    private long mSkippedCount = 0;
+
+    public TalonSRXConfigCache(TalonSRX talon) {
+        mTalon = talon;
+    }
+
+    public TalonSRX getTalon() {
+        return mTalon;
+    }
+
+    /**
+     * Forgets every remembered value, so the next write of each parameter goes out.
+     */
+    public void invalidate() {
+        mValues.clear();
+    }
+
+    public long getSentCount() {
+        return mSentCount;
+    }
+
+    public long getSkippedCount() {
+        return mSkippedCount;
+    }
+
+    public ErrorCode config_kP(int slotIdx, double value, int timeoutMs) {
+        return write("kP", slotIdx, value, timeoutMs, () -> mTalon.config_kP(slotIdx, value, timeoutMs));
+    }
+
+    public ErrorCode config_kI(int slotIdx, double value, int timeoutMs) {
+        return write("kI", slotIdx, value, timeoutMs, () -> mTalon.config_kI(slotIdx, value, timeoutMs));
+    }
+
+    public ErrorCode config_kD(int slotIdx, double value, int timeoutMs) {
+        return write("kD", slotIdx, value, timeoutMs, () -> mTalon.config_kD(slotIdx, value, timeoutMs));
+    }
+
+    public ErrorCode config_kF(int slotIdx, double value, int timeoutMs) {
+        return write("kF", slotIdx, value, timeoutMs, () -> mTalon.config_kF(slotIdx, value, timeoutMs));
+    }
+
+    public ErrorCode config_IntegralZone(int slotIdx, int izone, int timeoutMs) {
+        return write("IntegralZone", slotIdx, izone, timeoutMs,
+                () -> mTalon.config_IntegralZone(slotIdx, izone, timeoutMs));
+    }
+
+    public ErrorCode configVoltageCompSaturation(double voltage, int timeoutMs) {
+        return write("VoltageCompSaturation", 0, voltage, timeoutMs,
+                () -> mTalon.configVoltageCompSaturation(voltage, timeoutMs));
+    }
+
+    public ErrorCode configPeakOutputForward(double percentOut, int timeoutMs) {
+        return write("PeakOutputForward", 0, percentOut, timeoutMs,
+                () -> mTalon.configPeakOutputForward(percentOut, timeoutMs));
+    }
+
+    public ErrorCode configPeakOutputReverse(double percentOut, int timeoutMs) {
+        return write("PeakOutputReverse", 0, percentOut, timeoutMs,
+                () -> mTalon.configPeakOutputReverse(percentOut, timeoutMs));
+    }
+
+    public ErrorCode configNominalOutputForward(double percentOut, int timeoutMs) {
+        return write("NominalOutputForward", 0, percentOut, timeoutMs,
+                () -> mTalon.configNominalOutputForward(percentOut, timeoutMs));
+    }
+
+    public ErrorCode configNominalOutputReverse(double percentOut, int timeoutMs) {
+        return write("NominalOutputReverse", 0, percentOut, timeoutMs,
+                () -> mTalon.configNominalOutputReverse(percentOut, timeoutMs));
+    }
+
+    public ErrorCode configClosedloopRamp(double secondsFromNeutralToFull, int timeoutMs) {
+        return write("ClosedloopRamp", 0, secondsFromNeutralToFull, timeoutMs,
+                () -> mTalon.configClosedloopRamp(secondsFromNeutralToFull, timeoutMs));
+    }
+
+    public ErrorCode configOpenloopRamp(double secondsFromNeutralToFull, int timeoutMs) {
+        return write("OpenloopRamp", 0, secondsFromNeutralToFull, timeoutMs,
+                () -> mTalon.configOpenloopRamp(secondsFromNeutralToFull, timeoutMs));
+    }
+
+    public ErrorCode configNeutralDeadband(double percentDeadband, int timeoutMs) {
+        return write("NeutralDeadband", 0, percentDeadband, timeoutMs,
+                () -> mTalon.configNeutralDeadband(percentDeadband, timeoutMs));
+    }
+
+    public ErrorCode configVelocityMeasurementPeriod(VelocityMeasPeriod period, int timeoutMs) {
+        return write("VelocityMeasurementPeriod", 0, period.ordinal(), timeoutMs,
+                () -> mTalon.configVelocityMeasurementPeriod(period, timeoutMs));
+    }
+
+    public ErrorCode configVelocityMeasurementWindow(int windowSize, int timeoutMs) {
+        return write("VelocityMeasurementWindow", 0, windowSize, timeoutMs,
+                () -> mTalon.configVelocityMeasurementWindow(windowSize, timeoutMs));
+    }
+
+    private ErrorCode write(String parameter, int slotIdx, double value, int timeoutMs, ConfigWrite write) {
+        final String key = parameter + ":" + slotIdx;
+        final Double last = mValues.get(key);
+        if (timeoutMs > 0 && last != null && last.doubleValue() == value) {
+            mSkippedCount++;
+            return ErrorCode.OK;
+        }
+        mSentCount++;
+        final ErrorCode error = write.write();
+        // A write without a timeout returns before the Talon has applied it, so OK only means the frame was queued.
+        // Those are always sent and never remembered.
+        if (timeoutMs > 0 && error == ErrorCode.OK) {
+            mValues.put(key, value);
+        } else {
+            mValues.remove(key);
+            TalonSRXUtil.checkError(error, "Could not set " + parameter + " on Talon " + mTalon.getDeviceID() + ": ");
+        }
+        return error;
+    }
+
+    /**
+     * Runs configuration tasks, typically one per Talon, on their own threads and waits for all of them. A blocking
+     * config write only waits on its own Talon, so configuring several Talons at once takes about as long as the
+     * slowest one instead of the sum of all of them.
+     */
+    public static void configureConcurrently(Runnable... tasks) {
+        if (tasks.length == 0) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(tasks.length, runnable -> {
+            Thread thread = new Thread(runnable, "TalonSRXConfig");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Runnable task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Talon configuration failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while configuring Talons", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -77,6 +77,13 @@ public class TalonSRXFactory {
         return talon;
     }
 
+    // Create a TalonSRXEncoder that skips duplicate set commands, for masters that are set every loop.
+    public static LazyTalonSRXEncoder createLazyTalonEncoder(int id, double encoderTicksToWorld, boolean isRight, FeedbackDevice feedbackDevice) {
+        LazyTalonSRXEncoder talon = new LazyTalonSRXEncoder(id, encoderTicksToWorld, isRight, feedbackDevice);
+        talon.configFactoryDefault();
+        return talon;
+    }
+
     public static TalonSRX createPermanentSlaveTalon(int id, int master_id) {
         final TalonSRX talon = createTalon(id, kSlaveConfiguration);
         talon.set(ControlMode.Follower, master_id);
@@ -0,0 +1,125 @@
+package frc.team3310.utility.lib.geometry;
+
+/**
+ * A Pose2d that is updated in place, for estimator and follower loops that would otherwise allocate several poses
+ * every step. Operations replace this pose with the result of the Pose2d operation of the same name and give
+ * bit-for-bit the same result, e.g. a.set(b).inverse().transformBy(c) equals b.inverse().transformBy(c).
+ * <p>
+ * Not thread safe; share a toPose2d() copy instead.
+ */
+public class MutablePose2d {
+    private final static double kEps = 1E-9;
+
+    protected final MutableTranslation2d translation_ = new MutableTranslation2d();
+    protected final MutableRotation2d rotation_ = new MutableRotation2d();
+
+    public MutablePose2d() {
+    }
+
+    public MutablePose2d(final Pose2d other) {
+        set(other);
+    }
+
+    public MutablePose2d set(final Pose2d other) {
+        translation_.set(other.getTranslation());
+        rotation_.set(other.getRotation());
+        return this;
+    }
+
+    public MutablePose2d set(final MutablePose2d other) {
+        translation_.set(other.translation_);
+        rotation_.set(other.rotation_);
+        return this;
+    }
+
+    public MutableTranslation2d getTranslation() {
+        return translation_;
+    }
+
+    public MutableRotation2d getRotation() {
+        return rotation_;
+    }
+
+    /**
+     * result = Pose2d.log(this)
+     */
+    public MutableTwist2d log(MutableTwist2d result) {
+        final double dtheta = rotation_.getRadians();
+        final double half_dtheta = 0.5 * dtheta;
+        final double cos_minus_one = rotation_.cos() - 1.0;
+        double halftheta_by_tan_of_halfdtheta;
+        if (Math.abs(cos_minus_one) < kEps) {
+            halftheta_by_tan_of_halfdtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+        } else {
+            halftheta_by_tan_of_halfdtheta = -(half_dtheta * rotation_.sin()) / cos_minus_one;
+        }
+        final double x = translation_.x();
+        final double y = translation_.y();
+        return result.set(x * halftheta_by_tan_of_halfdtheta - y * -half_dtheta,
+                x * -half_dtheta + y * halftheta_by_tan_of_halfdtheta, dtheta);
+    }
+
+    /**
+     * this = this.transformBy(other), for other = (x, y, cos, sin).
+     */
+    public MutablePose2d transformBy(double x, double y, double cos, double sin) {
+        final double this_cos = rotation_.cos();
+        final double this_sin = rotation_.sin();
+        translation_.translateBy(x * this_cos - y * this_sin, x * this_sin + y * this_cos);
+        rotation_.rotateBy(cos, sin);
+        return this;
+    }
+
+    public MutablePose2d transformBy(final Pose2d other) {
+        return transformBy(other.getTranslation().x(), other.getTranslation().y(), other.getRotation().cos(),
+                other.getRotation().sin());
+    }
+
+    public MutablePose2d transformBy(final MutablePose2d other) {
+        return transformBy(other.translation_.x(), other.translation_.y(), other.rotation_.cos(),
+                other.rotation_.sin());
+    }
+
+    /**
+     * this = this.transformBy(Pose2d.exp(delta)), e.g. to integrate odometry.
+     */
+    public MutablePose2d transformByExp(double dx, double dy, double dtheta) {
+        double sin_theta = Math.sin(dtheta);
+        double cos_theta = Math.cos(dtheta);
+        double s, c;
+        if (Math.abs(dtheta) < kEps) {
+            s = 1.0 - 1.0 / 6.0 * dtheta * dtheta;
+            c = .5 * dtheta;
+        } else {
+            s = sin_theta / dtheta;
+            c = (1.0 - cos_theta) / dtheta;
+        }
+        return transformBy(dx * s - dy * c, dx * c + dy * s, cos_theta, sin_theta);
+    }
+
+    public MutablePose2d transformByExp(final Twist2d delta) {
+        return transformByExp(delta.dx, delta.dy, delta.dtheta);
+    }
+
+    /**
+     * this = this.inverse()
+     */
+    public MutablePose2d inverse() {
+        rotation_.inverse();
+        translation_.inverse().rotateBy(rotation_);
+        return this;
+    }
+
+    public Pose2d toPose2d() {
+        return new Pose2d(translation_.toTranslation2d(), rotation_.toRotation2d());
+    }
+
+    @Override
+    public String toString() {
+        return toPose2d().toString();
+    }
+
+    public String toCSV() {
+        return toPose2d().toCSV();
+    }
+}
@@ -0,0 +1,130 @@
+package frc.team3310.utility.lib.geometry;
+
+import static frc.team3310.utility.Util.kEpsilon;
+
+/**
+ * A Rotation2d that is updated in place, for loops that would otherwise allocate a new rotation every step. Every
+ * operation gives bit-for-bit the same result as the Rotation2d operation of the same name.
+ * <p>
+ * Not thread safe; share a toRotation2d() copy instead.
+ */
+public class MutableRotation2d {
+    protected double cos_angle_;
+    protected double sin_angle_;
+    // Cached getRadians(), NaN when not computed yet.
+    protected double radians_;
+
+    public MutableRotation2d() {
+        set(1.0, 0.0, false);
+    }
+
+    public MutableRotation2d(final Rotation2d other) {
+        set(other);
+    }
+
+    public MutableRotation2d set(final Rotation2d other) {
+        return set(other.cos(), other.sin(), false);
+    }
+
+    public MutableRotation2d set(final MutableRotation2d other) {
+        cos_angle_ = other.cos_angle_;
+        sin_angle_ = other.sin_angle_;
+        radians_ = other.radians_;
+        return this;
+    }
+
+    /**
+     * Same as new Rotation2d(x, y, normalize).
+     */
+    public MutableRotation2d set(double x, double y, boolean normalize) {
+        if (normalize) {
+            double magnitude = Math.hypot(x, y);
+            if (magnitude > kEpsilon) {
+                sin_angle_ = y / magnitude;
+                cos_angle_ = x / magnitude;
+            } else {
+                sin_angle_ = 0;
+                cos_angle_ = 1;
+            }
+        } else {
+            cos_angle_ = x;
+            sin_angle_ = y;
+        }
+        radians_ = Double.NaN;
+        return this;
+    }
+
+    /**
+     * Same as Rotation2d.fromRadians(angle_radians).
+     */
+    public MutableRotation2d setRadians(double angle_radians) {
+        return set(Math.cos(angle_radians), Math.sin(angle_radians), false);
+    }
+
+    public double cos() {
+        return cos_angle_;
+    }
+
+    public double sin() {
+        return sin_angle_;
+    }
+
+    public double getRadians() {
+        if (Double.isNaN(radians_)) {
+            radians_ = Math.atan2(sin_angle_, cos_angle_);
+        }
+        return radians_;
+    }
+
+    public double getDegrees() {
+        return Math.toDegrees(getRadians());
+    }
+
+    /**
+     * this = this.rotateBy(other)
+     */
+    public MutableRotation2d rotateBy(double other_cos, double other_sin) {
+        return set(cos_angle_ * other_cos - sin_angle_ * other_sin, cos_angle_ * other_sin + sin_angle_ * other_cos,
+                true);
+    }
+
+    public MutableRotation2d rotateBy(final Rotation2d other) {
+        return rotateBy(other.cos(), other.sin());
+    }
+
+    public MutableRotation2d rotateBy(final MutableRotation2d other) {
+        return rotateBy(other.cos_angle_, other.sin_angle_);
+    }
+
+    /**
+     * Same as Rotation2d.distance(other).
+     */
+    public double distance(final Rotation2d other) {
+        final double inverse_sin = -sin_angle_;
+        final double cos = cos_angle_ * other.cos() - inverse_sin * other.sin();
+        final double sin = cos_angle_ * other.sin() + inverse_sin * other.cos();
+        final double magnitude = Math.hypot(cos, sin);
+        if (magnitude > kEpsilon) {
+            return Math.atan2(sin / magnitude, cos / magnitude);
+        }
+        return 0.0;
+    }
+
+    /**
+     * this = this.inverse()
+     */
+    public MutableRotation2d inverse() {
+        sin_angle_ = -sin_angle_;
+        radians_ = Double.NaN;
+        return this;
+    }
+
+    public Rotation2d toRotation2d() {
+        return new Rotation2d(cos_angle_, sin_angle_, false);
+    }
+
+    @Override
+    public String toString() {
+        return toRotation2d().toString();
+    }
+}
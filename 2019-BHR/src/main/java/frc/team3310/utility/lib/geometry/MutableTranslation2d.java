@@ -0,0 +1,94 @@
+package frc.team3310.utility.lib.geometry;
+
+/**
+ * A Translation2d that is updated in place. Every operation gives bit-for-bit the same result as the Translation2d
+ * operation of the same name.
+ * <p>
+ * Not thread safe; share a toTranslation2d() copy instead.
+ */
+public class MutableTranslation2d {
+    protected double x_;
+    protected double y_;
+
+    public MutableTranslation2d() {
+    }
+
+    public MutableTranslation2d(final Translation2d other) {
+        set(other);
+    }
+
+    public MutableTranslation2d set(double x, double y) {
+        x_ = x;
+        y_ = y;
+        return this;
+    }
+
+    public MutableTranslation2d set(final Translation2d other) {
+        return set(other.x(), other.y());
+    }
+
+    public MutableTranslation2d set(final MutableTranslation2d other) {
+        return set(other.x_, other.y_);
+    }
+
+    public double x() {
+        return x_;
+    }
+
+    public double y() {
+        return y_;
+    }
+
+    public double norm() {
+        return Math.hypot(x_, y_);
+    }
+
+    /**
+     * this = this.translateBy(other)
+     */
+    public MutableTranslation2d translateBy(double x, double y) {
+        return set(x_ + x, y_ + y);
+    }
+
+    public MutableTranslation2d translateBy(final Translation2d other) {
+        return translateBy(other.x(), other.y());
+    }
+
+    /**
+     * this = this.rotateBy(rotation)
+     */
+    public MutableTranslation2d rotateBy(double cos, double sin) {
+        return set(x_ * cos - y_ * sin, x_ * sin + y_ * cos);
+    }
+
+    public MutableTranslation2d rotateBy(final Rotation2d rotation) {
+        return rotateBy(rotation.cos(), rotation.sin());
+    }
+
+    public MutableTranslation2d rotateBy(final MutableRotation2d rotation) {
+        return rotateBy(rotation.cos(), rotation.sin());
+    }
+
+    /**
+     * this = this.inverse()
+     */
+    public MutableTranslation2d inverse() {
+        return set(-x_, -y_);
+    }
+
+    /**
+     * this = this.scale(s)
+     */
+    public MutableTranslation2d scale(double s) {
+        return set(x_ * s, y_ * s);
+    }
+
+    public Translation2d toTranslation2d() {
+        return new Translation2d(x_, y_);
+    }
+
+    @Override
+    public String toString() {
+        return toTranslation2d().toString();
+    }
+}
@@ -0,0 +1,49 @@
+package frc.team3310.utility.lib.geometry;
+
+/**
+ * A Twist2d that is updated in place.
+ * <p>
+ * Not thread safe; share a toTwist2d() copy instead.
+ */
+public class MutableTwist2d {
+    public double dx;
+    public double dy;
+    public double dtheta; // Radians!
+
+    public MutableTwist2d() {
+    }
+
+    public MutableTwist2d set(double dx, double dy, double dtheta) {
+        this.dx = dx;
+        this.dy = dy;
+        this.dtheta = dtheta;
+        return this;
+    }
+
+    public MutableTwist2d set(final Twist2d other) {
+        return set(other.dx, other.dy, other.dtheta);
+    }
+
+    /**
+     * this = this.scaled(scale)
+     */
+    public MutableTwist2d scale(double scale) {
+        return set(dx * scale, dy * scale, dtheta * scale);
+    }
+
+    public double norm() {
+        // Common case of dy == 0
+        if (dy == 0.0)
+            return Math.abs(dx);
+        return Math.hypot(dx, dy);
+    }
+
+    public Twist2d toTwist2d() {
+        return new Twist2d(dx, dy, dtheta);
+    }
+
+    @Override
+    public String toString() {
+        return toTwist2d().toString();
+    }
+}
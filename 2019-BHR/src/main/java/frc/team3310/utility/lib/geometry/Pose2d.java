@@ -78,9 +78,11 @@ public class Pose2d implements IPose2d<Pose2d> {
         } else {
             halftheta_by_tan_of_halfdtheta = -(half_dtheta * transform.getRotation().sin()) / cos_minus_one;
         }
-        final Translation2d translation_part = transform.getTranslation()
-                .rotateBy(new Rotation2d(halftheta_by_tan_of_halfdtheta, -half_dtheta, false));
-        return new Twist2d(translation_part.x(), translation_part.y(), dtheta);
+        // Translation rotated by (halftheta_by_tan_of_halfdtheta, -half_dtheta).
+        final double x = transform.getTranslation().x();
+        final double y = transform.getTranslation().y();
+        return new Twist2d(x * halftheta_by_tan_of_halfdtheta - y * -half_dtheta,
+                x * -half_dtheta + y * halftheta_by_tan_of_halfdtheta, dtheta);
     }
 
     @Override
@@ -102,8 +104,12 @@ public class Pose2d implements IPose2d<Pose2d> {
      */
     @Override
     public Pose2d transformBy(final Pose2d other) {
-        return new Pose2d(translation_.translateBy(other.translation_.rotateBy(rotation_)),
-                rotation_.rotateBy(other.rotation_));
+        final double cos = rotation_.cos();
+        final double sin = rotation_.sin();
+        final double x = other.translation_.x();
+        final double y = other.translation_.y();
+        return new Pose2d(new Translation2d(translation_.x() + (x * cos - y * sin),
+                translation_.y() + (x * sin + y * cos)), rotation_.rotateBy(other.rotation_));
     }
 
     /**
@@ -112,8 +118,11 @@ public class Pose2d implements IPose2d<Pose2d> {
      * @return The opposite of this transform.
      */
     public Pose2d inverse() {
-        Rotation2d rotation_inverted = rotation_.inverse();
-        return new Pose2d(translation_.inverse().rotateBy(rotation_inverted), rotation_inverted);
+        final double cos = rotation_.cos();
+        final double sin = -rotation_.sin();
+        final double x = -translation_.x();
+        final double y = -translation_.y();
+        return new Pose2d(new Translation2d(x * cos - y * sin, x * sin + y * cos), new Rotation2d(cos, sin, false));
     }
 
     public Pose2d normal() {
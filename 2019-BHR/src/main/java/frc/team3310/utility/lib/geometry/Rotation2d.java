@@ -21,6 +21,10 @@ public class Rotation2d implements IRotation2d<Rotation2d> {
     protected final double cos_angle_;
     protected final double sin_angle_;
 
+    // getRadians(), computed on first use. Stored as the complement of its bits so that the default of 0 means "not
+    // computed yet", and volatile so the 64 bit write cannot tear on a 32 bit JVM (e.g. the roboRIO).
+    private transient volatile long radians_bits_;
+
     public Rotation2d() {
         this(1, 0, false);
     }
@@ -80,7 +84,12 @@ public class Rotation2d implements IRotation2d<Rotation2d> {
     }
 
     public double getRadians() {
-        return Math.atan2(sin_angle_, cos_angle_);
+        long bits = radians_bits_;
+        if (bits == 0L) {
+            bits = ~Double.doubleToRawLongBits(Math.atan2(sin_angle_, cos_angle_));
+            radians_bits_ = bits;
+        }
+        return Double.longBitsToDouble(~bits);
     }
 
     public double getDegrees() {
@@ -126,7 +135,7 @@ public class Rotation2d implements IRotation2d<Rotation2d> {
         } else if (x >= 1) {
             return new Rotation2d(other);
         }
-        double angle_diff = inverse().rotateBy(other).getRadians();
+        double angle_diff = distance(other);
         return this.rotateBy(Rotation2d.fromRadians(angle_diff * x));
     }
 
@@ -149,7 +158,15 @@ public class Rotation2d implements IRotation2d<Rotation2d> {
 
     @Override
     public double distance(final Rotation2d other) {
-        return inverse().rotateBy(other).getRadians();
+        // Same as inverse().rotateBy(other).getRadians(), without the intermediate rotations.
+        final double inverse_sin = -sin_angle_;
+        final double cos = cos_angle_ * other.cos_angle_ - inverse_sin * other.sin_angle_;
+        final double sin = cos_angle_ * other.sin_angle_ + inverse_sin * other.cos_angle_;
+        final double magnitude = Math.hypot(cos, sin);
+        if (magnitude > kEpsilon) {
+            return Math.atan2(sin / magnitude, cos / magnitude);
+        }
+        return 0.0;
     }
 
     @Override
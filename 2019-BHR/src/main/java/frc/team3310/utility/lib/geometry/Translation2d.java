@@ -148,7 +148,7 @@ public class Translation2d implements ITranslation2d<Translation2d> {
 
     @Override
     public double distance(final Translation2d other) {
-        return inverse().translateBy(other).norm();
+        return Math.hypot(-x_ + other.x_, -y_ + other.y_);
     }
 
     @Override
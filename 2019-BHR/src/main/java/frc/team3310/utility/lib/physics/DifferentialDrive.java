@@ -65,6 +65,10 @@ public class DifferentialDrive {
         return moi_;
     }
 
+    public double angular_drag() {
+        return angular_drag_;
+    }
+
     public double wheel_radius() {
         return wheel_radius_;
     }
@@ -84,20 +88,31 @@ public class DifferentialDrive {
     // Input/demand could be either velocity or acceleration...the math is the same.
     public ChassisState solveForwardKinematics(final WheelState wheel_motion) {
         ChassisState chassis_motion = new ChassisState();
-        chassis_motion.linear = wheel_radius_ * (wheel_motion.right + wheel_motion.left) / 2.0;
-        chassis_motion.angular = wheel_radius_ * (wheel_motion.right - wheel_motion.left) / (2.0 *
-                effective_wheelbase_radius_);
+        solveForwardKinematics(wheel_motion, chassis_motion);
         return chassis_motion;
     }
 
+    // Same as above, written into chassis_motion.
+    public void solveForwardKinematics(final WheelState wheel_motion, ChassisState chassis_motion) {
+        final double left = wheel_motion.left;
+        final double right = wheel_motion.right;
+        chassis_motion.linear = wheel_radius_ * (right + left) / 2.0;
+        chassis_motion.angular = wheel_radius_ * (right - left) / (2.0 * effective_wheelbase_radius_);
+    }
+
     // Input/output could be either velocity or acceleration...the math is the same.
     public WheelState solveInverseKinematics(final ChassisState chassis_motion) {
         WheelState wheel_motion = new WheelState();
+        solveInverseKinematics(chassis_motion, wheel_motion);
+        return wheel_motion;
+    }
+
+    // Same as above, written into wheel_motion.
+    public void solveInverseKinematics(final ChassisState chassis_motion, WheelState wheel_motion) {
         wheel_motion.left = (chassis_motion.linear - effective_wheelbase_radius_ * chassis_motion.angular) /
                 wheel_radius_;
         wheel_motion.right = (chassis_motion.linear + effective_wheelbase_radius_ * chassis_motion.angular) /
                 wheel_radius_;
-        return wheel_motion;
     }
 
     // Solve for torques and accelerations.
@@ -196,6 +211,28 @@ public class DifferentialDrive {
         return dynamics;
     }
 
+    // Same as solveInverseDynamics(ChassisState, ChassisState), written into the existing fields of dynamics instead of
+    // a new DriveDynamics. The inputs are copied, so they may be dynamics' own chassis states.
+    public void solveInverseDynamics(final ChassisState chassis_velocity, final ChassisState chassis_acceleration,
+                                     DriveDynamics dynamics) {
+        final double linear_velocity = chassis_velocity.linear;
+        final double angular_velocity = chassis_velocity.angular;
+        final double linear_acceleration = chassis_acceleration.linear;
+        final double angular_acceleration = chassis_acceleration.angular;
+        dynamics.chassis_velocity.linear = linear_velocity;
+        dynamics.chassis_velocity.angular = angular_velocity;
+        dynamics.chassis_acceleration.linear = linear_acceleration;
+        dynamics.chassis_acceleration.angular = angular_acceleration;
+        dynamics.curvature = angular_velocity / linear_velocity;
+        if (Double.isNaN(dynamics.curvature)) dynamics.curvature = 0.0;
+        dynamics.dcurvature = (angular_acceleration - linear_acceleration * dynamics.curvature) /
+                (linear_velocity * linear_velocity);
+        if (Double.isNaN(dynamics.dcurvature)) dynamics.dcurvature = 0.0;
+        solveInverseKinematics(dynamics.chassis_velocity, dynamics.wheel_velocity);
+        solveInverseKinematics(dynamics.chassis_acceleration, dynamics.wheel_acceleration);
+        solveInverseDynamics(dynamics);
+    }
+
     // Assumptions about dynamics: velocities and accelerations provided, curvature and dcurvature computed.
     public void solveInverseDynamics(DriveDynamics dynamics) {
         // Determine the necessary torques on the left and right wheels to produce the desired wheel accelerations.
@@ -0,0 +1,237 @@
+package frc.team3310.utility.lib.physics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed velocity and acceleration limits of a DifferentialDrive at a fixed voltage limit, so that time
+ * parameterization does not have to solve the dynamics at every sample of every pass.
+ * <p>
+ * Curvature is sampled uniformly in u = c / (1 + |c|), where c is curvature times the effective wheelbase radius. This
+ * covers every finite curvature with the resolution concentrated where the limits change fastest, and unlike atan it
+ * costs only a division per query. Velocity is sampled
+ * uniformly between plus and minus the free speed. Queries are answered by linear (max velocity) and bilinear
+ * (acceleration) interpolation.
+ * <p>
+ * When the table is built every cell is checked at its center against the exact solver. Cells that differ by more than
+ * kMaxAccelerationError (e.g. across the jump in friction where a wheel stops), or that touch a state with no valid
+ * acceleration, are flagged and queries in them go to the exact solver, as do queries outside the grid.
+ */
+public class DifferentialDriveDynamicsTable {
+    private static final int kNumCurvatures = 257;
+    private static final int kNumVelocities = 129;
+    private static final double kMaxAccelerationError = 0.02; // m/s^2
+    private static final int kMaxCachedTables = 4;
+
+    // Most recently used first.
+    private static final List<DifferentialDriveDynamicsTable> kCache = new ArrayList<>();
+
+    protected final DifferentialDrive drive_;
+    protected final double abs_voltage_limit_;
+
+    protected final double min_u_;
+    protected final double du_;
+    protected final double max_velocity_;
+    protected final double dv_;
+
+    // Indexed by curvature.
+    protected final double[] max_abs_velocity_;
+    // Indexed by curvature * kNumVelocities + velocity.
+    protected final double[] min_acceleration_;
+    protected final double[] max_acceleration_;
+    // Indexed by cell, i.e. lower corner curvature * (kNumVelocities - 1) + lower corner velocity.
+    protected final boolean[] use_exact_;
+
+    protected double max_velocity_error_ = 0.0;
+    protected double max_acceleration_error_ = 0.0;
+
+    /**
+     * Returns a table for a drive with the same parameters as drive at abs_voltage_limit, building it on first use.
+     * Tables are matched by the model's parameters rather than its identity, so planners that each construct their
+     * own model of the same robot share one table. Only the kMaxCachedTables most recently used tables are kept.
+     */
+    public static synchronized DifferentialDriveDynamicsTable get(final DifferentialDrive drive,
+                                                                  double abs_voltage_limit) {
+        for (int i = 0; i < kCache.size(); ++i) {
+            final DifferentialDriveDynamicsTable table = kCache.get(i);
+            if (table.abs_voltage_limit_ == abs_voltage_limit && sameParameters(table.drive_, drive)) {
+                if (i != 0) {
+                    kCache.remove(i);
+                    kCache.add(0, table);
+                }
+                return table;
+            }
+        }
+        DifferentialDriveDynamicsTable table = new DifferentialDriveDynamicsTable(drive, abs_voltage_limit);
+        kCache.add(0, table);
+        if (kCache.size() > kMaxCachedTables) {
+            kCache.remove(kCache.size() - 1);
+        }
+        return table;
+    }
+
+    private static boolean sameParameters(final DifferentialDrive a, final DifferentialDrive b) {
+        return a == b || (a.mass() == b.mass() && a.moi() == b.moi() && a.angular_drag() == b.angular_drag()
+                && a.wheel_radius() == b.wheel_radius()
+                && a.effective_wheelbase_radius() == b.effective_wheelbase_radius()
+                && sameParameters(a.left_transmission(), b.left_transmission())
+                && sameParameters(a.right_transmission(), b.right_transmission()));
+    }
+
+    private static boolean sameParameters(final DCMotorTransmission a, final DCMotorTransmission b) {
+        return a == b || (a.speed_per_volt() == b.speed_per_volt() && a.torque_per_volt() == b.torque_per_volt()
+                && a.friction_voltage() == b.friction_voltage());
+    }
+
+    public DifferentialDriveDynamicsTable(final DifferentialDrive drive, double abs_voltage_limit) {
+        drive_ = drive;
+        abs_voltage_limit_ = abs_voltage_limit;
+
+        // Cell-centered in (-1, 1), so neither zero nor infinite curvature is a node.
+        du_ = 2.0 / kNumCurvatures;
+        min_u_ = -1.0 + 0.5 * du_;
+        max_velocity_ = drive.wheel_radius() * Math.max(
+                drive.left_transmission().free_speed_at_voltage(abs_voltage_limit),
+                drive.right_transmission().free_speed_at_voltage(abs_voltage_limit));
+        dv_ = 2.0 * max_velocity_ / (kNumVelocities - 1);
+
+        max_abs_velocity_ = new double[kNumCurvatures];
+        min_acceleration_ = new double[kNumCurvatures * kNumVelocities];
+        max_acceleration_ = new double[kNumCurvatures * kNumVelocities];
+        use_exact_ = new boolean[(kNumCurvatures - 1) * (kNumVelocities - 1)];
+
+        final DifferentialDrive.MinMax result = new DifferentialDrive.MinMax();
+        for (int i = 0; i < kNumCurvatures; ++i) {
+            final double curvature = curvatureAt(min_u_ + i * du_);
+            max_abs_velocity_[i] = drive.getMaxAbsVelocity(curvature, abs_voltage_limit);
+            for (int j = 0; j < kNumVelocities; ++j) {
+                solve(-max_velocity_ + j * dv_, curvature, result);
+                min_acceleration_[i * kNumVelocities + j] = result.min;
+                max_acceleration_[i * kNumVelocities + j] = result.max;
+            }
+        }
+
+        for (int i = 0; i < kNumCurvatures - 1; ++i) {
+            final double curvature = curvatureAt(min_u_ + (i + 0.5) * du_);
+            max_velocity_error_ = Math.max(max_velocity_error_, Math.abs(
+                    0.5 * (max_abs_velocity_[i] + max_abs_velocity_[i + 1])
+                            - drive.getMaxAbsVelocity(curvature, abs_voltage_limit)));
+            for (int j = 0; j < kNumVelocities - 1; ++j) {
+                final int cell = i * (kNumVelocities - 1) + j;
+                final int corner = i * kNumVelocities + j;
+                if (!isValid(corner) || !isValid(corner + 1) || !isValid(corner + kNumVelocities)
+                        || !isValid(corner + kNumVelocities + 1)) {
+                    use_exact_[cell] = true;
+                    continue;
+                }
+                solve(-max_velocity_ + (j + 0.5) * dv_, curvature, result);
+                final double min_error = Math.abs(result.min - 0.25 * (min_acceleration_[corner]
+                        + min_acceleration_[corner + 1] + min_acceleration_[corner + kNumVelocities]
+                        + min_acceleration_[corner + kNumVelocities + 1]));
+                final double max_error = Math.abs(result.max - 0.25 * (max_acceleration_[corner]
+                        + max_acceleration_[corner + 1] + max_acceleration_[corner + kNumVelocities]
+                        + max_acceleration_[corner + kNumVelocities + 1]));
+                // NaN errors (center has no valid acceleration) fail this test too.
+                if (!(Math.max(min_error, max_error) <= kMaxAccelerationError)) {
+                    use_exact_[cell] = true;
+                } else {
+                    max_acceleration_error_ = Math.max(max_acceleration_error_, Math.max(min_error, max_error));
+                }
+            }
+        }
+    }
+
+    public DifferentialDrive drive() {
+        return drive_;
+    }
+
+    public double abs_voltage_limit() {
+        return abs_voltage_limit_;
+    }
+
+    /**
+     * Largest difference from DifferentialDrive.getMaxAbsVelocity seen between nodes while building the table, in m/s.
+     */
+    public double max_velocity_error() {
+        return max_velocity_error_;
+    }
+
+    /**
+     * Largest difference from DifferentialDrive.getMinMaxAcceleration seen between nodes of cells that are
+     * interpolated, in m/s^2. Never more than kMaxAccelerationError.
+     */
+    public double max_acceleration_error() {
+        return max_acceleration_error_;
+    }
+
+    /**
+     * Same as DifferentialDrive.getMaxAbsVelocity, for finite curvature.
+     *
+     * @param curvature in 1/m
+     * @return max velocity in m/s
+     */
+    public double getMaxAbsVelocity(double curvature) {
+        final double x = (toU(curvature) - min_u_) / du_;
+        if (!(x >= 0.0 && x <= kNumCurvatures - 1)) {
+            return drive_.getMaxAbsVelocity(curvature, abs_voltage_limit_);
+        }
+        final int i = Math.min((int) x, kNumCurvatures - 2);
+        final double fraction = x - i;
+        return max_abs_velocity_[i] + fraction * (max_abs_velocity_[i + 1] - max_abs_velocity_[i]);
+    }
+
+    /**
+     * Same as DifferentialDrive.getMinMaxAcceleration for a chassis moving at linear_velocity along curvature, written
+     * into result instead of a new MinMax.
+     *
+     * @param linear_velocity in m/s
+     * @param curvature       in 1/m
+     */
+    public void getMinMaxAcceleration(double linear_velocity, double curvature, DifferentialDrive.MinMax result) {
+        final double x = (toU(curvature) - min_u_) / du_;
+        final double y = (linear_velocity + max_velocity_) / dv_;
+        if (!(x >= 0.0 && x <= kNumCurvatures - 1 && y >= 0.0 && y <= kNumVelocities - 1)) {
+            solve(linear_velocity, curvature, result);
+            return;
+        }
+        final int i = Math.min((int) x, kNumCurvatures - 2);
+        final int j = Math.min((int) y, kNumVelocities - 2);
+        if (use_exact_[i * (kNumVelocities - 1) + j]) {
+            solve(linear_velocity, curvature, result);
+            return;
+        }
+        final double fx = x - i;
+        final double fy = y - j;
+        final int corner = i * kNumVelocities + j;
+        result.min = interpolate(min_acceleration_, corner, fx, fy);
+        result.max = interpolate(max_acceleration_, corner, fx, fy);
+    }
+
+    private static double interpolate(double[] values, int corner, double fx, double fy) {
+        final double low = values[corner] + fy * (values[corner + 1] - values[corner]);
+        final double high = values[corner + kNumVelocities] + fy * (values[corner + kNumVelocities + 1]
+                - values[corner + kNumVelocities]);
+        return low + fx * (high - low);
+    }
+
+    private boolean isValid(int index) {
+        return min_acceleration_[index] <= max_acceleration_[index];
+    }
+
+    private double toU(double curvature) {
+        final double c = curvature * drive_.effective_wheelbase_radius();
+        return c / (1.0 + Math.abs(c));
+    }
+
+    private double curvatureAt(double u) {
+        return u / (1.0 - Math.abs(u)) / drive_.effective_wheelbase_radius();
+    }
+
+    private void solve(double linear_velocity, double curvature, DifferentialDrive.MinMax result) {
+        final DifferentialDrive.MinMax exact = drive_.getMinMaxAcceleration(
+                new DifferentialDrive.ChassisState(linear_velocity, curvature * linear_velocity), curvature,
+                abs_voltage_limit_);
+        result.min = exact.min;
+        result.max = exact.max;
+    }
+}
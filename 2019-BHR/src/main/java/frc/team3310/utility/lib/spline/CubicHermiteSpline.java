@@ -38,6 +38,26 @@ public class CubicHermiteSpline extends Spline {
         return new Translation2d(x, y);
     }
 
+    @Override
+    public double getX(double t) {
+        return t * t * t * ax + t * t * bx + t * cx + dx;
+    }
+
+    @Override
+    public double getY(double t) {
+        return t * t * t * ay + t * t * by + t * cy + dy;
+    }
+
+    @Override
+    public double getDX(double t) {
+        return 3 * t * t * ax + 2 * t * bx + cx;
+    }
+
+    @Override
+    public double getDY(double t) {
+        return 3 * t * t * ay + 2 * t * by + cy;
+    }
+
     @Override
     public Rotation2d getHeading(double t) {
         final double dx = 3 * t * t * ax + 2 * t * bx + cx;
@@ -1,5 +1,6 @@
 package frc.team3310.utility.lib.spline;
 
+import java.util.Arrays;
 import java.util.List;
 
 import frc.team3310.utility.lib.geometry.Pose2d;
@@ -13,6 +14,25 @@ public class QuinticHermiteSpline extends Spline {
     private static final int kSamples = 100;
     private static final int kMaxIterations = 100;
 
+    // Composite 5-point Gauss-Legendre quadrature over [0, 1], used by the analytic optimizer.
+    private static final int kQuadratureSegments = 8;
+    private static final double[] kGaussLegendreNodes = {-0.9061798459386640, -0.5384693101056831, 0.0,
+            0.5384693101056831, 0.9061798459386640};
+    private static final double[] kGaussLegendreWeights = {0.2369268850561891, 0.4786286704993665,
+            0.5688888888888889, 0.4786286704993665, 0.2369268850561891};
+    private static final double[] kQuadratureT = new double[kQuadratureSegments * kGaussLegendreNodes.length];
+    private static final double[] kQuadratureW = new double[kQuadratureT.length];
+
+    static {
+        final double h = 1.0 / kQuadratureSegments;
+        for (int seg = 0; seg < kQuadratureSegments; ++seg) {
+            for (int k = 0; k < kGaussLegendreNodes.length; ++k) {
+                kQuadratureT[seg * kGaussLegendreNodes.length + k] = h * (seg + 0.5 * (kGaussLegendreNodes[k] + 1.0));
+                kQuadratureW[seg * kGaussLegendreNodes.length + k] = 0.5 * h * kGaussLegendreWeights[k];
+            }
+        }
+    }
+
     private double x0, x1, dx0, dx1, ddx0, ddx1, y0, y1, dy0, dy1, ddy0, ddy1;
     private double ax, bx, cx, dx, ex, fx, ay, by, cy, dy, ey, fy;
 
@@ -104,6 +124,26 @@ public class QuinticHermiteSpline extends Spline {
         return new Translation2d(x, y);
     }
 
+    @Override
+    public double getX(double t) {
+        return ax * t * t * t * t * t + bx * t * t * t * t + cx * t * t * t + dx * t * t + ex * t + fx;
+    }
+
+    @Override
+    public double getY(double t) {
+        return ay * t * t * t * t * t + by * t * t * t * t + cy * t * t * t + dy * t * t + ey * t + fy;
+    }
+
+    @Override
+    public double getDX(double t) {
+        return dx(t);
+    }
+
+    @Override
+    public double getDY(double t) {
+        return dy(t);
+    }
+
     private double dx(double t) {
         return 5 * ax * t * t * t * t + 4 * bx * t * t * t + 3 * cx * t * t + 2 * dx * t + ex;
     }
@@ -180,6 +220,89 @@ public class QuinticHermiteSpline extends Spline {
         return sum;
     }
 
+    /**
+     * @return integral of dCurvature^2 over the length of the spline, by Gauss-Legendre quadrature
+     */
+    private double integrateDCurvature2() {
+        double sum = 0;
+        for (int k = 0; k < kQuadratureT.length; ++k) {
+            sum += kQuadratureW[k] * dCurvature2(kQuadratureT[k]);
+        }
+        return sum;
+    }
+
+    private static double integrateDCurvature2(List<QuinticHermiteSpline> splines) {
+        double sum = 0;
+        for (QuinticHermiteSpline s : splines) {
+            sum += s.integrateDCurvature2();
+        }
+        return sum;
+    }
+
+    /**
+     * Computes the partial derivatives of integrateDCurvature2() with respect to this spline's second derivatives, in
+     * closed form.
+     *
+     * @param gradient filled with d/d(ddx0), d/d(ddy0), d/d(ddx1), d/d(ddy1)
+     */
+    private void integrateDCurvature2Gradient(double[] gradient) {
+        double g_ddx0 = 0, g_ddy0 = 0, g_ddx1 = 0, g_ddy1 = 0;
+        for (int k = 0; k < kQuadratureT.length; ++k) {
+            final double t = kQuadratureT[k];
+            final double t2 = t * t;
+            final double t3 = t2 * t;
+            final double t4 = t3 * t;
+            final double xp = dx(t), xpp = ddx(t), xppp = dddx(t);
+            final double yp = dy(t), ypp = ddy(t), yppp = dddy(t);
+
+            final double d = xp * xp + yp * yp;
+            final double c = xp * ypp - xpp * yp;
+            final double s = xp * xpp + yp * ypp;
+            final double j = xp * yppp - xppp * yp;
+            final double n = j * d - 3 * c * s;
+            final double w = kQuadratureW[k] / (d * d * d * d * d * d);
+
+            // First, second and third derivatives of the Hermite basis functions for ddx0/ddy0 and ddx1/ddy1.
+            final double a1 = -2.5 * t4 + 6 * t3 - 4.5 * t2 + t;
+            final double a2 = -10 * t3 + 18 * t2 - 9 * t + 1;
+            final double a3 = -30 * t2 + 36 * t - 9;
+            final double b1 = 2.5 * t4 - 4 * t3 + 1.5 * t2;
+            final double b2 = 10 * t3 - 12 * t2 + 3 * t;
+            final double b3 = 30 * t2 - 24 * t + 3;
+
+            g_ddx0 += w * dCurvature2PartialX(n, d, c, s, j, xp, xpp, yp, ypp, yppp, a1, a2, a3);
+            g_ddy0 += w * dCurvature2PartialY(n, d, c, s, j, xp, xpp, xppp, yp, ypp, a1, a2, a3);
+            g_ddx1 += w * dCurvature2PartialX(n, d, c, s, j, xp, xpp, yp, ypp, yppp, b1, b2, b3);
+            g_ddy1 += w * dCurvature2PartialY(n, d, c, s, j, xp, xpp, xppp, yp, ypp, b1, b2, b3);
+        }
+        gradient[0] = g_ddx0;
+        gradient[1] = g_ddy0;
+        gradient[2] = g_ddx1;
+        gradient[3] = g_ddy1;
+    }
+
+    /**
+     * d(n^2 / d^5)/dp * d^6 for a parameter p that adds h(t) to x(t), where h', h'', h''' = h1, h2, h3
+     */
+    private static double dCurvature2PartialX(double n, double d, double c, double s, double j, double xp,
+                                              double xpp, double yp, double ypp, double yppp,
+                                              double h1, double h2, double h3) {
+        final double dp = 2 * xp * h1;
+        final double np = (h1 * yppp - h3 * yp) * d + j * dp - 3 * ((h1 * ypp - h2 * yp) * s + c * (h1 * xpp + xp * h2));
+        return 2 * n * np * d - 5 * n * n * dp;
+    }
+
+    /**
+     * d(n^2 / d^5)/dp * d^6 for a parameter p that adds h(t) to y(t), where h', h'', h''' = h1, h2, h3
+     */
+    private static double dCurvature2PartialY(double n, double d, double c, double s, double j, double xp,
+                                              double xpp, double xppp, double yp, double ypp,
+                                              double h1, double h2, double h3) {
+        final double dp = 2 * yp * h1;
+        final double np = (xp * h3 - xppp * h1) * d + j * dp - 3 * ((xp * h2 - xpp * h1) * s + c * (yp * h2 + h1 * ypp));
+        return 2 * n * np * d - 5 * n * n * dp;
+    }
+
     /**
      * Makes optimization code a little more readable
      */
@@ -317,6 +440,102 @@ public class QuinticHermiteSpline extends Spline {
         }
     }
 
+    /**
+     * Same as optimizeSpline, but the gradient at each control point is computed in closed form from the two splines
+     * that share it, and the integral is evaluated with Gauss-Legendre quadrature instead of 100 uniform samples.
+     *
+     * @param splines the list of splines to optimize
+     * @return the final integral of dCurvature^2 (by quadrature)
+     */
+    public static double optimizeSplineAnalytic(List<QuinticHermiteSpline> splines) {
+        final int num_control_points = splines.size() - 1;
+        double prev = integrateDCurvature2(splines);
+        //can't optimize anything with less than 2 splines
+        if (num_control_points <= 0) {
+            return prev;
+        }
+
+        //don't try to optimize colinear points; the start and end headings never change during optimization
+        boolean[] skip = new boolean[num_control_points];
+        for (int i = 0; i < num_control_points; ++i) {
+            skip[i] = splines.get(i).getStartPose().isColinear(splines.get(i + 1).getStartPose())
+                    || splines.get(i).getEndPose().isColinear(splines.get(i + 1).getEndPose());
+        }
+        double[] gradient_ddx = new double[num_control_points];
+        double[] gradient_ddy = new double[num_control_points];
+        double[] spline_gradient = new double[4];
+
+        for (int count = 0; count < kMaxIterations; ++count) {
+            //each control point only touches the end of spline i and the start of spline i + 1
+            Arrays.fill(gradient_ddx, 0.0);
+            Arrays.fill(gradient_ddy, 0.0);
+            for (int i = 0; i < splines.size(); ++i) {
+                splines.get(i).integrateDCurvature2Gradient(spline_gradient);
+                if (i > 0) {
+                    gradient_ddx[i - 1] += spline_gradient[0];
+                    gradient_ddy[i - 1] += spline_gradient[1];
+                }
+                if (i < num_control_points) {
+                    gradient_ddx[i] += spline_gradient[2];
+                    gradient_ddy[i] += spline_gradient[3];
+                }
+            }
+            double magnitude = 0;
+            for (int i = 0; i < num_control_points; ++i) {
+                if (!skip[i]) {
+                    magnitude += gradient_ddx[i] * gradient_ddx[i] + gradient_ddy[i] * gradient_ddy[i];
+                }
+            }
+            magnitude = Math.sqrt(magnitude);
+            if (magnitude < kEpsilon) {
+                return prev;
+            }
+
+            //minimize along the direction of the gradient by fitting a parabola through -step, 0 and +step
+            final double scale = kStepSize / magnitude;
+            final double y2 = prev;
+            moveControlPoints(splines, skip, gradient_ddx, gradient_ddy, -scale);
+            final double y1 = integrateDCurvature2(splines);
+            moveControlPoints(splines, skip, gradient_ddx, gradient_ddy, 2 * scale);
+            final double y3 = integrateDCurvature2(splines);
+            double step = fitParabola(new Translation2d(-kStepSize, y1), new Translation2d(0, y2),
+                    new Translation2d(kStepSize, y3));
+            if (Double.isNaN(step) || Double.isInfinite(step) || y1 + y3 - 2 * y2 <= 0) {
+                //not convex along this direction; take the best of the three samples
+                step = y1 < y2 && y1 < y3 ? -kStepSize : (y3 < y2 ? kStepSize : 0);
+            }
+            //we are currently at +step size, so move to the vertex
+            moveControlPoints(splines, skip, gradient_ddx, gradient_ddy, scale * (step / kStepSize - 1));
+
+            double current = integrateDCurvature2(splines);
+            if (prev - current < kMinDelta) {
+                return current;
+            }
+            prev = current;
+        }
+        return prev;
+    }
+
+    /**
+     * Moves every non-skipped control point by scale * gradient.
+     */
+    private static void moveControlPoints(List<QuinticHermiteSpline> splines, boolean[] skip, double[] gradient_ddx,
+                                          double[] gradient_ddy, double scale) {
+        for (int i = 0; i < skip.length; ++i) {
+            if (skip[i]) {
+                continue;
+            }
+            QuinticHermiteSpline a = splines.get(i);
+            QuinticHermiteSpline b = splines.get(i + 1);
+            a.ddx1 += scale * gradient_ddx[i];
+            a.ddy1 += scale * gradient_ddy[i];
+            b.ddx0 += scale * gradient_ddx[i];
+            b.ddy0 += scale * gradient_ddy[i];
+            a.computeCoefficients();
+            b.computeCoefficients();
+        }
+    }
+
     /**
      * fits a parabola to 3 points
      *
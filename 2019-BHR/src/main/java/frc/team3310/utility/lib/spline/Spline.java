@@ -18,6 +18,24 @@ public abstract class Spline {
     // ds/dt
     public abstract double getVelocity(double t);
 
+    // Primitive accessors for callers that should not allocate per sample. Subclasses should override these.
+    public double getX(double t) {
+        return getPoint(t).x();
+    }
+
+    public double getY(double t) {
+        return getPoint(t).y();
+    }
+
+    // dx/dt and dy/dt, or any other vector pointing along the heading
+    public double getDX(double t) {
+        return getHeading(t).cos();
+    }
+
+    public double getDY(double t) {
+        return getHeading(t).sin();
+    }
+
     public Pose2d getPose2d(double t) {
         return new Pose2d(getPoint(t), getHeading(t));
     }
@@ -1,5 +1,6 @@
 package frc.team3310.utility.lib.spline;
 
+import frc.team3310.utility.Util;
 import frc.team3310.utility.lib.geometry.*;
 
 import java.util.ArrayList;
@@ -10,6 +11,10 @@ public class SplineGenerator {
     private static final double kMaxDY = 0.05; //inches
     private static final double kMaxDTheta = 0.1; //radians!
     private static final int kMinSampleSize = 1;
+    // Segments are never split more than this many times; a sample is emitted regardless once it is reached.
+    private static final int kMaxDepth = 32;
+    // Same cutoff as Pose2d.log.
+    private static final double kLogEps = 1E-9;
 
     /**
      * Converts a spline into a list of Twist2d's.
@@ -22,10 +27,10 @@ public class SplineGenerator {
     public static List<Pose2dWithCurvature> parameterizeSpline(Spline s, double maxDx, double maxDy, double
             maxDTheta, double t0, double t1) {
         List<Pose2dWithCurvature> rv = new ArrayList<>();
-        rv.add(s.getPose2dWithCurvature(0.0));
+        addSample(s, rv, 0.0);
         double dt = (t1 - t0);
         for (double t = 0; t < t1; t += dt / kMinSampleSize) {
-            getSegmentArc(s, rv, t, t + dt / kMinSampleSize, maxDx, maxDy, maxDTheta);
+            parameterizeSegment(s, rv, t, t + dt / kMinSampleSize, maxDx, maxDy, maxDTheta);
         }
         return rv;
     }
@@ -49,30 +54,138 @@ public class SplineGenerator {
                                                                 double maxDTheta) {
         List<Pose2dWithCurvature> rv = new ArrayList<>();
         if (splines.isEmpty()) return rv;
-        rv.add(splines.get(0).getPose2dWithCurvature(0.0));
+        addSample(splines.get(0), rv, 0.0);
         for (final Spline s : splines) {
-            List<Pose2dWithCurvature> samples = parameterizeSpline(s, maxDx, maxDy, maxDTheta);
-            samples.remove(0);
-            rv.addAll(samples);
+            parameterizeSegment(s, rv, 0.0, 1.0, maxDx, maxDy, maxDTheta);
         }
         return rv;
     }
 
-    private static void getSegmentArc(Spline s, List<Pose2dWithCurvature> rv, double t0, double t1, double maxDx,
-                                      double maxDy,
-                                      double maxDTheta) {
-        Translation2d p0 = s.getPoint(t0);
-        Translation2d p1 = s.getPoint(t1);
-        Rotation2d r0 = s.getHeading(t0);
-        Rotation2d r1 = s.getHeading(t1);
-        Pose2d transformation = new Pose2d(new Translation2d(p0, p1).rotateBy(r0.inverse()), r1.rotateBy(r0.inverse()));
-        Twist2d twist = Pose2d.log(transformation);
-        if (twist.dy > maxDy || twist.dx > maxDx || twist.dtheta > maxDTheta) {
-            getSegmentArc(s, rv, t0, (t0 + t1) / 2, maxDx, maxDy, maxDTheta);
-            getSegmentArc(s, rv, (t0 + t1) / 2, t1, maxDx, maxDy, maxDTheta);
-        } else {
-            rv.add(s.getPose2dWithCurvature(t1));
+    /**
+     * Appends samples of s over (t0, t1] to rv until every pair of consecutive samples is within maxDx, maxDy and
+     * maxDTheta of each other, splitting in half where it is not.
+     * <p>
+     * This is the depth-first bisection of the original recursive getSegmentArc, done with an explicit stack of right
+     * endpoints. The left endpoint of the segment on top of the stack is always the last sample emitted, so each t is
+     * evaluated once and only the emitted samples are allocated.
+     */
+    public static void parameterizeSegment(Spline s, List<Pose2dWithCurvature> rv, double t0, double t1,
+                                           double maxDx, double maxDy, double maxDTheta) {
+        final WorkStack stack = new WorkStack();
+        stack.set(0, s, t0);
+        double x0 = stack.x[0];
+        double y0 = stack.y[0];
+        double cos0 = stack.cos[0];
+        double sin0 = stack.sin[0];
+        double last_t = t0;
+
+        int top = 0;
+        stack.set(top, s, t1);
+        stack.depth[top] = 0;
+
+        while (top >= 0) {
+            final double x1 = stack.x[top];
+            final double y1 = stack.y[top];
+            final double cos1 = stack.cos[top];
+            final double sin1 = stack.sin[top];
+            final int depth = stack.depth[top];
+
+            // Pose2d.log of the segment expressed in the frame of its start.
+            final double dx = x1 - x0;
+            final double dy = y1 - y0;
+            final double local_x = cos0 * dx + sin0 * dy;
+            final double local_y = -sin0 * dx + cos0 * dy;
+            double rel_cos = cos1 * cos0 + sin1 * sin0;
+            double rel_sin = sin1 * cos0 - cos1 * sin0;
+            final double rel_magnitude = Math.hypot(rel_cos, rel_sin);
+            if (rel_magnitude > Util.kEpsilon) {
+                rel_cos /= rel_magnitude;
+                rel_sin /= rel_magnitude;
+            } else {
+                rel_cos = 1.0;
+                rel_sin = 0.0;
+            }
+            final double dtheta = Math.atan2(rel_sin, rel_cos);
+            final double half_dtheta = 0.5 * dtheta;
+            final double cos_minus_one = rel_cos - 1.0;
+            final double halftheta_by_tan_of_halfdtheta;
+            if (Math.abs(cos_minus_one) < kLogEps) {
+                halftheta_by_tan_of_halfdtheta = 1.0 - 1.0 / 12.0 * dtheta * dtheta;
+            } else {
+                halftheta_by_tan_of_halfdtheta = -(half_dtheta * rel_sin) / cos_minus_one;
+            }
+            final double twist_dx = local_x * halftheta_by_tan_of_halfdtheta + local_y * half_dtheta;
+            final double twist_dy = -local_x * half_dtheta + local_y * halftheta_by_tan_of_halfdtheta;
+
+            if ((twist_dy > maxDy || twist_dx > maxDx || dtheta > maxDTheta) && depth < kMaxDepth) {
+                // Leave the right half on the stack and look at the left half next.
+                final double t_mid = (last_t + stack.t[top]) / 2;
+                stack.depth[top] = depth + 1;
+                ++top;
+                stack.set(top, s, t_mid);
+                stack.depth[top] = depth + 1;
+            } else {
+                last_t = stack.t[top];
+                rv.add(sample(x1, y1, cos1, sin1, s.getCurvature(last_t),
+                        s.getDCurvature(last_t) / s.getVelocity(last_t)));
+                x0 = x1;
+                y0 = y1;
+                cos0 = cos1;
+                sin0 = sin1;
+                --top;
+            }
         }
     }
 
+    private static void addSample(Spline s, List<Pose2dWithCurvature> rv, double t) {
+        final WorkStack sample = new WorkStack(1);
+        sample.set(0, s, t);
+        rv.add(sample(sample.x[0], sample.y[0], sample.cos[0], sample.sin[0], s.getCurvature(t),
+                s.getDCurvature(t) / s.getVelocity(t)));
+    }
+
+    // Same as Spline.getPose2dWithCurvature at the t the arguments were evaluated at.
+    private static Pose2dWithCurvature sample(double x, double y, double cos, double sin, double curvature,
+                                              double dcurvature_ds) {
+        return new Pose2dWithCurvature(new Pose2d(new Translation2d(x, y), new Rotation2d(cos, sin, false)), curvature,
+                dcurvature_ds);
+    }
+
+    /**
+     * Right endpoints of the segments still to be parameterized, evaluated once when pushed.
+     */
+    private static class WorkStack {
+        final double[] t, x, y, cos, sin;
+        final int[] depth;
+
+        WorkStack() {
+            this(kMaxDepth + 1);
+        }
+
+        WorkStack(int size) {
+            t = new double[size];
+            x = new double[size];
+            y = new double[size];
+            cos = new double[size];
+            sin = new double[size];
+            depth = new int[size];
+        }
+
+        void set(int i, Spline s, double t_i) {
+            t[i] = t_i;
+            x[i] = s.getX(t_i);
+            y[i] = s.getY(t_i);
+            // Same normalization as new Rotation2d(dx, dy, true).
+            final double dx = s.getDX(t_i);
+            final double dy = s.getDY(t_i);
+            final double magnitude = Math.hypot(dx, dy);
+            if (magnitude > Util.kEpsilon) {
+                cos[i] = dx / magnitude;
+                sin[i] = dy / magnitude;
+            } else {
+                cos[i] = 1.0;
+                sin[i] = 0.0;
+            }
+        }
+    }
 }
@@ -6,6 +6,7 @@ import frc.team3310.utility.Util;
 public class DistanceView<S extends State<S>> implements TrajectoryView<S> {
     protected final Trajectory<S> trajectory_;
     protected final double[] distances_;
+    protected int cursor_ = 1;
 
     public DistanceView(final Trajectory<S> trajectory) {
         trajectory_ = trajectory;
@@ -22,19 +23,17 @@ public class DistanceView<S extends State<S>> implements TrajectoryView<S> {
             return new TrajectorySamplePoint<S>(trajectory_.getPoint(trajectory_.length() - 1));
         if (distance <= 0.0)
             return new TrajectorySamplePoint<S>(trajectory_.getPoint(0));
-        for (int i = 1; i < distances_.length; ++i) {
-            final TrajectoryPoint<S> s = trajectory_.getPoint(i);
-            if (distances_[i] >= distance) {
-                final TrajectoryPoint<S> prev_s = trajectory_.getPoint(i - 1);
-                if (Util.epsilonEquals(distances_[i], distances_[i - 1])) {
-                    return new TrajectorySamplePoint<S>(s);
-                } else {
-                    return new TrajectorySamplePoint<S>(prev_s.state().interpolate(s.state(),
-                            (distance - distances_[i - 1]) / (distances_[i] - distances_[i - 1])), i - 1, i);
-                }
-            }
+        // Resumes from the last sampled index when distance only moves forward, otherwise binary searches.
+        final int i = TrajectoryUtil.findCeilIndex(distances_, distance, cursor_);
+        cursor_ = i;
+        final TrajectoryPoint<S> s = trajectory_.getPoint(i);
+        final TrajectoryPoint<S> prev_s = trajectory_.getPoint(i - 1);
+        if (Util.epsilonEquals(distances_[i], distances_[i - 1])) {
+            return new TrajectorySamplePoint<S>(s);
+        } else {
+            return new TrajectorySamplePoint<S>(prev_s.state().interpolate(s.state(),
+                    (distance - distances_[i - 1]) / (distances_[i] - distances_[i - 1])), i - 1, i);
         }
-        throw new RuntimeException();
     }
 
     @Override
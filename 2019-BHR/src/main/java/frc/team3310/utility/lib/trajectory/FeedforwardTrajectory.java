@@ -0,0 +1,106 @@
+package frc.team3310.utility.lib.trajectory;
+
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.physics.DifferentialDrive;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * A packed timed trajectory that also stores the drive's inverse dynamics: wheel velocities (rad/s), wheel
+ * accelerations (rad/s^2) and feedforward voltages. These depend only on the trajectory, so they can be solved once
+ * when the trajectory is generated, and a follower only has to interpolate them.
+ *
+ * TimedState.interpolate holds the acceleration of the earlier sample for the whole segment up to the next one, so
+ * the feedforward jumps at every sample. Each sample therefore stores two solutions: at the start of its segment, and
+ * at the end of it (the next sample's state reached with this sample's acceleration). Interpolation is between the
+ * two. The feedforward starts out zero and is filled in with setFeedforward().
+ */
+public class FeedforwardTrajectory extends PackedTrajectory {
+    private static final int kLeftVelocity = 0;
+    private static final int kRightVelocity = 1;
+    private static final int kLeftAcceleration = 2;
+    private static final int kRightAcceleration = 3;
+    private static final int kLeftVoltage = 4;
+    private static final int kRightVoltage = 5;
+    private static final int kColumns = 6;
+
+    // kColumns values per sample.
+    protected final double[] start_;
+    protected final double[] end_;
+
+    public FeedforwardTrajectory(int length) {
+        super(length);
+        start_ = new double[length * kColumns];
+        end_ = new double[length * kColumns];
+    }
+
+    /**
+     * Packs an existing timed trajectory, with no feedforward yet.
+     */
+    public FeedforwardTrajectory(final Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        super(trajectory);
+        start_ = new double[trajectory.length() * kColumns];
+        end_ = new double[trajectory.length() * kColumns];
+    }
+
+    /**
+     * @param start the solution at the sample.
+     * @param end   the solution at the end of the segment after the sample. Same as start for the last sample.
+     */
+    public void setFeedforward(int index, final DifferentialDrive.DriveDynamics start,
+                               final DifferentialDrive.DriveDynamics end) {
+        set(start_, index, start);
+        set(end_, index, end);
+    }
+
+    /**
+     * @return a copy of this trajectory mirrored about the x-axis. Mirroring swaps the left and right wheels.
+     */
+    @Override
+    public FeedforwardTrajectory mirror() {
+        FeedforwardTrajectory mirrored = new FeedforwardTrajectory(length());
+        for (int i = 0; i < length(); ++i) {
+            mirrored.set(i, x_[i], -y_[i], cos_[i], -sin_[i], -curvature_[i], -dcurvature_ds_[i], t_[i],
+                    velocity_[i], acceleration_[i]);
+            for (int column = 0; column < kColumns; ++column) {
+                mirrored.start_[i * kColumns + column] = start_[i * kColumns + (column ^ 1)];
+                mirrored.end_[i * kColumns + column] = end_[i * kColumns + (column ^ 1)];
+            }
+        }
+        return mirrored;
+    }
+
+    /**
+     * Interpolates the feedforward at time t between two samples (as returned in a TrajectorySamplePoint) and writes
+     * it into the wheel_velocity, wheel_acceleration and voltage of result. Nothing else in result is touched.
+     *
+     * @param mirrored swap left and right, for a MirroredTimedTrajectory over this trajectory.
+     */
+    public void getFeedforward(int index_floor, int index_ceil, double t, boolean mirrored,
+                               DifferentialDrive.DriveDynamics result) {
+        final double dt = t_[index_ceil] - t_[index_floor];
+        final double x = (index_floor == index_ceil || !(dt > 0.0)) ? 0.0
+                : Math.max(0.0, Math.min(1.0, (t - t_[index_floor]) / dt));
+        final int swap = mirrored ? 1 : 0;
+        final int offset = index_floor * kColumns;
+        result.wheel_velocity.left = interpolate(offset + (kLeftVelocity ^ swap), x);
+        result.wheel_velocity.right = interpolate(offset + (kRightVelocity ^ swap), x);
+        result.wheel_acceleration.left = interpolate(offset + (kLeftAcceleration ^ swap), x);
+        result.wheel_acceleration.right = interpolate(offset + (kRightAcceleration ^ swap), x);
+        result.voltage.left = interpolate(offset + (kLeftVoltage ^ swap), x);
+        result.voltage.right = interpolate(offset + (kRightVoltage ^ swap), x);
+    }
+
+    private double interpolate(int index, double x) {
+        return start_[index] + (end_[index] - start_[index]) * x;
+    }
+
+    private static void set(double[] columns, int index, final DifferentialDrive.DriveDynamics dynamics) {
+        final int offset = index * kColumns;
+        columns[offset + kLeftVelocity] = dynamics.wheel_velocity.left;
+        columns[offset + kRightVelocity] = dynamics.wheel_velocity.right;
+        columns[offset + kLeftAcceleration] = dynamics.wheel_acceleration.left;
+        columns[offset + kRightAcceleration] = dynamics.wheel_acceleration.right;
+        columns[offset + kLeftVoltage] = dynamics.voltage.left;
+        columns[offset + kRightVoltage] = dynamics.voltage.right;
+    }
+}
@@ -0,0 +1,50 @@
+package frc.team3310.utility.lib.trajectory;
+
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+
+/**
+ * A path with every pose turned around by 180 degrees in place (and curvature negated), backed by the original path.
+ * Used to plan reversed paths: the spline is built through flipped waypoints and flipped back through this view, so
+ * the flip happens as states are read instead of in a second copy.
+ */
+public class FlippedTrajectory extends Trajectory<Pose2dWithCurvature> {
+    protected static final Pose2d kFlip = Pose2d.fromRotation(new Rotation2d(-1, 0, false));
+
+    protected final Trajectory<Pose2dWithCurvature> source_;
+
+    public FlippedTrajectory(final Trajectory<Pose2dWithCurvature> source) {
+        source_ = source;
+    }
+
+    public static Pose2d getFlip() {
+        return kFlip;
+    }
+
+    public Trajectory<Pose2dWithCurvature> getSource() {
+        return source_;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source_.isEmpty();
+    }
+
+    @Override
+    public int length() {
+        return source_.length();
+    }
+
+    @Override
+    public TrajectoryPoint<Pose2dWithCurvature> getPoint(final int index) {
+        return new TrajectoryPoint<>(getState(index), index);
+    }
+
+    @Override
+    public Pose2dWithCurvature getState(final int index) {
+        final Pose2dWithCurvature state = source_.getState(index);
+        return new Pose2dWithCurvature(state.getPose().transformBy(kFlip), -state.getCurvature(),
+                state.getDCurvatureDs());
+    }
+}
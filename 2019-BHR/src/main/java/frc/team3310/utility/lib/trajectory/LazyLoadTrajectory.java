@@ -9,8 +9,9 @@ public class LazyLoadTrajectory {
         Trajectory<TimedState<Pose2dWithCurvature>> activateFunction();
     }
 
-    private MirroredTrajectory trajectory;
+    private volatile MirroredTrajectory trajectory;
     private TrajectoryActivator trajectoryActivator;
+    private double generationTimeMs = 0.0;
 
     public LazyLoadTrajectory(TrajectoryActivator trajectoryActivate) {
          this.trajectoryActivator = trajectoryActivate;
@@ -20,9 +21,23 @@ public class LazyLoadTrajectory {
         return trajectory;
     }
 
-    public void activate() {
+    public boolean isActivated() {
+        return trajectory != null;
+    }
+
+    /**
+     * Wall time in milliseconds spent generating this trajectory and its mirror, or 0 if not yet activated.
+     */
+    public synchronized double getGenerationTimeMs() {
+        return generationTimeMs;
+    }
+
+    // Synchronized so a trajectory activated from several threads is only generated once.
+    public synchronized void activate() {
         if (trajectory == null) {
+            final long start = System.nanoTime();
             trajectory = new MirroredTrajectory(trajectoryActivator.activateFunction());
+            generationTimeMs = (System.nanoTime() - start) / 1.0e6;
         }
     }
 }
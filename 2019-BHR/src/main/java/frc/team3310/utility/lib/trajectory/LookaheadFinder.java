@@ -0,0 +1,97 @@
+package frc.team3310.utility.lib.trajectory;
+
+import frc.team3310.utility.lib.geometry.State;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * Finds the lookahead point for a path follower on a timed trajectory: the first time that is both a minimum time and
+ * a minimum distance along the path ahead of the current time.
+ *
+ * The distance along the path to every sample is computed once up front. Lookups keep a cursor from the previous
+ * call and search forward from it, so a follower whose time only moves forward does a bounded amount of work per
+ * update no matter how long the path or the lookahead is.
+ */
+public class LookaheadFinder<S extends State<S>> {
+    protected final double[] t_;
+    protected final double[] distance_;
+    protected final double[] velocity_;
+    protected final double[] acceleration_;
+    protected int time_cursor_ = 1;
+    protected int distance_cursor_ = 1;
+
+    public LookaheadFinder(final Trajectory<TimedState<S>> trajectory) {
+        final int length = trajectory.length();
+        t_ = new double[length];
+        distance_ = new double[length];
+        velocity_ = new double[length];
+        acceleration_ = new double[length];
+        TimedState<S> previous = null;
+        for (int i = 0; i < length; ++i) {
+            final TimedState<S> state = trajectory.getState(i);
+            t_[i] = state.t();
+            distance_[i] = previous == null ? 0.0 : distance_[i - 1] + previous.state().distance(state.state());
+            velocity_[i] = state.velocity();
+            acceleration_[i] = state.acceleration();
+            previous = state;
+        }
+    }
+
+    /**
+     * @return the distance along the path from the start to time t, interpolated like TimedState.interpolate.
+     */
+    public double getDistance(double t) {
+        final int last = t_.length - 1;
+        if (last < 0 || t <= t_[0]) {
+            return 0.0;
+        }
+        if (t >= t_[last]) {
+            return distance_[last];
+        }
+        final int i = TrajectoryUtil.findCeilIndex(t_, t, time_cursor_);
+        time_cursor_ = i;
+        // The earlier sample's velocity and acceleration hold until the next sample.
+        final double dt = t - t_[i - 1];
+        final double ds = Math.abs(velocity_[i - 1] * dt + 0.5 * acceleration_[i - 1] * dt * dt);
+        return Math.min(distance_[i - 1] + ds, distance_[i]);
+    }
+
+    /**
+     * @return the first time at least min_time after t at which the path is at least min_distance further along than
+     * at t, or the end of the trajectory if there is no such time.
+     */
+    public double getLookaheadTime(double t, double min_time, double min_distance) {
+        return getLookaheadTime(t, getDistance(t), min_time, min_distance);
+    }
+
+    /**
+     * Like getLookaheadTime(t, min_time, min_distance), for a caller that already has getDistance(t).
+     */
+    public double getLookaheadTime(double t, double distance_at_t, double min_time, double min_distance) {
+        final int last = t_.length - 1;
+        if (last < 0) {
+            return t;
+        }
+        final double time = Math.min(t + min_time, t_[last]);
+        final double distance = distance_at_t + min_distance;
+        if (getDistance(time) >= distance) {
+            return time;
+        }
+        if (distance >= distance_[last]) {
+            return t_[last];
+        }
+        final int i = TrajectoryUtil.findCeilIndex(distance_, distance, distance_cursor_);
+        distance_cursor_ = i;
+
+        // Solve |v| dt + a dt^2 / 2 = remaining for dt, with a signed along the direction of travel. Written so that
+        // it holds for a = 0 as well.
+        final double remaining = distance - distance_[i - 1];
+        final double velocity = velocity_[i - 1];
+        final double speed = Math.abs(velocity);
+        final boolean reversing = velocity < 0.0 || (velocity == 0.0 && acceleration_[i - 1] < 0.0);
+        final double acceleration = reversing ? -acceleration_[i - 1] : acceleration_[i - 1];
+        final double denominator = speed + Math.sqrt(Math.max(0.0, speed * speed + 2.0 * acceleration * remaining));
+        final double segment_dt = t_[i] - t_[i - 1];
+        final double dt = denominator > 0.0 ? Math.min(segment_dt, 2.0 * remaining / denominator) : segment_dt;
+        return Math.max(time, t_[i - 1] + dt);
+    }
+}
@@ -0,0 +1,42 @@
+package frc.team3310.utility.lib.trajectory;
+
+import frc.team3310.utility.lib.geometry.IPose2d;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * A timed trajectory mirrored about the x-axis, backed by the original trajectory. States are mirrored as they are
+ * read, so no second copy is stored. Equivalent to TrajectoryUtil.mirrorTimed().
+ */
+public class MirroredTimedTrajectory<S extends IPose2d<S>> extends Trajectory<TimedState<S>> {
+    protected final Trajectory<TimedState<S>> source_;
+
+    public MirroredTimedTrajectory(final Trajectory<TimedState<S>> source) {
+        source_ = source;
+    }
+
+    public Trajectory<TimedState<S>> getSource() {
+        return source_;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return source_.isEmpty();
+    }
+
+    @Override
+    public int length() {
+        return source_.length();
+    }
+
+    @Override
+    public TrajectoryPoint<TimedState<S>> getPoint(final int index) {
+        return new TrajectoryPoint<>(getState(index), index);
+    }
+
+    @Override
+    public TimedState<S> getState(final int index) {
+        final TimedState<S> timed_state = source_.getState(index);
+        return new TimedState<>(timed_state.state().mirror(), timed_state.t(), timed_state.velocity(),
+                timed_state.acceleration());
+    }
+}
@@ -3,10 +3,14 @@ package frc.team3310.utility.lib.trajectory;
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 
+/**
+ * A trajectory for the right side of the field and its mirror image for the left side. The left side is a view over
+ * the right one, so only one copy of the states is kept.
+ */
 public class MirroredTrajectory {
     public MirroredTrajectory(Trajectory<TimedState<Pose2dWithCurvature>> right) {
             this.right = right;
-            this.left = TrajectoryUtil.mirrorTimed(right);
+            this.left = new MirroredTimedTrajectory<>(right);
     }
 
     public Trajectory<TimedState<Pose2dWithCurvature>> get(boolean left) {
@@ -0,0 +1,301 @@
+package frc.team3310.utility.lib.trajectory;
+
+import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * A timed trajectory stored as parallel primitive columns instead of a list of TimedState objects.
+ *
+ * This is a drop-in Trajectory: getPoint() and getState() build the state for an index on demand, so TimedView,
+ * TrajectoryIterator and DriveMotionPlanner work with it unchanged. Only the columns are kept alive between calls.
+ * Followers should sample it through timedView(), which interpolates from the columns instead of building the two
+ * bracketing states on every sample.
+ */
+public class PackedTrajectory extends Trajectory<TimedState<Pose2dWithCurvature>> {
+    protected final double[] x_;
+    protected final double[] y_;
+    protected final double[] cos_;
+    protected final double[] sin_;
+    protected final double[] curvature_;
+    protected final double[] dcurvature_ds_;
+    protected final double[] t_;
+    protected final double[] velocity_;
+    protected final double[] acceleration_;
+
+    /**
+     * Creates an empty packed trajectory with room for length samples, to be filled in with set().
+     */
+    public PackedTrajectory(int length) {
+        x_ = new double[length];
+        y_ = new double[length];
+        cos_ = new double[length];
+        sin_ = new double[length];
+        curvature_ = new double[length];
+        dcurvature_ds_ = new double[length];
+        t_ = new double[length];
+        velocity_ = new double[length];
+        acceleration_ = new double[length];
+    }
+
+    /**
+     * Packs an existing timed trajectory.
+     */
+    public PackedTrajectory(final Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        this(trajectory.length());
+        for (int i = 0; i < trajectory.length(); ++i) {
+            TimedState<Pose2dWithCurvature> timed_state = trajectory.getState(i);
+            Pose2dWithCurvature state = timed_state.state();
+            set(i, state.getTranslation().x(), state.getTranslation().y(), state.getRotation().cos(),
+                    state.getRotation().sin(), state.getCurvature(), state.getDCurvatureDs(), timed_state.t(),
+                    timed_state.velocity(), timed_state.acceleration());
+        }
+    }
+
+    public static PackedTrajectory pack(final Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        if (trajectory instanceof PackedTrajectory) {
+            return (PackedTrajectory) trajectory;
+        }
+        return new PackedTrajectory(trajectory);
+    }
+
+    public void set(int index, double x, double y, double cos, double sin, double curvature, double dcurvature_ds,
+                    double t, double velocity, double acceleration) {
+        x_[index] = x;
+        y_[index] = y;
+        cos_[index] = cos;
+        sin_[index] = sin;
+        curvature_[index] = curvature;
+        dcurvature_ds_[index] = dcurvature_ds;
+        t_[index] = t;
+        velocity_[index] = velocity;
+        acceleration_[index] = acceleration;
+    }
+
+    /**
+     * @return a copy of this trajectory mirrored about the x-axis.
+     */
+    public PackedTrajectory mirror() {
+        PackedTrajectory mirrored = new PackedTrajectory(length());
+        for (int i = 0; i < length(); ++i) {
+            mirrored.set(i, x_[i], -y_[i], cos_[i], -sin_[i], -curvature_[i], -dcurvature_ds_[i], t_[i],
+                    velocity_[i], acceleration_[i]);
+        }
+        return mirrored;
+    }
+
+    public double x(int index) {
+        return x_[index];
+    }
+
+    public double y(int index) {
+        return y_[index];
+    }
+
+    public double cos(int index) {
+        return cos_[index];
+    }
+
+    public double sin(int index) {
+        return sin_[index];
+    }
+
+    public double curvature(int index) {
+        return curvature_[index];
+    }
+
+    public double dcurvature_ds(int index) {
+        return dcurvature_ds_[index];
+    }
+
+    public double t(int index) {
+        return t_[index];
+    }
+
+    public double velocity(int index) {
+        return velocity_[index];
+    }
+
+    public double acceleration(int index) {
+        return acceleration_[index];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return t_.length == 0;
+    }
+
+    @Override
+    public int length() {
+        return t_.length;
+    }
+
+    @Override
+    public TrajectoryPoint<TimedState<Pose2dWithCurvature>> getPoint(final int index) {
+        return new TrajectoryPoint<>(getState(index), index);
+    }
+
+    @Override
+    public TimedState<Pose2dWithCurvature> getState(final int index) {
+        return new TimedState<>(new Pose2dWithCurvature(new Pose2d(new Translation2d(x_[index], y_[index]),
+                new Rotation2d(cos_[index], sin_[index], false)), curvature_[index], dcurvature_ds_[index]),
+                t_[index], velocity_[index], acceleration_[index]);
+    }
+
+    /**
+     * @return a new time-indexed view that searches the time column directly and interpolates from the columns, so
+     * no intermediate states are built. Each view keeps its own search cursor.
+     */
+    public PackedTimedView getTimedView() {
+        return new PackedTimedView(false);
+    }
+
+    /**
+     * @return a view of trajectory for a follower: a PackedTimedView if trajectory is packed or a
+     * MirroredTimedTrajectory over a packed trajectory, otherwise a TimedView.
+     */
+    public static TrajectoryView<TimedState<Pose2dWithCurvature>> timedView(
+            final Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        if (trajectory instanceof PackedTrajectory) {
+            return ((PackedTrajectory) trajectory).getTimedView();
+        }
+        if (trajectory instanceof MirroredTimedTrajectory) {
+            final Trajectory<?> source = ((MirroredTimedTrajectory<?>) trajectory).getSource();
+            if (source instanceof PackedTrajectory) {
+                return ((PackedTrajectory) source).new PackedTimedView(true);
+            }
+        }
+        return new TimedView<>(trajectory);
+    }
+
+    /**
+     * Samples like TimedView (with bit-for-bit the same result), optionally mirrored about the x-axis like a TimedView
+     * over a MirroredTimedTrajectory. Only the returned sample is allocated, and the end points are built once;
+     * sample(t, result) writes the sample into the caller's TimedPoseSample instead and allocates nothing.
+     * <p>
+     * Not thread safe.
+     */
+    public class PackedTimedView implements TrajectoryView<TimedState<Pose2dWithCurvature>> {
+        protected final double mirror_;
+        protected final Trajectory<TimedState<Pose2dWithCurvature>> trajectory_;
+        protected final TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> first_;
+        protected final TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> last_;
+        protected final MutablePose2d pose_ = new MutablePose2d();
+        protected final MutableTwist2d twist_ = new MutableTwist2d();
+        protected final TimedPoseSample sample_ = new TimedPoseSample();
+        protected int cursor_ = 1;
+
+        protected PackedTimedView(boolean mirrored) {
+            mirror_ = mirrored ? -1.0 : 1.0;
+            trajectory_ = mirrored ? new MirroredTimedTrajectory<>(PackedTrajectory.this) : PackedTrajectory.this;
+            first_ = new TrajectorySamplePoint<>(trajectory_.getPoint(0));
+            last_ = new TrajectorySamplePoint<>(trajectory_.getPoint(t_.length - 1));
+        }
+
+        @Override
+        public double first_interpolant() {
+            return t_[0];
+        }
+
+        @Override
+        public double last_interpolant() {
+            return t_[t_.length - 1];
+        }
+
+        @Override
+        public TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> sample(double t) {
+            final int last = t_.length - 1;
+            if (t >= t_[last]) {
+                return last_;
+            }
+            if (t <= t_[0]) {
+                return first_;
+            }
+            final int i = TrajectoryUtil.findCeilIndex(t_, t, cursor_);
+            cursor_ = i;
+            if (Util.epsilonEquals(t_[i], t_[i - 1])) {
+                return new TrajectorySamplePoint<>(trajectory_.getPoint(i));
+            }
+            interpolate(i - 1, i, (t - t_[i - 1]) / (t_[i] - t_[i - 1]), sample_);
+            return new TrajectorySamplePoint<>(sample_.toTimedState(), i - 1, i);
+        }
+
+        /**
+         * result = sample(t), with the state and indices of the sample written into result.
+         */
+        public TimedPoseSample sample(double t, TimedPoseSample result) {
+            final int last = t_.length - 1;
+            if (t >= t_[last]) {
+                return set(result, last);
+            }
+            if (t <= t_[0]) {
+                return set(result, 0);
+            }
+            final int i = TrajectoryUtil.findCeilIndex(t_, t, cursor_);
+            cursor_ = i;
+            if (Util.epsilonEquals(t_[i], t_[i - 1])) {
+                return set(result, i);
+            }
+            result.index_floor = i - 1;
+            result.index_ceil = i;
+            return interpolate(i - 1, i, (t - t_[i - 1]) / (t_[i] - t_[i - 1]), result);
+        }
+
+        // TimedState.interpolate and Pose2dWithCurvature.interpolate on the samples at a and b, without building them.
+        private TimedPoseSample interpolate(int a, int b, double x, TimedPoseSample result) {
+            final double new_t = Util.interpolate(t_[a], t_[b], x);
+            final double delta_t = new_t - t_[a];
+            if (delta_t < 0.0) {
+                return result.set(trajectory_.getState(a).interpolate(trajectory_.getState(b), x));
+            }
+            final double velocity = velocity_[a];
+            final double acceleration = acceleration_[a];
+            boolean reversing = velocity < 0.0 || (Util.epsilonEquals(velocity, 0.0) && acceleration < 0.0);
+            final double new_v = velocity + acceleration * delta_t;
+            final double new_s = (reversing ? -1.0 : 1.0) * (velocity * delta_t + .5 * acceleration * delta_t *
+                    delta_t);
+
+            // Pose2d.interpolate: the twist from a to b, scaled and applied to a.
+            set(pose_, a).inverse().transformBy(x_[b], mirror_ * y_[b], cos_[b], mirror_ * sin_[b]);
+            pose_.log(twist_);
+            final double pose_x = new_s / twist_.norm();
+            if (pose_x <= 0) {
+                set(pose_, a);
+            } else if (pose_x >= 1) {
+                set(pose_, b);
+            } else {
+                twist_.scale(pose_x);
+                set(pose_, a).transformByExp(twist_.dx, twist_.dy, twist_.dtheta);
+            }
+            return result.set(pose_.getTranslation().x(), pose_.getTranslation().y(), pose_.getRotation().cos(),
+                    pose_.getRotation().sin(),
+                    Util.interpolate(mirror_ * curvature_[a], mirror_ * curvature_[b], pose_x),
+                    Util.interpolate(mirror_ * dcurvature_ds_[a], mirror_ * dcurvature_ds_[b], pose_x),
+                    new_t, new_v, acceleration);
+        }
+
+        // The sample at index, as the trajectory's getPoint(index) would give it.
+        private TimedPoseSample set(TimedPoseSample result, int index) {
+            result.index_floor = result.index_ceil = index;
+            return result.set(x_[index], mirror_ * y_[index], cos_[index], mirror_ * sin_[index],
+                    mirror_ * curvature_[index], mirror_ * dcurvature_ds_[index], t_[index], velocity_[index],
+                    acceleration_[index]);
+        }
+
+        private MutablePose2d set(MutablePose2d pose, int index) {
+            pose.getTranslation().set(x_[index], mirror_ * y_[index]);
+            pose.getRotation().set(cos_[index], mirror_ * sin_[index], false);
+            return pose;
+        }
+
+        @Override
+        public Trajectory<TimedState<Pose2dWithCurvature>> trajectory() {
+            return trajectory_;
+        }
+    }
+}
@@ -27,9 +27,12 @@ public class PurePursuitController<S extends ITranslation2d<S>> implements IPath
 
         final double remaining_progress = iterator_.getRemainingProgress();
         double goal_progress = 0.0;
-        // Find the first point > lookahead distance away from current_pose, or the last point otherwise.
-        for (double progress = 0.0; progress <= remaining_progress; progress = Math.min(remaining_progress,
-                progress + sampling_dist_)) {
+        // Find the first point > lookahead distance away from current_pose, or the last point otherwise. Progress is
+        // distance along the path, which is never less than the straight line distance, so a point that is
+        // lookahead - dist further along than one dist away cannot be more than lookahead away. Those points are
+        // skipped instead of sampled.
+        double progress = 0.0;
+        while (true) {
             double dist = current_pose.getTranslation().distance(iterator_.preview(progress).state().getTranslation());
             if (dist > lookahead_) {
                 if (goal_progress == 0.0 && !iterator_.isDone()) {
@@ -43,6 +46,8 @@ public class PurePursuitController<S extends ITranslation2d<S>> implements IPath
             if (progress == remaining_progress) {
                 break;
             }
+            final double steps = Math.max(1.0, Math.floor((lookahead_ - dist) / sampling_dist_));
+            progress = Math.min(remaining_progress, progress + steps * sampling_dist_);
         }
         iterator_.advance(goal_progress);
         final Arc<S> arc = new Arc<S>(current_pose, iterator_.getState());
@@ -90,6 +95,79 @@ public class PurePursuitController<S extends ITranslation2d<S>> implements IPath
             return normalFromPose.intersection(perpendicularBisector);
         }
 
+        /**
+         * Same as new Arc<>(pose, point).radius for the point (x, y), without building the arc or any of the geometry
+         * in between. scratch and twist are overwritten.
+         */
+        public static double getRadius(final Pose2d pose, double x, double y, MutablePose2d scratch,
+                                       MutableTwist2d twist) {
+            final double pose_x = pose.getTranslation().x();
+            final double pose_y = pose.getTranslation().y();
+            final double pose_cos = pose.getRotation().cos();
+            final double pose_sin = pose.getRotation().sin();
+
+            // findCenter: the perpendicular bisector of pose to point, and the normal from pose.
+            final double halfway_x = 0.5 * (x - pose_x) + pose_x;
+            final double halfway_y = 0.5 * (y - pose_y) + pose_y;
+            final double direction_x = -pose_x + halfway_x;
+            final double direction_y = -pose_y + halfway_y;
+            final double magnitude = Math.hypot(direction_x, direction_y);
+            final double direction_cos = magnitude > Util.kEpsilon ? direction_x / magnitude : 1.0;
+            final double direction_sin = magnitude > Util.kEpsilon ? direction_y / magnitude : 0.0;
+            final double bisector_cos = -direction_sin;
+            final double bisector_sin = direction_cos;
+            final double normal_cos = -pose_sin;
+            final double normal_sin = pose_cos;
+
+            double center_x, center_y;
+            if (isColinear(pose_x, pose_y, normal_cos, normal_sin, halfway_x, halfway_y, -bisector_sin, bisector_cos,
+                    scratch, twist)) {
+                // Special case: center is poseToPointHalfway.
+                center_x = halfway_x;
+                center_y = halfway_y;
+            } else if (Util.epsilonEquals(normal_cos * bisector_sin - normal_sin * bisector_cos, 0.0)) {
+                // Pose2d.intersection: the lines are parallel.
+                center_x = center_y = Double.POSITIVE_INFINITY;
+            } else {
+                // Pose2d.intersectionInternal, with a the line whose heading is further from the x axis.
+                final boolean normal_first = Math.abs(normal_cos) < Math.abs(bisector_cos);
+                final double a_x = normal_first ? pose_x : halfway_x;
+                final double a_y = normal_first ? pose_y : halfway_y;
+                final double a_cos = normal_first ? normal_cos : bisector_cos;
+                final double a_sin = normal_first ? normal_sin : bisector_sin;
+                final double b_x = normal_first ? halfway_x : pose_x;
+                final double b_y = normal_first ? halfway_y : pose_y;
+                final double b_cos = normal_first ? bisector_cos : normal_cos;
+                final double b_sin = normal_first ? bisector_sin : normal_sin;
+                final double tan_b = Math.abs(b_cos) < Util.kEpsilon
+                        ? (b_sin >= 0.0 ? Double.POSITIVE_INFINITY : Double.NEGATIVE_INFINITY) : b_sin / b_cos;
+                final double t = ((a_x - b_x) * tan_b + b_y - a_y) / (a_sin - a_cos * tan_b);
+                if (Double.isNaN(t)) {
+                    center_x = center_y = Double.POSITIVE_INFINITY;
+                } else {
+                    center_x = a_x + a_cos * t;
+                    center_y = a_y + a_sin * t;
+                }
+            }
+
+            final double radius = Math.hypot(x - center_x, y - center_y);
+            // getDirection
+            final double cross = pose_cos * (y - pose_y) - pose_sin * (x - pose_x);
+            return radius * ((cross < 0.) ? -1. : 1.);
+        }
+
+        // Pose2d.isColinear for the poses a and b.
+        private static boolean isColinear(double a_x, double a_y, double a_cos, double a_sin, double b_x, double b_y,
+                                          double b_cos, double b_sin, MutablePose2d scratch, MutableTwist2d twist) {
+            if (!Util.epsilonEquals(a_cos * b_sin - a_sin * b_cos, 0.0)) {
+                return false;
+            }
+            scratch.getTranslation().set(a_x, a_y);
+            scratch.getRotation().set(a_cos, a_sin, false);
+            scratch.inverse().transformBy(b_x, b_y, b_cos, b_sin).log(twist);
+            return Util.epsilonEquals(twist.dy, 0.0) && Util.epsilonEquals(twist.dtheta, 0.0);
+        }
+
         protected double findLength(Pose2d pose, S point, Translation2d center, double radius) {
             if (radius < Double.MAX_VALUE) {
                 final Translation2d centerToPoint = new Translation2d(center, point.getTranslation());
@@ -0,0 +1,57 @@
+package frc.team3310.utility.lib.trajectory;
+
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * A sample of a timed Pose2dWithCurvature trajectory that is updated in place, for followers that would otherwise
+ * allocate a TrajectorySamplePoint and its state every update. Holds the same values as the sample it was set from;
+ * see PackedTrajectory.PackedTimedView.sample(t, result).
+ * <p>
+ * Not thread safe; share a toTimedState() copy instead.
+ */
+public class TimedPoseSample {
+    public final MutablePose2d pose = new MutablePose2d();
+    public double curvature;
+    public double dcurvature_ds;
+    public double t;
+    public double velocity;
+    public double acceleration;
+    public int index_floor;
+    public int index_ceil;
+
+    public TimedPoseSample set(double x, double y, double cos, double sin, double curvature, double dcurvature_ds,
+                               double t, double velocity, double acceleration) {
+        pose.getTranslation().set(x, y);
+        pose.getRotation().set(cos, sin, false);
+        this.curvature = curvature;
+        this.dcurvature_ds = dcurvature_ds;
+        this.t = t;
+        this.velocity = velocity;
+        this.acceleration = acceleration;
+        return this;
+    }
+
+    public TimedPoseSample set(final TimedState<Pose2dWithCurvature> state) {
+        final Pose2dWithCurvature pose = state.state();
+        return set(pose.getTranslation().x(), pose.getTranslation().y(), pose.getRotation().cos(),
+                pose.getRotation().sin(), pose.getCurvature(), pose.getDCurvatureDs(), state.t(), state.velocity(),
+                state.acceleration());
+    }
+
+    public TimedPoseSample set(final TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> sample) {
+        index_floor = sample.index_floor();
+        index_ceil = sample.index_ceil();
+        return set(sample.state());
+    }
+
+    public TimedState<Pose2dWithCurvature> toTimedState() {
+        return new TimedState<>(new Pose2dWithCurvature(new Pose2d(new Translation2d(pose.getTranslation().x(),
+                pose.getTranslation().y()), new Rotation2d(pose.getRotation().cos(), pose.getRotation().sin(), false)),
+                curvature, dcurvature_ds), t, velocity, acceleration);
+    }
+}
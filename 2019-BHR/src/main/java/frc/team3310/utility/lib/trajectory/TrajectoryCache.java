@@ -0,0 +1,280 @@
+package frc.team3310.utility.lib.trajectory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+/**
+ * On-disk cache of timed trajectories keyed by a hash of everything that went into generating them.
+ *
+ * Each entry is one file named after its key. The file stores the key followed by nine doubles per sample (x, y,
+ * cos, sin, curvature, dcurvature/ds, t, velocity, acceleration) and is read back through a memory-mapped buffer.
+ */
+public class TrajectoryCache {
+    private static final int kMagic = 0x33313054;
+    private static final int kVersion = 3;
+    private static final int kDoublesPerSample = 9;
+    private static final int kMaxHashDepth = 8;
+    private static final double kRotationHashResolution = 1e-6; // degrees
+    private static final String kExtension = ".traj";
+
+    private final File directory_;
+    private final File precompiled_directory_;
+
+    public TrajectoryCache(File directory) {
+        this(directory, null);
+    }
+
+    /**
+     * @param directory             where entries are read from and written to.
+     * @param precompiled_directory read-only entries (e.g. generated at build time) checked before directory. May be
+     *                              null.
+     */
+    public TrajectoryCache(File directory, File precompiled_directory) {
+        directory_ = directory;
+        precompiled_directory_ = precompiled_directory;
+    }
+
+    public File getDirectory() {
+        return directory_;
+    }
+
+    public File getFile(String key) {
+        return new File(directory_, key + kExtension);
+    }
+
+    /**
+     * @return the cached trajectory for this key, or null if there is no valid entry.
+     */
+    public Trajectory<TimedState<Pose2dWithCurvature>> get(String key) {
+        if (precompiled_directory_ != null) {
+            Trajectory<TimedState<Pose2dWithCurvature>> precompiled = get(new File(precompiled_directory_,
+                    key + kExtension), key);
+            if (precompiled != null) {
+                return precompiled;
+            }
+            System.err.println("No precompiled trajectory for key " + key + ", trying " + directory_);
+        }
+        return get(getFile(key), key);
+    }
+
+    /**
+     * Deletes every entry in the writable directory.
+     */
+    public void clear() {
+        File[] files = directory_.listFiles((dir, name) -> name.endsWith(kExtension));
+        if (files != null) {
+            for (File file : files) {
+                if (!file.delete()) {
+                    System.err.println("Unable to delete trajectory cache entry " + file);
+                }
+            }
+        }
+    }
+
+    public void put(String key, Trajectory<TimedState<Pose2dWithCurvature>> trajectory) {
+        try {
+            write(getFile(key), key, trajectory);
+        } catch (IOException e) {
+            System.err.println("Unable to write trajectory cache entry " + key + ": " + e);
+        }
+    }
+
+    /**
+     * Builds a content hash from the given inputs. Numbers, strings, enums and lists are hashed by value, and
+     * rotations by their angle rounded to a millionth of a degree so that keys match across platforms; any other
+     * object is hashed by its class name and the values of its non-static, non-transient fields.
+     */
+    public static String key(Object... inputs) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        ByteBuffer scratch = ByteBuffer.allocate(Long.BYTES);
+        digestInt(digest, scratch, kVersion);
+        for (Object input : inputs) {
+            digestObject(digest, scratch, input, 0);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    public static void write(File file, String key, Trajectory<TimedState<Pose2dWithCurvature>> trajectory)
+            throws IOException {
+        byte[] key_bytes = key.getBytes(StandardCharsets.UTF_8);
+        int length = trajectory.length();
+        ByteBuffer buffer = ByteBuffer.allocate(4 * Integer.BYTES + key_bytes.length
+                + length * kDoublesPerSample * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(kMagic);
+        buffer.putInt(kVersion);
+        buffer.putInt(key_bytes.length);
+        buffer.put(key_bytes);
+        buffer.putInt(length);
+        for (int i = 0; i < length; ++i) {
+            TimedState<Pose2dWithCurvature> timed_state = trajectory.getState(i);
+            Pose2dWithCurvature state = timed_state.state();
+            buffer.putDouble(state.getTranslation().x());
+            buffer.putDouble(state.getTranslation().y());
+            buffer.putDouble(state.getRotation().cos());
+            buffer.putDouble(state.getRotation().sin());
+            buffer.putDouble(state.getCurvature());
+            buffer.putDouble(state.getDCurvatureDs());
+            buffer.putDouble(timed_state.t());
+            buffer.putDouble(timed_state.velocity());
+            buffer.putDouble(timed_state.acceleration());
+        }
+        buffer.flip();
+
+        // Write to a temporary file and move it into place so readers never see a partial entry.
+        File parent = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(parent.toPath());
+        Path tmp = Files.createTempFile(parent.toPath(), file.getName(), ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        try {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Reads an entry through a memory-mapped buffer.
+     *
+     * @return the trajectory, or null if the stored key does not match the expected one.
+     */
+    public static Trajectory<TimedState<Pose2dWithCurvature>> read(File file, String expected_key) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != kMagic || buffer.getInt() != kVersion) {
+                return null;
+            }
+            byte[] key_bytes = new byte[buffer.getInt()];
+            buffer.get(key_bytes);
+            if (expected_key != null && !expected_key.equals(new String(key_bytes, StandardCharsets.UTF_8))) {
+                return null;
+            }
+            int length = buffer.getInt();
+            if (buffer.remaining() != length * kDoublesPerSample * Double.BYTES) {
+                return null;
+            }
+            List<TimedState<Pose2dWithCurvature>> states = new ArrayList<>(length);
+            for (int i = 0; i < length; ++i) {
+                Translation2d translation = new Translation2d(buffer.getDouble(), buffer.getDouble());
+                Rotation2d rotation = new Rotation2d(buffer.getDouble(), buffer.getDouble(), false);
+                Pose2dWithCurvature state = new Pose2dWithCurvature(new Pose2d(translation, rotation),
+                        buffer.getDouble(), buffer.getDouble());
+                states.add(new TimedState<>(state, buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+            }
+            return new Trajectory<>(states);
+        }
+    }
+
+    private static Trajectory<TimedState<Pose2dWithCurvature>> get(File file, String key) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            return read(file, key);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable trajectory cache entry " + file + ": " + e);
+            return null;
+        }
+    }
+
+    private static void digestObject(MessageDigest digest, ByteBuffer scratch, Object value, int depth) {
+        if (value == null) {
+            digestInt(digest, scratch, 0);
+        } else if (value instanceof Double || value instanceof Float) {
+            digestLong(digest, scratch, Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof Number) {
+            digestLong(digest, scratch, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            digestInt(digest, scratch, (Boolean) value ? 1 : 2);
+        } else if (value instanceof String || value instanceof Enum) {
+            digest.update(value.toString().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Rotation2d) {
+            // cos and sin come from Math.cos/Math.sin, which may differ in the last bit between the development machine
+            // and the roboRIO, so hash the angle rounded to kRotationHashResolution instead. StrictMath gives the same
+            // result everywhere.
+            final Rotation2d rotation = (Rotation2d) value;
+            long angle = Math.round(StrictMath.toDegrees(StrictMath.atan2(rotation.sin(), rotation.cos()))
+                    / kRotationHashResolution);
+            if (angle == Math.round(-180.0 / kRotationHashResolution)) {
+                angle = -angle;
+            }
+            digest.update(Rotation2d.class.getName().getBytes(StandardCharsets.UTF_8));
+            digestLong(digest, scratch, angle);
+        } else if (value instanceof Iterable) {
+            for (Object element : (Iterable<?>) value) {
+                digestObject(digest, scratch, element, depth + 1);
+            }
+            digestInt(digest, scratch, -1);
+        } else {
+            if (depth > kMaxHashDepth) {
+                throw new RuntimeException("Trajectory cache key nested too deeply at " + value.getClass());
+            }
+            digest.update(value.getClass().getName().getBytes(StandardCharsets.UTF_8));
+            for (Class<?> c = value.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+                // Sort by name so the key does not depend on the JVM's field ordering.
+                Field[] fields = c.getDeclaredFields();
+                Arrays.sort(fields, Comparator.comparing(Field::getName));
+                for (Field field : fields) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    try {
+                        digestObject(digest, scratch, field.get(value), depth + 1);
+                    } catch (IllegalAccessException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void digestInt(MessageDigest digest, ByteBuffer scratch, int value) {
+        scratch.clear();
+        scratch.putInt(value);
+        digest.update(scratch.array(), 0, Integer.BYTES);
+    }
+
+    private static void digestLong(MessageDigest digest, ByteBuffer scratch, long value) {
+        scratch.clear();
+        scratch.putLong(value);
+        digest.update(scratch.array(), 0, Long.BYTES);
+    }
+}
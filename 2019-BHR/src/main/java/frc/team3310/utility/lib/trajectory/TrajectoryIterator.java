@@ -5,6 +5,7 @@ import frc.team3310.utility.lib.geometry.State;
 public class TrajectoryIterator<S extends State<S>> {
     protected final TrajectoryView<S> view_;
     protected double progress_ = 0.0;
+    // Sampled on first use after advanceProgress(), so null until then.
     protected TrajectorySamplePoint<S> current_sample_;
 
     public TrajectoryIterator(final TrajectoryView<S> view) {
@@ -28,6 +29,9 @@ public class TrajectoryIterator<S extends State<S>> {
     }
 
     public TrajectorySamplePoint<S> getSample() {
+        if (current_sample_ == null) {
+            current_sample_ = view_.sample(progress_);
+        }
         return current_sample_;
     }
 
@@ -36,16 +40,36 @@ public class TrajectoryIterator<S extends State<S>> {
     }
 
     public TrajectorySamplePoint<S> advance(double additional_progress) {
-        progress_ = Math.max(view_.first_interpolant(),
-                Math.min(view_.last_interpolant(), progress_ + additional_progress));
-        current_sample_ = view_.sample(progress_);
-        return current_sample_;
+        advanceProgress(additional_progress);
+        return getSample();
+    }
+
+    /**
+     * Like advance(), but leaves sampling to the caller (e.g. into its own scratch through view()). getSample()
+     * samples the new progress when it is next called.
+     *
+     * @return the new progress.
+     */
+    public double advanceProgress(double additional_progress) {
+        progress_ = getPreviewProgress(additional_progress);
+        current_sample_ = null;
+        return progress_;
     }
 
     public TrajectorySamplePoint<S> preview(double additional_progress) {
-        final double progress = Math.max(view_.first_interpolant(),
+        return view_.sample(getPreviewProgress(additional_progress));
+    }
+
+    /**
+     * @return the progress preview(additional_progress) samples at.
+     */
+    public double getPreviewProgress(double additional_progress) {
+        return Math.max(view_.first_interpolant(),
                 Math.min(view_.last_interpolant(), progress_ + additional_progress));
-        return view_.sample(progress);
+    }
+
+    public TrajectoryView<S> view() {
+        return view_;
     }
 
     public Trajectory<S> trajectory() {
@@ -40,6 +40,39 @@ public class TrajectoryUtil {
         return new Trajectory<>(waypoints);
     }
 
+    private static final int kMaxCursorScan = 8;
+
+    /**
+     * Finds the first index i >= 1 with interpolants[i] >= value, matching a linear scan from index 1.
+     *
+     * Assumes interpolants is non-decreasing and interpolants[0] < value <= interpolants[length - 1]. When hint is the
+     * result of a previous call with a smaller value (i.e. progress only moves forward), the answer is found by
+     * stepping forward from the hint; otherwise this falls back to a binary search.
+     */
+    public static int findCeilIndex(final double[] interpolants, double value, int hint) {
+        final int last = interpolants.length - 1;
+        int low = 1;
+        if (hint >= 1 && hint <= last && interpolants[hint - 1] < value) {
+            final int end = Math.min(last, hint + kMaxCursorScan);
+            for (int i = hint; i <= end; ++i) {
+                if (interpolants[i] >= value) {
+                    return i;
+                }
+            }
+            low = end + 1;
+        }
+        int high = last;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (interpolants[mid] >= value) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
     /**
      * Creates a Trajectory by sampling a TrajectoryView at a regular interval.
      *
@@ -114,12 +147,20 @@ public class TrajectoryUtil {
 
     public static Trajectory<Pose2dWithCurvature> trajectoryFromSplineWaypoints(final List<Pose2d> waypoints, double
             maxDx, double maxDy, double maxDTheta) {
+        List<QuinticHermiteSpline> splines = splinesFromWaypoints(waypoints);
+        QuinticHermiteSpline.optimizeSplineAnalytic(splines);
+        return trajectoryFromSplines(splines, maxDx, maxDy, maxDTheta);
+    }
+
+    /**
+     * One spline between each pair of consecutive waypoints, before optimization.
+     */
+    public static List<QuinticHermiteSpline> splinesFromWaypoints(final List<Pose2d> waypoints) {
         List<QuinticHermiteSpline> splines = new ArrayList<>(waypoints.size() - 1);
         for (int i = 1; i < waypoints.size(); ++i) {
             splines.add(new QuinticHermiteSpline(waypoints.get(i - 1), waypoints.get(i)));
         }
-        QuinticHermiteSpline.optimizeSpline(splines);
-        return trajectoryFromSplines(splines, maxDx, maxDy, maxDTheta);
+        return splines;
     }
 
     public static Trajectory<Pose2dWithCurvature> trajectoryFromSplines(final List<? extends Spline> splines, double
@@ -0,0 +1,23 @@
+package frc.team3310.utility.lib.trajectory.timing;
+
+import java.util.List;
+
+import frc.team3310.utility.lib.geometry.State;
+
+/**
+ * Optional extension of TimingConstraint for constraints that can evaluate a range of states in one call. TimingEngine
+ * uses these instead of getMaxVelocity and getMinMaxAcceleration, so no MinMaxAcceleration is allocated per state.
+ */
+public interface BulkTimingConstraint<S extends State<S>> extends TimingConstraint<S> {
+    /**
+     * Lowers max_velocity[i] to this constraint's velocity limit at states[i], for each i in [from, to).
+     */
+    void limitMaxVelocity(List<S> states, int from, int to, double[] max_velocity);
+
+    /**
+     * Narrows [min_acceleration[i], max_acceleration[i]] to this constraint's acceleration limits at states[i] and
+     * (signed) velocity[i], for each i in [from, to).
+     */
+    void limitAcceleration(List<S> states, int from, int to, double[] velocity, double[] min_acceleration,
+                           double[] max_acceleration);
+}
@@ -1,8 +1,10 @@
 package frc.team3310.utility.lib.trajectory.timing;
 
+import java.util.List;
+
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
 
-public class CentripetalAccelerationConstraint implements TimingConstraint<Pose2dWithCurvature> {
+public class CentripetalAccelerationConstraint implements BulkTimingConstraint<Pose2dWithCurvature> {
     final double mMaxCentripetalAccel;
 
     public CentripetalAccelerationConstraint(final double max_centripetal_accel) {
@@ -18,4 +20,17 @@ public class CentripetalAccelerationConstraint implements TimingConstraint<Pose2
     public MinMaxAcceleration getMinMaxAcceleration(final Pose2dWithCurvature state, final double velocity) {
         return MinMaxAcceleration.kNoLimits;
     }
+
+    @Override
+    public void limitMaxVelocity(final List<Pose2dWithCurvature> states, int from, int to, double[] max_velocity) {
+        for (int i = from; i < to; ++i) {
+            max_velocity[i] = Math.min(max_velocity[i], getMaxVelocity(states.get(i)));
+        }
+    }
+
+    @Override
+    public void limitAcceleration(final List<Pose2dWithCurvature> states, int from, int to, double[] velocity,
+                                  double[] min_acceleration, double[] max_acceleration) {
+        // No limits.
+    }
 }
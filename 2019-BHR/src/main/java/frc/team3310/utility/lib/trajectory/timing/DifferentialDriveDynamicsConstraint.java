@@ -1,12 +1,14 @@
 package frc.team3310.utility.lib.trajectory.timing;
 
+import java.util.List;
+
 import frc.team3310.utility.lib.geometry.ICurvature;
 import frc.team3310.utility.lib.geometry.IPose2d;
 import frc.team3310.utility.Units;
 import frc.team3310.utility.lib.physics.*;
 
 
-public class DifferentialDriveDynamicsConstraint<S extends IPose2d<S> & ICurvature<S>> implements TimingConstraint<S> {
+public class DifferentialDriveDynamicsConstraint<S extends IPose2d<S> & ICurvature<S>> implements BulkTimingConstraint<S> {
 
     protected final DifferentialDrive drive_;
     protected final double abs_voltage_limit_;
@@ -36,4 +38,25 @@ public class DifferentialDriveDynamicsConstraint<S extends IPose2d<S> & ICurvatu
                 abs_voltage_limit_);
         return new MinMaxAcceleration(Units.meters_to_inches(min_max.min), Units.meters_to_inches(min_max.max));
     }
+
+    @Override
+    public void limitMaxVelocity(List<S> states, int from, int to, double[] max_velocity) {
+        for (int i = from; i < to; ++i) {
+            max_velocity[i] = Math.min(max_velocity[i], getMaxVelocity(states.get(i)));
+        }
+    }
+
+    @Override
+    public void limitAcceleration(List<S> states, int from, int to, double[] velocity, double[] min_acceleration,
+                                  double[] max_acceleration) {
+        for (int i = from; i < to; ++i) {
+            final double curvature = states.get(i).getCurvature();
+            DifferentialDrive.MinMax min_max = drive_.getMinMaxAcceleration(new DifferentialDrive.ChassisState(
+                            Units.inches_to_meters(velocity[i]), curvature * velocity[i]),
+                    Units.meters_to_inches(curvature),
+                    abs_voltage_limit_);
+            min_acceleration[i] = Math.max(min_acceleration[i], Units.meters_to_inches(min_max.min));
+            max_acceleration[i] = Math.min(max_acceleration[i], Units.meters_to_inches(min_max.max));
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package frc.team3310.utility.lib.trajectory.timing;
+
+import java.util.List;
+
+import frc.team3310.utility.lib.geometry.ICurvature;
+import frc.team3310.utility.lib.geometry.IPose2d;
+import frc.team3310.utility.Units;
+import frc.team3310.utility.lib.physics.DifferentialDrive;
+import frc.team3310.utility.lib.physics.DifferentialDriveDynamicsTable;
+
+/**
+ * DifferentialDriveDynamicsConstraint answered from a precomputed DifferentialDriveDynamicsTable.
+ * <p>
+ * The bulk methods reuse one result object, so an instance must not be used by two time parameterizations at once.
+ * DriveMotionPlanner creates one per trajectory.
+ */
+public class DifferentialDriveDynamicsTableConstraint<S extends IPose2d<S> & ICurvature<S>> implements
+        BulkTimingConstraint<S> {
+
+    protected final DifferentialDriveDynamicsTable table_;
+    protected final DifferentialDrive.MinMax min_max_ = new DifferentialDrive.MinMax();
+
+    public DifferentialDriveDynamicsTableConstraint(final DifferentialDriveDynamicsTable table) {
+        table_ = table;
+    }
+
+    public DifferentialDriveDynamicsTableConstraint(final DifferentialDrive drive, double abs_voltage_limit) {
+        this(DifferentialDriveDynamicsTable.get(drive, abs_voltage_limit));
+    }
+
+    @Override
+    public double getMaxVelocity(S state) {
+        // Curvature is in inverse inches, so meters_to_inches is correct.
+        return Units.meters_to_inches(table_.getMaxAbsVelocity(Units.meters_to_inches(state.getCurvature())));
+    }
+
+    @Override
+    public MinMaxAcceleration getMinMaxAcceleration(S state, double velocity) {
+        DifferentialDrive.MinMax min_max = new DifferentialDrive.MinMax();
+        table_.getMinMaxAcceleration(Units.inches_to_meters(velocity), Units.meters_to_inches(state.getCurvature()),
+                min_max);
+        return new MinMaxAcceleration(Units.meters_to_inches(min_max.min), Units.meters_to_inches(min_max.max));
+    }
+
+    @Override
+    public void limitMaxVelocity(List<S> states, int from, int to, double[] max_velocity) {
+        for (int i = from; i < to; ++i) {
+            max_velocity[i] = Math.min(max_velocity[i], getMaxVelocity(states.get(i)));
+        }
+    }
+
+    @Override
+    public void limitAcceleration(List<S> states, int from, int to, double[] velocity, double[] min_acceleration,
+                                  double[] max_acceleration) {
+        final DifferentialDrive.MinMax min_max = min_max_;
+        for (int i = from; i < to; ++i) {
+            table_.getMinMaxAcceleration(Units.inches_to_meters(velocity[i]),
+                    Units.meters_to_inches(states.get(i).getCurvature()), min_max);
+            min_acceleration[i] = Math.max(min_acceleration[i], Units.meters_to_inches(min_max.min));
+            max_acceleration[i] = Math.min(max_acceleration[i], Units.meters_to_inches(min_max.max));
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package frc.team3310.utility.lib.trajectory.timing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import frc.team3310.utility.lib.geometry.State;
+
+/**
+ * Time-parameterizes a path with the forward/backward pass algorithm of TimingUtil, keeping the per-state bookkeeping
+ * in double[] columns instead of an object per sample.
+ * <p>
+ * Velocity limits only depend on the state, so they are evaluated once for the whole path when the engine is built.
+ * Acceleration limits depend on the velocity being tried and are evaluated one state at a time during the passes.
+ * Constraints that implement BulkTimingConstraint are called directly; any other TimingConstraint is adapted.
+ */
+public class TimingEngine<S extends State<S>> {
+    private static final double kEpsilon = 1e-6;
+
+    protected final List<S> states_;
+    protected final List<BulkTimingConstraint<S>> constraints_;
+    protected final int length_;
+
+    protected final double[] ds_;
+    protected final double[] distance_;
+    protected final double[] velocity_limit_;
+    protected final double[] max_velocity_;
+    protected final double[] min_acceleration_;
+    protected final double[] max_acceleration_;
+
+    // Acceleration constraint inputs and outputs, in the frame of the constraints (not flipped when reversed).
+    protected final double[] constraint_velocity_;
+    protected final double[] constraint_min_acceleration_;
+    protected final double[] constraint_max_acceleration_;
+
+    protected final double[] t_;
+    protected final double[] velocity_;
+    protected final double[] acceleration_;
+
+    public TimingEngine(final List<S> states, final List<? extends TimingConstraint<S>> constraints) {
+        states_ = states;
+        length_ = states.size();
+        constraints_ = new ArrayList<>(constraints.size());
+        for (final TimingConstraint<S> constraint : constraints) {
+            constraints_.add(toBulk(constraint));
+        }
+
+        ds_ = new double[length_];
+        distance_ = new double[length_];
+        velocity_limit_ = new double[length_];
+        max_velocity_ = new double[length_];
+        min_acceleration_ = new double[length_];
+        max_acceleration_ = new double[length_];
+        constraint_velocity_ = new double[length_];
+        constraint_min_acceleration_ = new double[length_];
+        constraint_max_acceleration_ = new double[length_];
+        t_ = new double[length_];
+        velocity_ = new double[length_];
+        acceleration_ = new double[length_];
+
+        for (int i = 0; i < length_; ++i) {
+            ds_[i] = states.get(i).distance(states.get(i > 0 ? i - 1 : 0));
+            distance_[i] = ds_[i] + (i > 0 ? distance_[i - 1] : 0.0);
+            velocity_limit_[i] = Double.POSITIVE_INFINITY;
+        }
+        for (int j = 0; j < constraints_.size(); ++j) {
+            constraints_.get(j).limitMaxVelocity(states_, 0, length_, velocity_limit_);
+        }
+    }
+
+    /**
+     * Fills the t, velocity and acceleration columns. May be called again with different limits; the velocity
+     * constraints evaluated in the constructor are reused.
+     */
+    public void parameterize(boolean reverse, double start_velocity, double end_velocity, double max_velocity,
+                             double max_abs_acceleration) {
+        if (length_ == 0) {
+            throw new RuntimeException();
+        }
+
+        // Forward pass. We look at pairs of consecutive states, where the start state has already been velocity
+        // parameterized (though we may adjust the velocity downwards during the backwards pass). We wish to find an
+        // acceleration that is admissible at both the start and end state, as well as an admissible end velocity. If
+        // there is no admissible end velocity or acceleration, we set the end velocity to the state's maximum allowed
+        // velocity and will repair the acceleration during the backward pass (by slowing down the predecessor).
+        // The predecessor is kept in locals; for the first state it is a virtual state at the start velocity.
+        double predecessor_max_velocity = start_velocity;
+        double predecessor_min_acceleration = -max_abs_acceleration;
+        double predecessor_max_acceleration = max_abs_acceleration;
+        for (int i = 0; i < length_; ++i) {
+            final double ds = ds_[i];
+
+            // We may need to iterate to find the maximum end velocity and common acceleration, since acceleration
+            // limits may be a function of velocity.
+            while (true) {
+                // Enforce global max velocity and max reachable velocity by global acceleration limit.
+                // vf = sqrt(vi^2 + 2*a*d)
+                max_velocity_[i] = Math.min(max_velocity, Math.sqrt(predecessor_max_velocity
+                        * predecessor_max_velocity + 2.0 * predecessor_max_acceleration * ds));
+                if (Double.isNaN(max_velocity_[i])) {
+                    throw new RuntimeException();
+                }
+                // Enforce global max absolute acceleration.
+                min_acceleration_[i] = -max_abs_acceleration;
+                max_acceleration_[i] = max_abs_acceleration;
+
+                // Enforce all velocity constraints.
+                max_velocity_[i] = Math.min(max_velocity_[i], velocity_limit_[i]);
+                if (max_velocity_[i] < 0.0) {
+                    // This should never happen if constraints are well-behaved.
+                    throw new RuntimeException();
+                }
+
+                // Now enforce all acceleration constraints.
+                applyAccelerationConstraints(i, reverse);
+
+                if (ds < kEpsilon) {
+                    break;
+                }
+                // If the max acceleration for this constraint state is more conservative than what we had applied, we
+                // need to reduce the max accel at the predecessor state and try again.
+                // TODO: Simply using the new max acceleration is guaranteed to be valid, but may be too conservative.
+                // Doing a search would be better.
+                final double actual_acceleration = (max_velocity_[i] * max_velocity_[i]
+                        - predecessor_max_velocity * predecessor_max_velocity) / (2.0 * ds);
+                if (max_acceleration_[i] < actual_acceleration - kEpsilon) {
+                    predecessor_max_acceleration = max_acceleration_[i];
+                } else {
+                    if (actual_acceleration > predecessor_min_acceleration + kEpsilon) {
+                        predecessor_max_acceleration = actual_acceleration;
+                    }
+                    // If actual acceleration is less than predecessor min accel, we will repair during the backward
+                    // pass.
+                    break;
+                }
+            }
+            if (i > 0) {
+                max_acceleration_[i - 1] = predecessor_max_acceleration;
+            }
+            predecessor_max_velocity = max_velocity_[i];
+            predecessor_min_acceleration = min_acceleration_[i];
+            predecessor_max_acceleration = max_acceleration_[i];
+        }
+
+        // Backward pass, starting from a virtual successor at the end velocity.
+        double successor_distance = distance_[length_ - 1];
+        double successor_max_velocity = end_velocity;
+        double successor_min_acceleration = -max_abs_acceleration;
+        for (int i = length_ - 1; i >= 0; --i) {
+            final double ds = distance_[i] - successor_distance; // will be negative.
+
+            while (true) {
+                // vf = sqrt(vi^2 + 2*a*d), where vi = successor.
+                final double new_max_velocity = Math.sqrt(successor_max_velocity * successor_max_velocity
+                        + 2.0 * successor_min_acceleration * ds);
+                if (new_max_velocity >= max_velocity_[i]) {
+                    // No new limits to impose.
+                    break;
+                }
+                max_velocity_[i] = new_max_velocity;
+                if (Double.isNaN(max_velocity_[i])) {
+                    throw new RuntimeException();
+                }
+
+                // Now check all acceleration constraints with the lower max velocity.
+                applyAccelerationConstraints(i, reverse);
+
+                if (ds > kEpsilon) {
+                    break;
+                }
+                // If the min acceleration for this constraint state is more conservative than what we have applied, we
+                // need to reduce the min accel and try again.
+                // TODO: Simply using the new min acceleration is guaranteed to be valid, but may be too conservative.
+                // Doing a search would be better.
+                final double actual_acceleration = (max_velocity_[i] * max_velocity_[i]
+                        - successor_max_velocity * successor_max_velocity) / (2.0 * ds);
+                if (min_acceleration_[i] > actual_acceleration + kEpsilon) {
+                    successor_min_acceleration = min_acceleration_[i];
+                } else {
+                    successor_min_acceleration = actual_acceleration;
+                    break;
+                }
+            }
+            if (i < length_ - 1) {
+                min_acceleration_[i + 1] = successor_min_acceleration;
+            }
+            successor_distance = distance_[i];
+            successor_max_velocity = max_velocity_[i];
+            successor_min_acceleration = min_acceleration_[i];
+        }
+
+        // Integrate the constrained states forward in time.
+        double t = 0.0;
+        double s = 0.0;
+        double v = 0.0;
+        for (int i = 0; i < length_; ++i) {
+            // Advance t.
+            final double ds = distance_[i] - s;
+            final double accel = (max_velocity_[i] * max_velocity_[i] - v * v) / (2.0 * ds);
+            double dt = 0.0;
+            if (i > 0) {
+                acceleration_[i - 1] = reverse ? -accel : accel;
+                if (Math.abs(accel) > kEpsilon) {
+                    dt = (max_velocity_[i] - v) / accel;
+                } else if (Math.abs(v) > kEpsilon) {
+                    dt = ds / v;
+                } else {
+                    throw new RuntimeException();
+                }
+            }
+            t += dt;
+            if (Double.isNaN(t) || Double.isInfinite(t)) {
+                throw new RuntimeException();
+            }
+
+            v = max_velocity_[i];
+            s = distance_[i];
+            t_[i] = t;
+            velocity_[i] = reverse ? -v : v;
+            acceleration_[i] = reverse ? -accel : accel;
+        }
+    }
+
+    /**
+     * Narrows min_acceleration_[i] and max_acceleration_[i] by every constraint at max_velocity_[i].
+     */
+    private void applyAccelerationConstraints(int i, boolean reverse) {
+        constraint_velocity_[i] = (reverse ? -1.0 : 1.0) * max_velocity_[i];
+        constraint_min_acceleration_[i] = Double.NEGATIVE_INFINITY;
+        constraint_max_acceleration_[i] = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < constraints_.size(); ++j) {
+            constraints_.get(j).limitAcceleration(states_, i, i + 1, constraint_velocity_,
+                    constraint_min_acceleration_, constraint_max_acceleration_);
+        }
+        if (!(constraint_min_acceleration_[i] <= constraint_max_acceleration_[i])) {
+            // This should never happen if constraints are well-behaved.
+            throw new RuntimeException();
+        }
+        min_acceleration_[i] = Math.max(min_acceleration_[i],
+                reverse ? -constraint_max_acceleration_[i] : constraint_min_acceleration_[i]);
+        max_acceleration_[i] = Math.min(max_acceleration_[i],
+                reverse ? -constraint_min_acceleration_[i] : constraint_max_acceleration_[i]);
+        if (min_acceleration_[i] > max_acceleration_[i]) {
+            // This should never happen if constraints are well-behaved.
+            throw new RuntimeException();
+        }
+    }
+
+    public int length() {
+        return length_;
+    }
+
+    public List<S> states() {
+        return states_;
+    }
+
+    public double distance(int index) {
+        return distance_[index];
+    }
+
+    public double t(int index) {
+        return t_[index];
+    }
+
+    public double velocity(int index) {
+        return velocity_[index];
+    }
+
+    public double acceleration(int index) {
+        return acceleration_[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends State<S>> BulkTimingConstraint<S> toBulk(final TimingConstraint<S> constraint) {
+        if (constraint instanceof BulkTimingConstraint) {
+            return (BulkTimingConstraint<S>) constraint;
+        }
+        return new PerStateConstraint<>(constraint);
+    }
+
+    /**
+     * Evaluates a plain TimingConstraint one state at a time.
+     */
+    private static class PerStateConstraint<S extends State<S>> implements BulkTimingConstraint<S> {
+        private final TimingConstraint<S> constraint_;
+
+        PerStateConstraint(final TimingConstraint<S> constraint) {
+            constraint_ = constraint;
+        }
+
+        @Override
+        public double getMaxVelocity(S state) {
+            return constraint_.getMaxVelocity(state);
+        }
+
+        @Override
+        public MinMaxAcceleration getMinMaxAcceleration(S state, double velocity) {
+            return constraint_.getMinMaxAcceleration(state, velocity);
+        }
+
+        @Override
+        public void limitMaxVelocity(List<S> states, int from, int to, double[] max_velocity) {
+            for (int i = from; i < to; ++i) {
+                max_velocity[i] = Math.min(max_velocity[i], constraint_.getMaxVelocity(states.get(i)));
+            }
+        }
+
+        @Override
+        public void limitAcceleration(List<S> states, int from, int to, double[] velocity,
+                                      double[] min_acceleration, double[] max_acceleration) {
+            for (int i = from; i < to; ++i) {
+                final MinMaxAcceleration min_max_accel = constraint_.getMinMaxAcceleration(states.get(i),
+                        velocity[i]);
+                if (!min_max_accel.valid()) {
+                    throw new RuntimeException();
+                }
+                min_acceleration[i] = Math.max(min_acceleration[i], min_max_accel.min_acceleration());
+                max_acceleration[i] = Math.min(max_acceleration[i], min_max_accel.max_acceleration());
+            }
+        }
+    }
+}
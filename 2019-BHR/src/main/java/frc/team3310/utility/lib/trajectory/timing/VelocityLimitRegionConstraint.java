@@ -1,9 +1,11 @@
 package frc.team3310.utility.lib.trajectory.timing;
 
+import java.util.List;
+
 import frc.team3310.utility.lib.geometry.ITranslation2d;
 import frc.team3310.utility.lib.geometry.Translation2d;
 
-public class VelocityLimitRegionConstraint<S extends ITranslation2d<S>> implements TimingConstraint<S> {
+public class VelocityLimitRegionConstraint<S extends ITranslation2d<S>> implements BulkTimingConstraint<S> {
     protected final Translation2d min_corner_;
     protected final Translation2d max_corner_;
     protected final double velocity_limit_;
@@ -30,4 +32,16 @@ public class VelocityLimitRegionConstraint<S extends ITranslation2d<S>> implemen
         return MinMaxAcceleration.kNoLimits;
     }
 
+    @Override
+    public void limitMaxVelocity(List<S> states, int from, int to, double[] max_velocity) {
+        for (int i = from; i < to; ++i) {
+            max_velocity[i] = Math.min(max_velocity[i], getMaxVelocity(states.get(i)));
+        }
+    }
+
+    @Override
+    public void limitAcceleration(List<S> states, int from, int to, double[] velocity, double[] min_acceleration,
+                                  double[] max_acceleration) {
+        // No limits.
+    }
 }
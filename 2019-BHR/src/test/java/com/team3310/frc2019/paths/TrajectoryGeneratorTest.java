@@ -3,9 +3,13 @@ package com.team3310.frc2019.paths;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Map;
+
 import org.junit.jupiter.api.Test;
 
+import frc.team3310.robot.Constants;
 import frc.team3310.robot.paths.TrajectoryGenerator;
+import frc.team3310.robot.planners.DriveMotionPlanner;
 import frc.team3310.utility.Util;
 import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
@@ -13,6 +17,7 @@ import frc.team3310.utility.lib.geometry.Twist2d;
 import frc.team3310.utility.lib.trajectory.LazyLoadTrajectory;
 import frc.team3310.utility.lib.trajectory.MirroredTrajectory;
 import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
 import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 
@@ -117,4 +122,42 @@ public class TrajectoryGeneratorTest {
                 // true);
 
         }
+
+        @Test
+        public void testParallelGeneration() {
+                TrajectoryGenerator.getInstance().generateTrajectoriesParallel();
+
+                // A fresh planner configured like the generator's own regenerates each path serially, without any state
+                // shared with the parallel run.
+                DriveMotionPlanner planner = new DriveMotionPlanner();
+                planner.setPrecomputeFeedforward(Constants.kPrecomputeDriveFeedforward);
+
+                TrajectoryGenerator.TrajectorySet set = TrajectoryGenerator.getInstance().getTrajectorySet();
+                for (Map.Entry<String, LazyLoadTrajectory> entry : set.getAllTrajectories().entrySet()) {
+                        MirroredTrajectory parallel = entry.getValue().getTrajectory();
+                        MirroredTrajectory serial = new MirroredTrajectory(
+                                        set.getPathDefinition(entry.getKey()).generate(planner));
+                        verifySameTrajectory(entry.getKey(), serial.right, parallel.right);
+                        verifySameTrajectory(entry.getKey(), serial.left, parallel.left);
+                }
+        }
+
+        private static void verifySameTrajectory(String name, Trajectory<TimedState<Pose2dWithCurvature>> expected,
+                        Trajectory<TimedState<Pose2dWithCurvature>> actual) {
+                assertEquals(expected.length(), actual.length(), name);
+                for (int i = 0; i < expected.length(); ++i) {
+                        TimedState<Pose2dWithCurvature> a = expected.getState(i);
+                        TimedState<Pose2dWithCurvature> b = actual.getState(i);
+                        String where = name + " state " + i;
+                        assertEquals(a.t(), b.t(), 0.0, where);
+                        assertEquals(a.velocity(), b.velocity(), 0.0, where);
+                        assertEquals(a.acceleration(), b.acceleration(), 0.0, where);
+                        assertEquals(a.state().getTranslation().x(), b.state().getTranslation().x(), 0.0, where);
+                        assertEquals(a.state().getTranslation().y(), b.state().getTranslation().y(), 0.0, where);
+                        assertEquals(a.state().getRotation().cos(), b.state().getRotation().cos(), 0.0, where);
+                        assertEquals(a.state().getRotation().sin(), b.state().getRotation().sin(), 0.0, where);
+                        assertEquals(a.state().getCurvature(), b.state().getCurvature(), 0.0, where);
+                        assertEquals(a.state().getDCurvatureDs(), b.state().getDCurvatureDs(), 0.0, where);
+                }
+        }
 }
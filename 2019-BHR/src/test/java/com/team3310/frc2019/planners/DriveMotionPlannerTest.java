@@ -1,6 +1,12 @@
 package com.team3310.frc2019.planners;
 
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -9,13 +15,19 @@ import frc.team3310.robot.Kinematics;
 import frc.team3310.robot.paths.TrajectoryGenerator;
 import frc.team3310.robot.planners.DriveMotionPlanner;
 import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
 import frc.team3310.utility.lib.geometry.Rotation2d;
 import frc.team3310.utility.lib.geometry.Translation2d;
 import frc.team3310.utility.lib.geometry.Twist2d;
+import frc.team3310.utility.lib.trajectory.FeedforwardTrajectory;
 import frc.team3310.utility.lib.trajectory.LazyLoadTrajectory;
+import frc.team3310.utility.lib.trajectory.MirroredTimedTrajectory;
+import frc.team3310.utility.lib.trajectory.PackedTrajectory;
 import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
 import frc.team3310.utility.lib.trajectory.TrajectoryIterator;
 import frc.team3310.utility.lib.trajectory.timing.CentripetalAccelerationConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
 
 public class DriveMotionPlannerTest {
 
@@ -281,4 +293,93 @@ public class DriveMotionPlannerTest {
             t += 0.01;
         }
     }
+
+    @Test
+    public void testPrecomputedFeedforward() {
+        final List<Pose2d> waypoints = Arrays.asList(Pose2d.identity(),
+                Pose2d.fromTranslation(new Translation2d(48.0, 0.0)),
+                new Pose2d(new Translation2d(96.0, 48.0), Rotation2d.fromDegrees(90.0)),
+                new Pose2d(new Translation2d(96.0, 96.0), Rotation2d.fromDegrees(90.0)));
+        final DriveMotionPlanner live_planner = new DriveMotionPlanner();
+        final DriveMotionPlanner precomputed_planner = new DriveMotionPlanner();
+        precomputed_planner.setPrecomputeFeedforward(true);
+        precomputed_planner.setCheckFeedforward(true);
+        final Trajectory<TimedState<Pose2dWithCurvature>> live_trajectory = live_planner.generateTrajectory(false,
+                waypoints, null, 120.0, 120.0, 10.0);
+        final Trajectory<TimedState<Pose2dWithCurvature>> precomputed_trajectory = precomputed_planner
+                .generateTrajectory(false, waypoints, null, 120.0, 120.0, 10.0);
+        assertTrue(precomputed_trajectory instanceof FeedforwardTrajectory);
+
+        for (boolean mirrored : new boolean[]{false, true}) {
+            for (DriveMotionPlanner.FollowerType type : DriveMotionPlanner.FollowerType.values()) {
+                live_planner.reset();
+                precomputed_planner.reset();
+                live_planner.setFollowerType(type);
+                precomputed_planner.setFollowerType(type);
+                live_planner.setTrajectory(new TrajectoryIterator<>(new TimedView<>(mirrored
+                        ? new MirroredTimedTrajectory<>(live_trajectory) : live_trajectory)));
+                precomputed_planner.setTrajectory(new TrajectoryIterator<>(new TimedView<>(mirrored
+                        ? new MirroredTimedTrajectory<>(precomputed_trajectory) : precomputed_trajectory)));
+                Pose2d pose = live_planner.setpoint().state().getPose()
+                        .transformBy(new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(3.0)));
+                for (double t = 0.0; !live_planner.isDone(); t += 0.01) {
+                    DriveMotionPlanner.Output live = live_planner.update(t, pose);
+                    DriveMotionPlanner.Output precomputed = precomputed_planner.update(t, pose);
+                    // The followers add the same feedback on top, so only the feedforward may differ.
+                    assertEquals(live.left_velocity, precomputed.left_velocity, 0.05);
+                    assertEquals(live.right_velocity, precomputed.right_velocity, 0.05);
+                    assertEquals(live.left_feedforward_voltage, precomputed.left_feedforward_voltage, 0.1);
+                    assertEquals(live.right_feedforward_voltage, precomputed.right_feedforward_voltage, 0.1);
+                    pose = live_planner.setpoint().state().getPose();
+                }
+                System.out.println(type + (mirrored ? " mirrored" : "") + ": max feedforward error "
+                        + precomputed_planner.getMaxFeedforwardVoltageError() + " V, "
+                        + precomputed_planner.getMaxFeedforwardVelocityError() + " rad/s");
+                assertTrue(precomputed_planner.getMaxFeedforwardVoltageError() > 0.0);
+                assertTrue(precomputed_planner.getMaxFeedforwardVoltageError() < 0.1);
+                assertTrue(precomputed_planner.getMaxFeedforwardVelocityError() < 0.05);
+            }
+        }
+    }
+
+    @Test
+    public void testUpdateDoesNotAllocate() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean thread_bean = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        assumeTrue(thread_bean.isThreadAllocatedMemoryEnabled());
+        final long thread_id = Thread.currentThread().getId();
+
+        final DriveMotionPlanner planner = new DriveMotionPlanner();
+        planner.setPrecomputeFeedforward(true);
+        final Trajectory<TimedState<Pose2dWithCurvature>> trajectory = planner.generateTrajectory(false,
+                Arrays.asList(Pose2d.identity(), new Pose2d(new Translation2d(120.0, -36.0), Rotation2d.identity()),
+                        new Pose2d(new Translation2d(240.0, -36.0), Rotation2d.identity())),
+                Arrays.asList(new CentripetalAccelerationConstraint(120.0)), 120.0, 120.0, 10.0);
+
+        for (boolean mirrored : new boolean[]{false, true}) {
+            for (DriveMotionPlanner.FollowerType type : DriveMotionPlanner.FollowerType.values()) {
+                planner.reset();
+                planner.setFollowerType(type);
+                planner.setTrajectory(new TrajectoryIterator<>(PackedTrajectory.timedView(mirrored
+                        ? new MirroredTimedTrajectory<>(trajectory) : trajectory)));
+                final Pose2d pose = planner.setpoint().state().getPose()
+                        .transformBy(new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(3.0)));
+                // The first update may set up the follower, e.g. the pure pursuit lookahead.
+                double t = 0.0;
+                planner.update(t, pose);
+                long allocated = 0;
+                int updates = 0;
+                for (t += 0.01; !planner.isDone(); t += 0.01) {
+                    final long before = thread_bean.getThreadAllocatedBytes(thread_id);
+                    planner.update(t, pose);
+                    allocated += thread_bean.getThreadAllocatedBytes(thread_id) - before;
+                    ++updates;
+                }
+                assertTrue(updates > 100);
+                assertEquals(0L, allocated, type + (mirrored ? " mirrored" : "") + " allocated " + allocated
+                        + " bytes over " + updates + " updates");
+            }
+        }
+    }
 }
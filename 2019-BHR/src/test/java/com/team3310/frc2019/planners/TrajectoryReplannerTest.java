@@ -0,0 +1,56 @@
+package com.team3310.frc2019.planners;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.robot.planners.TrajectoryReplanner;
+import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.timing.CentripetalAccelerationConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+public class TrajectoryReplannerTest {
+    private static final Pose2d kStart = new Pose2d(40.0, -100.0, Rotation2d.fromDegrees(10.0));
+    private static final Pose2d kGoal = new Pose2d(200.0, -40.0, Rotation2d.fromDegrees(30.0));
+
+    @Test
+    public void test() throws InterruptedException {
+        TrajectoryReplanner replanner = new TrajectoryReplanner(1.0);
+
+        // Plenty of time: full resolution, starting at the current speed.
+        TrajectoryReplanner.PendingTrajectory pending = replanner.replan(false, kStart, 30.0, kGoal,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 120.0, 120.0, 10.0);
+        Trajectory<TimedState<Pose2dWithCurvature>> fine = pending.get();
+        assertNotNull(fine);
+        assertFalse(pending.isCoarse());
+        assertEquals(30.0, fine.getFirstState().velocity(), Util.kEpsilon);
+        assertTrue(fine.getFirstState().state().getPose().epsilonEquals(kStart, Util.kEpsilon));
+        assertTrue(fine.getLastState().state().getPose().epsilonEquals(kGoal, 1e-6));
+        assertEquals(0.0, fine.getLastState().velocity(), Util.kEpsilon);
+
+        // Moving backwards against a forward path: plan from rest.
+        pending = replanner.replan(false, kStart, -30.0, kGoal, null, 120.0, 120.0, 10.0);
+        assertEquals(0.0, pending.get().getFirstState().velocity(), Util.kEpsilon);
+
+        // No time at all: whichever resolution is done first once the coarse one is, never nothing.
+        replanner.setDeadline(0.0);
+        pending = replanner.replan(true, kStart, -30.0, kGoal.transformBy(Pose2d.fromRotation(
+                Rotation2d.fromDegrees(180.0))), null, 120.0, 120.0, 10.0);
+        Trajectory<TimedState<Pose2dWithCurvature>> result = pending.get();
+        assertNotNull(result);
+        assertEquals(-30.0, result.getFirstState().velocity(), Util.kEpsilon);
+        if (pending.isCoarse()) {
+            assertTrue(result.length() < fine.length());
+        }
+        replanner.shutdown();
+    }
+}
@@ -0,0 +1,118 @@
+package com.team3310.lib.control;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.InterpolatingDouble;
+import frc.team3310.utility.InterpolatingTreeMap;
+import frc.team3310.utility.lib.control.PoseHistory;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.geometry.Twist2d;
+
+public class PoseHistoryTest {
+    private static final int kCapacity = 100;
+
+    private static void assertPoseEquals(Pose2d expected, Pose2d actual) {
+        assertEquals(expected.getTranslation().x(), actual.getTranslation().x(), 0.0);
+        assertEquals(expected.getTranslation().y(), actual.getTranslation().y(), 0.0);
+        assertEquals(expected.getRotation().cos(), actual.getRotation().cos(), 0.0);
+        assertEquals(expected.getRotation().sin(), actual.getRotation().sin(), 0.0);
+    }
+
+    @Test
+    public void testMatchesInterpolatingTreeMap() {
+        InterpolatingTreeMap<InterpolatingDouble, Pose2d> map = new InterpolatingTreeMap<>(kCapacity);
+        PoseHistory history = new PoseHistory(kCapacity);
+        assertNull(history.getInterpolated(0.0));
+
+        Random random = new Random(3310);
+        Pose2d pose = new Pose2d(10.0, -5.0, Rotation2d.fromDegrees(20.0));
+        double timestamp = 0.0;
+        // Enough odometry updates to wrap the ring buffer a few times.
+        for (int i = 0; i < 5 * kCapacity; ++i) {
+            timestamp += 0.01;
+            pose = pose.transformBy(Pose2d.exp(new Twist2d(random.nextDouble(), 0.0, random.nextDouble() - 0.5)));
+            map.put(new InterpolatingDouble(timestamp), pose);
+            history.add(timestamp, pose);
+            assertEquals(map.size(), history.size());
+            assertEquals(map.lastKey().value, history.getLatestTimestamp(), 0.0);
+            assertPoseEquals(map.lastEntry().getValue(), history.getLatest());
+
+            for (int j = 0; j < 5; ++j) {
+                // Before, inside and after the recorded span, including recorded timestamps.
+                final double query = (j == 0) ? timestamp - 0.01 * random.nextInt(kCapacity + 10)
+                        : timestamp + (random.nextDouble() * 1.2 - 1.1) * kCapacity * 0.01;
+                assertPoseEquals(map.getInterpolated(new InterpolatingDouble(query)), history.getInterpolated(query));
+            }
+        }
+    }
+
+    @Test
+    public void testOutOfOrder() {
+        InterpolatingTreeMap<InterpolatingDouble, Pose2d> map = new InterpolatingTreeMap<>(4);
+        PoseHistory history = new PoseHistory(4);
+        final double[] timestamps = {1.0, 3.0, 2.0, 3.0, 5.0, 4.0};
+        for (int i = 0; i < timestamps.length; ++i) {
+            Pose2d pose = new Pose2d(i, 2.0 * i, Rotation2d.fromDegrees(10.0 * i));
+            map.put(new InterpolatingDouble(timestamps[i]), pose);
+            history.add(timestamps[i], pose);
+        }
+        assertEquals(map.size(), history.size());
+        for (double query = 0.0; query <= 6.0; query += 0.25) {
+            assertPoseEquals(map.getInterpolated(new InterpolatingDouble(query)), history.getInterpolated(query));
+        }
+    }
+
+    @Test
+    public void testTranslateFromMatchesReintegration() {
+        PoseHistory history = new PoseHistory(kCapacity);
+        assertFalse(history.translateFrom(0.0, 1.0, 1.0));
+
+        Random random = new Random(3310);
+        Twist2d[] twists = new Twist2d[50];
+        Pose2d pose = new Pose2d(1.0, 2.0, Rotation2d.fromDegrees(30.0));
+        history.add(0.0, pose);
+        for (int i = 0; i < twists.length; ++i) {
+            twists[i] = new Twist2d(random.nextDouble(), 0.0, random.nextDouble() - 0.5);
+            pose = pose.transformBy(Pose2d.exp(twists[i]));
+            history.add(0.01 * (i + 1), pose);
+        }
+
+        // Correct between two odometry updates, then integrate the odometry since then from the corrected pose.
+        final double capture = 0.205;
+        final Pose2d before = history.getInterpolated(0.2);
+        final Pose2d at_capture = history.getInterpolated(capture);
+        final Pose2d corrected = new Pose2d(at_capture.getTranslation().translateBy(new Translation2d(0.3, -0.4)),
+                at_capture.getRotation());
+        Pose2d expected = corrected.transformBy(at_capture.inverse().transformBy(history.getInterpolated(0.21)));
+        assertTrue(history.translateFrom(capture, 0.3, -0.4));
+
+        assertPoseEquals(before, history.getInterpolated(0.2));
+        assertPoseEquals(corrected, history.getInterpolated(capture));
+        for (int i = 21; i <= twists.length; ++i) {
+            Pose2d actual = history.getInterpolated(0.01 * i);
+            assertEquals(expected.getTranslation().x(), actual.getTranslation().x(), 1e-9);
+            assertEquals(expected.getTranslation().y(), actual.getTranslation().y(), 1e-9);
+            assertEquals(expected.getRotation().getRadians(), actual.getRotation().getRadians(), 1e-9);
+            if (i < twists.length) {
+                expected = expected.transformBy(Pose2d.exp(twists[i]));
+            }
+        }
+
+        // Captured before anything recorded.
+        assertFalse(history.translateFrom(-1.0, 0.3, -0.4));
+        // Captured after the newest odometry update; nothing is appended past it.
+        final Pose2d latest = history.getInterpolated(history.getLatestTimestamp());
+        assertFalse(history.translateFrom(history.getLatestTimestamp() + 0.01, 0.3, -0.4));
+        assertEquals(twists.length + 2, history.size());
+        assertPoseEquals(latest, history.getInterpolated(history.getLatestTimestamp()));
+    }
+}
@@ -0,0 +1,83 @@
+package com.team3310.lib.drivers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.lib.drivers.LazySetFilter;
+
+public class LazySetFilterTest {
+    private static final double kPercentOutputEpsilon = 0.5 / 1023.0;
+    private static final double kVelocityEpsilon = 0.5;
+    private static final double kDemand1Epsilon = 0.5 / 1023.0;
+
+    private static LazySetFilter makeFilter() {
+        LazySetFilter filter = new LazySetFilter();
+        filter.setEpsilons(kPercentOutputEpsilon, kVelocityEpsilon, kDemand1Epsilon);
+        return filter;
+    }
+
+    @Test
+    public void testExactRepeatsByDefault() {
+        LazySetFilter filter = new LazySetFilter();
+        assertTrue(filter.shouldSend(ControlMode.PercentOutput, 0.5, DemandType.Neutral, 0.0));
+        assertFalse(filter.shouldSend(ControlMode.PercentOutput, 0.5, DemandType.Neutral, 0.0));
+        assertTrue(filter.shouldSend(ControlMode.PercentOutput, 0.5 + 1e-9, DemandType.Neutral, 0.0));
+        assertEquals(2, filter.getSentCount());
+        assertEquals(1, filter.getSuppressedCount());
+    }
+
+    @Test
+    public void testPercentOutputEpsilon() {
+        LazySetFilter filter = makeFilter();
+        assertTrue(filter.shouldSend(ControlMode.PercentOutput, 0.5, DemandType.ArbitraryFeedForward, 0.0));
+        assertFalse(filter.shouldSend(ControlMode.PercentOutput, 0.5 + 0.4 / 1023.0, DemandType.ArbitraryFeedForward,
+                0.0));
+        assertTrue(filter.shouldSend(ControlMode.PercentOutput, 0.5 + 0.6 / 1023.0, DemandType.ArbitraryFeedForward,
+                0.0));
+        assertEquals(0.5 + 0.6 / 1023.0, filter.getLastDemand0(), 0.0);
+    }
+
+    @Test
+    public void testVelocityEpsilon() {
+        LazySetFilter filter = makeFilter();
+        // Velocity demands are in ticks per 100ms, so the percent output epsilon would only skip exact repeats.
+        assertTrue(filter.shouldSend(ControlMode.Velocity, 400.0, DemandType.ArbitraryFeedForward, 0.1));
+        assertFalse(filter.shouldSend(ControlMode.Velocity, 400.3, DemandType.ArbitraryFeedForward, 0.1));
+        assertFalse(filter.shouldSend(ControlMode.Velocity, 399.6, DemandType.ArbitraryFeedForward, 0.1));
+        assertTrue(filter.shouldSend(ControlMode.Velocity, 401.0, DemandType.ArbitraryFeedForward, 0.1));
+
+        // The feedforward has its own epsilon.
+        assertFalse(filter.shouldSend(ControlMode.Velocity, 401.0, DemandType.ArbitraryFeedForward,
+                0.1 + 0.4 / 1023.0));
+        assertTrue(filter.shouldSend(ControlMode.Velocity, 401.0, DemandType.ArbitraryFeedForward,
+                0.1 + 0.6 / 1023.0));
+    }
+
+    @Test
+    public void testOtherModesExact() {
+        LazySetFilter filter = makeFilter();
+        assertTrue(filter.shouldSend(ControlMode.Position, 1000.0, DemandType.Neutral, 0.0));
+        assertFalse(filter.shouldSend(ControlMode.Position, 1000.0, DemandType.Neutral, 0.0));
+        assertTrue(filter.shouldSend(ControlMode.Position, 1000.1, DemandType.Neutral, 0.0));
+    }
+
+    @Test
+    public void testModeChangeAndReset() {
+        LazySetFilter filter = makeFilter();
+        assertTrue(filter.shouldSend(ControlMode.PercentOutput, 0.0, DemandType.Neutral, 0.0));
+        assertTrue(filter.shouldSend(ControlMode.Velocity, 0.0, DemandType.Neutral, 0.0));
+        assertTrue(filter.shouldSend(ControlMode.Velocity, 0.0, DemandType.ArbitraryFeedForward, 0.0));
+        assertFalse(filter.shouldSend(ControlMode.Velocity, 0.0, DemandType.ArbitraryFeedForward, 0.0));
+
+        filter.reset();
+        assertTrue(filter.shouldSend(ControlMode.Velocity, 0.0, DemandType.ArbitraryFeedForward, 0.0));
+        assertEquals(4, filter.getSentCount());
+        assertEquals(1, filter.getSuppressedCount());
+    }
+}
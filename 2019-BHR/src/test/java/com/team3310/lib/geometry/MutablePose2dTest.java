@@ -0,0 +1,70 @@
+package com.team3310.lib.geometry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.geometry.Twist2d;
+
+public class MutablePose2dTest {
+
+    private static Pose2d randomPose(Random random) {
+        return new Pose2d(new Translation2d((random.nextDouble() - 0.5) * 200.0, (random.nextDouble() - 0.5) * 200.0),
+                Rotation2d.fromRadians((random.nextDouble() - 0.5) * 2.0 * Math.PI));
+    }
+
+    private static void assertPoseEquals(Pose2d expected, MutablePose2d actual) {
+        assertEquals(expected.getTranslation().x(), actual.getTranslation().x(), 0.0);
+        assertEquals(expected.getTranslation().y(), actual.getTranslation().y(), 0.0);
+        assertEquals(expected.getRotation().cos(), actual.getRotation().cos(), 0.0);
+        assertEquals(expected.getRotation().sin(), actual.getRotation().sin(), 0.0);
+        assertEquals(expected.getRotation().getRadians(), actual.getRotation().getRadians(), 0.0);
+    }
+
+    @Test
+    public void testMatchesPose2d() {
+        Random random = new Random(3310);
+        MutablePose2d pose = new MutablePose2d();
+        MutableTwist2d twist = new MutableTwist2d();
+        for (int i = 0; i < 1000; ++i) {
+            final Pose2d a = randomPose(random);
+            final Pose2d b = randomPose(random);
+            // Include the small angle branches of exp and log.
+            final double dtheta = (i % 4 == 0) ? 1E-12 : (random.nextDouble() - 0.5);
+            final Twist2d delta = new Twist2d(random.nextDouble() * 5.0, 0.0, dtheta);
+
+            assertPoseEquals(a.transformBy(b), pose.set(a).transformBy(b));
+            assertPoseEquals(a.inverse(), pose.set(a).inverse());
+            assertPoseEquals(a.inverse().transformBy(b), pose.set(a).inverse().transformBy(b));
+            assertPoseEquals(a.transformBy(Pose2d.exp(delta)), pose.set(a).transformByExp(delta));
+
+            final Pose2d small = a.transformBy(Pose2d.exp(delta)).inverse().transformBy(a);
+            final Twist2d expected = Pose2d.log(small);
+            pose.set(small).log(twist);
+            assertEquals(expected.dx, twist.dx, 0.0);
+            assertEquals(expected.dy, twist.dy, 0.0);
+            assertEquals(expected.dtheta, twist.dtheta, 0.0);
+        }
+    }
+
+    @Test
+    public void testRotationDistanceMatchesComposition() {
+        Random random = new Random(3310);
+        for (int i = 0; i < 1000; ++i) {
+            final Rotation2d a = Rotation2d.fromRadians((random.nextDouble() - 0.5) * 2.0 * Math.PI);
+            final Rotation2d b = Rotation2d.fromRadians((random.nextDouble() - 0.5) * 2.0 * Math.PI);
+            final double expected = Math.atan2(a.inverse().rotateBy(b).sin(), a.inverse().rotateBy(b).cos());
+            assertEquals(expected, a.distance(b), 0.0);
+            // Cached angle is the same as computing it.
+            assertEquals(Math.atan2(a.sin(), a.cos()), a.getRadians(), 0.0);
+            assertEquals(a.getRadians(), a.getRadians(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.team3310.lib.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.lib.physics.DCMotorTransmission;
+import frc.team3310.utility.lib.physics.DifferentialDrive;
+import frc.team3310.utility.lib.physics.DifferentialDriveDynamicsTable;
+
+public class DifferentialDriveDynamicsTableTest {
+    private static final double kMaxVoltage = 10.0;
+
+    private static DifferentialDrive makeDrive() {
+        DCMotorTransmission transmission = new DCMotorTransmission(3.0, 0.4, 1.0);
+        return new DifferentialDrive(60.0, 6.0, 12.0, 0.0762, 0.4, transmission, transmission);
+    }
+
+    @Test
+    public void testMatchesExact() {
+        final DifferentialDrive drive = makeDrive();
+        final DifferentialDriveDynamicsTable table = new DifferentialDriveDynamicsTable(drive, kMaxVoltage);
+        assertTrue(table.max_acceleration_error() <= 0.02);
+
+        final double max_velocity = drive.getMaxAbsVelocity(0.0, kMaxVoltage);
+        final DifferentialDrive.MinMax result = new DifferentialDrive.MinMax();
+        Random random = new Random(3310);
+        for (int i = 0; i < 10000; ++i) {
+            final double curvature = (random.nextDouble() - 0.5) * 20.0;
+            final double velocity = (random.nextDouble() * 2.0 - 1.0) * max_velocity;
+
+            assertEquals(drive.getMaxAbsVelocity(curvature, kMaxVoltage), table.getMaxAbsVelocity(curvature), 1E-3);
+
+            DifferentialDrive.MinMax exact = drive.getMinMaxAcceleration(new DifferentialDrive.ChassisState(velocity,
+                    curvature * velocity), curvature, kMaxVoltage);
+            table.getMinMaxAcceleration(velocity, curvature, result);
+            if (exact.min > exact.max) {
+                continue;
+            }
+            assertEquals(exact.min, result.min, 0.05);
+            assertEquals(exact.max, result.max, 0.05);
+        }
+    }
+
+    @Test
+    public void testStartsFromRestExactly() {
+        final DifferentialDrive drive = makeDrive();
+        final DifferentialDriveDynamicsTable table = new DifferentialDriveDynamicsTable(drive, kMaxVoltage);
+        final DifferentialDrive.MinMax result = new DifferentialDrive.MinMax();
+        for (double curvature : new double[]{0.0, 0.5, -2.0}) {
+            DifferentialDrive.MinMax exact = drive.getMinMaxAcceleration(new DifferentialDrive.ChassisState(0.0, 0.0),
+                    curvature, kMaxVoltage);
+            table.getMinMaxAcceleration(0.0, curvature, result);
+            assertEquals(exact.min, result.min, 0.0);
+            assertEquals(exact.max, result.max, 0.0);
+        }
+    }
+
+    @Test
+    public void testReused() {
+        final DifferentialDrive drive = makeDrive();
+        assertSame(DifferentialDriveDynamicsTable.get(drive, kMaxVoltage),
+                DifferentialDriveDynamicsTable.get(drive, kMaxVoltage));
+        assertNotSame(DifferentialDriveDynamicsTable.get(drive, kMaxVoltage),
+                DifferentialDriveDynamicsTable.get(drive, kMaxVoltage - 1.0));
+
+        // A separately constructed model of the same drive shares the table; a different drive does not.
+        assertSame(DifferentialDriveDynamicsTable.get(drive, kMaxVoltage),
+                DifferentialDriveDynamicsTable.get(makeDrive(), kMaxVoltage));
+        DCMotorTransmission transmission = new DCMotorTransmission(3.0, 0.4, 1.0);
+        assertNotSame(DifferentialDriveDynamicsTable.get(drive, kMaxVoltage), DifferentialDriveDynamicsTable.get(
+                new DifferentialDrive(70.0, 6.0, 12.0, 0.0762, 0.4, transmission, transmission), kMaxVoltage));
+    }
+}
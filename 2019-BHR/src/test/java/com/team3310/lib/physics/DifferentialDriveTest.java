@@ -0,0 +1,57 @@
+package com.team3310.lib.physics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.lib.physics.DCMotorTransmission;
+import frc.team3310.utility.lib.physics.DifferentialDrive;
+
+public class DifferentialDriveTest {
+
+    @Test
+    public void testInPlaceMatchesAllocating() {
+        DCMotorTransmission transmission = new DCMotorTransmission(3.0, 0.4, 1.0);
+        DifferentialDrive drive = new DifferentialDrive(60.0, 6.0, 12.0, 0.0762, 0.4, transmission, transmission);
+
+        DifferentialDrive.WheelState wheels = new DifferentialDrive.WheelState(10.0, 14.0);
+        DifferentialDrive.ChassisState chassis = new DifferentialDrive.ChassisState();
+        drive.solveForwardKinematics(wheels, chassis);
+        assertEquals(drive.solveForwardKinematics(wheels).linear, chassis.linear, 0.0);
+        assertEquals(drive.solveForwardKinematics(wheels).angular, chassis.angular, 0.0);
+
+        DifferentialDrive.WheelState result = new DifferentialDrive.WheelState();
+        drive.solveInverseKinematics(chassis, result);
+        assertEquals(drive.solveInverseKinematics(chassis).left, result.left, 0.0);
+        assertEquals(drive.solveInverseKinematics(chassis).right, result.right, 0.0);
+
+        DifferentialDrive.ChassisState velocity = new DifferentialDrive.ChassisState(1.5, 0.8);
+        DifferentialDrive.ChassisState acceleration = new DifferentialDrive.ChassisState(0.5, -0.3);
+        DifferentialDrive.DriveDynamics expected = drive.solveInverseDynamics(velocity, acceleration);
+        DifferentialDrive.DriveDynamics dynamics = new DifferentialDrive.DriveDynamics();
+        drive.solveInverseDynamics(velocity, acceleration, dynamics);
+        assertDynamicsEquals(expected, dynamics);
+
+        // Inputs that are the output's own fields.
+        drive.solveInverseDynamics(dynamics.chassis_velocity, dynamics.chassis_acceleration, dynamics);
+        assertDynamicsEquals(expected, dynamics);
+    }
+
+    private static void assertDynamicsEquals(DifferentialDrive.DriveDynamics expected,
+                                             DifferentialDrive.DriveDynamics actual) {
+        assertEquals(expected.curvature, actual.curvature, 0.0);
+        assertEquals(expected.dcurvature, actual.dcurvature, 0.0);
+        assertEquals(expected.chassis_velocity.linear, actual.chassis_velocity.linear, 0.0);
+        assertEquals(expected.chassis_velocity.angular, actual.chassis_velocity.angular, 0.0);
+        assertEquals(expected.chassis_acceleration.linear, actual.chassis_acceleration.linear, 0.0);
+        assertEquals(expected.chassis_acceleration.angular, actual.chassis_acceleration.angular, 0.0);
+        assertEquals(expected.wheel_velocity.left, actual.wheel_velocity.left, 0.0);
+        assertEquals(expected.wheel_velocity.right, actual.wheel_velocity.right, 0.0);
+        assertEquals(expected.wheel_acceleration.left, actual.wheel_acceleration.left, 0.0);
+        assertEquals(expected.wheel_acceleration.right, actual.wheel_acceleration.right, 0.0);
+        assertEquals(expected.wheel_torque.left, actual.wheel_torque.left, 0.0);
+        assertEquals(expected.wheel_torque.right, actual.wheel_torque.right, 0.0);
+        assertEquals(expected.voltage.left, actual.voltage.left, 0.0);
+        assertEquals(expected.voltage.right, actual.voltage.right, 0.0);
+    }
+}
@@ -64,4 +64,45 @@ public class QuinticHermiteOptimizerTest {
         assertEquals(splines2.get(2).getCurvature(1.0), 0.0, kEpsilon);
         System.out.println("Optimization time (ms): " + (System.currentTimeMillis() - startTime));
     }
+
+    @Test
+    public void testAnalytic() {
+        Pose2d a = new Pose2d(new Translation2d(0, 100), Rotation2d.fromDegrees(270));
+        Pose2d b = new Pose2d(new Translation2d(50, 0), Rotation2d.fromDegrees(0));
+        Pose2d c = new Pose2d(new Translation2d(100, 100), Rotation2d.fromDegrees(90));
+
+        List<QuinticHermiteSpline> splines = new ArrayList<>();
+        splines.add(new QuinticHermiteSpline(a, b));
+        splines.add(new QuinticHermiteSpline(b, c));
+        assertTrue(QuinticHermiteSpline.optimizeSplineAnalytic(splines) < 0.014);
+        assertTrue(QuinticHermiteSpline.sumDCurvature2(splines) < 0.014);
+
+        Pose2d d = new Pose2d(new Translation2d(0, 0), Rotation2d.fromDegrees(90));
+        Pose2d e = new Pose2d(new Translation2d(0, 50), Rotation2d.fromDegrees(0));
+        Pose2d f = new Pose2d(new Translation2d(100, 0), Rotation2d.fromDegrees(90));
+        Pose2d g = new Pose2d(new Translation2d(100, 100), Rotation2d.fromDegrees(0));
+
+        List<QuinticHermiteSpline> splines1 = new ArrayList<>();
+        splines1.add(new QuinticHermiteSpline(d, e));
+        splines1.add(new QuinticHermiteSpline(e, f));
+        splines1.add(new QuinticHermiteSpline(f, g));
+        assertTrue(QuinticHermiteSpline.optimizeSplineAnalytic(splines1) < 0.16);
+        assertTrue(QuinticHermiteSpline.sumDCurvature2(splines1) < 0.16);
+
+        Pose2d h = new Pose2d(new Translation2d(0, 0), Rotation2d.fromDegrees(0));
+        Pose2d i = new Pose2d(new Translation2d(50, 0), Rotation2d.fromDegrees(0));
+        Pose2d j = new Pose2d(new Translation2d(100, 50), Rotation2d.fromDegrees(45));
+        Pose2d k = new Pose2d(new Translation2d(150, 0), Rotation2d.fromDegrees(270));
+        Pose2d l = new Pose2d(new Translation2d(150, -50), Rotation2d.fromDegrees(270));
+
+        List<QuinticHermiteSpline> splines2 = new ArrayList<>();
+        splines2.add(new QuinticHermiteSpline(h, i));
+        splines2.add(new QuinticHermiteSpline(i, j));
+        splines2.add(new QuinticHermiteSpline(j, k));
+        splines2.add(new QuinticHermiteSpline(k, l));
+        assertTrue(QuinticHermiteSpline.optimizeSplineAnalytic(splines2) < 0.05);
+        assertTrue(QuinticHermiteSpline.sumDCurvature2(splines2) < 0.05);
+        assertEquals(splines2.get(0).getCurvature(1.0), 0.0, kEpsilon);
+        assertEquals(splines2.get(2).getCurvature(1.0), 0.0, kEpsilon);
+    }
 }
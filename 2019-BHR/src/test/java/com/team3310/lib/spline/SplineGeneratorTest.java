@@ -1,7 +1,10 @@
 package com.team3310.lib.spline;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -41,4 +44,66 @@ public class SplineGeneratorTest {
         assertEquals(cur_pose.getRotation().getDegrees(), -78.69006752597981, kTestEpsilon);
         assertEquals(arclength, 23.17291953186379, kTestEpsilon);
     }
+
+    // The original recursive implementation, kept as a reference for the iterative one.
+    private static void getSegmentArcRecursive(Spline s, List<Pose2dWithCurvature> rv, double t0, double t1) {
+        Translation2d p0 = s.getPoint(t0);
+        Translation2d p1 = s.getPoint(t1);
+        Rotation2d r0 = s.getHeading(t0);
+        Rotation2d r1 = s.getHeading(t1);
+        Pose2d transformation = new Pose2d(new Translation2d(p0, p1).rotateBy(r0.inverse()), r1.rotateBy(r0.inverse()));
+        Twist2d twist = Pose2d.log(transformation);
+        if (twist.dy > 0.05 || twist.dx > 2.0 || twist.dtheta > 0.1) {
+            getSegmentArcRecursive(s, rv, t0, (t0 + t1) / 2);
+            getSegmentArcRecursive(s, rv, (t0 + t1) / 2, t1);
+        } else {
+            rv.add(s.getPose2dWithCurvature(t1));
+        }
+    }
+
+    @Test
+    public void testMatchesRecursive() {
+        List<QuinticHermiteSpline> splines = new ArrayList<>();
+        List<Pose2d> waypoints = Arrays.asList(new Pose2d(0, 0, Rotation2d.identity()),
+                new Pose2d(100, 40, Rotation2d.fromDegrees(90)),
+                new Pose2d(60, 120, Rotation2d.fromDegrees(180)),
+                new Pose2d(-30, 80, Rotation2d.fromDegrees(-45)));
+        for (int i = 1; i < waypoints.size(); ++i) {
+            splines.add(new QuinticHermiteSpline(waypoints.get(i - 1), waypoints.get(i)));
+        }
+
+        List<Pose2dWithCurvature> expected = new ArrayList<>();
+        expected.add(splines.get(0).getPose2dWithCurvature(0.0));
+        for (Spline s : splines) {
+            getSegmentArcRecursive(s, expected, 0.0, 1.0);
+        }
+
+        List<Pose2dWithCurvature> actual = SplineGenerator.parameterizeSplines(splines, 2.0, 0.05, 0.1);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            Pose2dWithCurvature e = expected.get(i);
+            Pose2dWithCurvature a = actual.get(i);
+            assertEquals(e.getTranslation().x(), a.getTranslation().x(), 0.0);
+            assertEquals(e.getTranslation().y(), a.getTranslation().y(), 0.0);
+            assertEquals(e.getRotation().cos(), a.getRotation().cos(), 0.0);
+            assertEquals(e.getRotation().sin(), a.getRotation().sin(), 0.0);
+            assertEquals(e.getCurvature(), a.getCurvature(), 0.0);
+            assertEquals(e.getDCurvatureDs(), a.getDCurvatureDs(), 0.0);
+        }
+    }
+
+    @Test
+    public void testDegenerate() {
+        // Ending a straight line pointed backwards puts a cusp in the spline where the heading flips instantly, so no
+        // segment containing it ever passes the heading check. The split depth is bounded so this terminates instead of
+        // bisecting down to machine precision.
+        Spline s = new QuinticHermiteSpline(new Pose2d(0, 0, Rotation2d.identity()),
+                new Pose2d(10, 0, Rotation2d.fromDegrees(180)));
+        List<Pose2dWithCurvature> path = new ArrayList<>();
+        SplineGenerator.parameterizeSegment(s, path, 0.0, 1.0, 2.0, 0.05, 0.1);
+        assertTrue(path.size() > 1);
+        assertTrue(path.size() < 1000);
+        assertEquals(10.0, path.get(path.size() - 1).getTranslation().x(), kTestEpsilon);
+        assertEquals(0.0, path.get(path.size() - 1).getTranslation().y(), kTestEpsilon);
+    }
 }
@@ -35,6 +35,14 @@ public class DistanceViewTest {
         assertEquals(waypoints.get(0), distance_view.sample(0.0).state());
         assertEquals(waypoints.get(0).interpolate(waypoints.get(1), 0.5), distance_view.sample(12.0).state());
         assertEquals(waypoints.get(3).interpolate(waypoints.get(4), 0.5), distance_view.sample(72.0).state());
+
+        // Sampling backwards, forwards and out of order gives the same answer as a fresh view.
+        for (double distance : new double[]{80.0, 10.0, 24.0, 24.5, 36.0, 35.9, 50.0, 84.0, 1.0, 60.0, 60.0}) {
+            assertEquals(new DistanceView<>(trajectory).sample(distance).state(),
+                    distance_view.sample(distance).state());
+            assertEquals(new DistanceView<>(trajectory).sample(distance).index_floor(),
+                    distance_view.sample(distance).index_floor());
+        }
     }
 
 }
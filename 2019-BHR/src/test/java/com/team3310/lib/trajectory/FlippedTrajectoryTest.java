@@ -0,0 +1,41 @@
+package com.team3310.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.trajectory.FlippedTrajectory;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+
+public class FlippedTrajectoryTest {
+    public static final double kTestEpsilon = Util.kEpsilon;
+
+    @Test
+    public void test() {
+        Trajectory<Pose2dWithCurvature> traj = new Trajectory<>(Arrays.asList(
+                new Pose2dWithCurvature(new Pose2d(new Translation2d(0.0, 0.0), Rotation2d.fromDegrees(0.0)), 0.1, 0.01),
+                new Pose2dWithCurvature(new Pose2d(new Translation2d(10.0, 5.0), Rotation2d.fromDegrees(45.0)), -0.2,
+                        0.0)));
+        FlippedTrajectory flipped = new FlippedTrajectory(traj);
+
+        assertEquals(traj.length(), flipped.length());
+        for (int i = 0; i < traj.length(); ++i) {
+            Pose2dWithCurvature state = flipped.getState(i);
+            assertEquals(traj.getState(i).getTranslation().x(), state.getTranslation().x(), kTestEpsilon);
+            assertEquals(traj.getState(i).getTranslation().y(), state.getTranslation().y(), kTestEpsilon);
+            assertEquals(-traj.getState(i).getRotation().cos(), state.getRotation().cos(), kTestEpsilon);
+            assertEquals(-traj.getState(i).getRotation().sin(), state.getRotation().sin(), kTestEpsilon);
+            assertEquals(-traj.getState(i).getCurvature(), state.getCurvature(), kTestEpsilon);
+            assertEquals(traj.getState(i).getDCurvatureDs(), state.getDCurvatureDs(), kTestEpsilon);
+        }
+        assertTrue(flipped.getSource() == traj);
+    }
+}
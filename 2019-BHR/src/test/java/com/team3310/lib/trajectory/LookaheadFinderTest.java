@@ -0,0 +1,84 @@
+package com.team3310.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.lib.geometry.Translation2d;
+import frc.team3310.utility.lib.trajectory.DistanceView;
+import frc.team3310.utility.lib.trajectory.LookaheadFinder;
+import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingUtil;
+
+public class LookaheadFinderTest {
+    private static final List<Translation2d> kWaypoints = Arrays.asList(new Translation2d(0.0, 0.0),
+            new Translation2d(24.0, 0.0), new Translation2d(36.0, 12.0), new Translation2d(60.0, 12.0));
+
+    private static Trajectory<TimedState<Translation2d>> trajectory(boolean reverse) {
+        return TimingUtil.timeParameterizeTrajectory(reverse, new DistanceView<>(new Trajectory<>(kWaypoints)), 2.0,
+                Collections.emptyList(), 0.0, 0.0, 20.0, 5.0);
+    }
+
+    @Test
+    public void testDistance() {
+        Trajectory<TimedState<Translation2d>> trajectory = trajectory(false);
+        TimedView<Translation2d> view = new TimedView<>(trajectory);
+        LookaheadFinder<Translation2d> finder = new LookaheadFinder<>(trajectory);
+
+        // Straight segments, so the distance along the path is the distance from the nearest corner.
+        final double kCorner = 24.0;
+        double last = 0.0;
+        for (double t = 0.0; t <= view.last_interpolant() + 0.1; t += 0.01) {
+            final double distance = finder.getDistance(t);
+            final Translation2d position = view.sample(t).state().state();
+            if (distance <= kCorner) {
+                assertEquals(position.x(), distance, 1e-9);
+            }
+            assertTrue(distance >= last);
+            last = distance;
+        }
+        double total = 0.0;
+        for (int i = 1; i < trajectory.length(); ++i) {
+            total += trajectory.getState(i - 1).state().distance(trajectory.getState(i).state());
+        }
+        assertEquals(total, last, 1e-9);
+    }
+
+    @Test
+    public void testLookaheadTime() {
+        for (boolean reverse : new boolean[]{false, true}) {
+            Trajectory<TimedState<Translation2d>> trajectory = trajectory(reverse);
+            LookaheadFinder<Translation2d> finder = new LookaheadFinder<>(trajectory);
+            LookaheadFinder<Translation2d> reference = new LookaheadFinder<>(trajectory);
+            LookaheadFinder<Translation2d> with_distance = new LookaheadFinder<>(trajectory);
+            final double end = trajectory.getState(trajectory.length() - 1).t();
+            final double kMinTime = 0.4;
+            final double kMinDistance = 6.0;
+            for (double t = 0.0; t <= end; t += 0.01) {
+                final double lookahead = finder.getLookaheadTime(t, kMinTime, kMinDistance);
+                assertEquals(lookahead, with_distance.getLookaheadTime(t, with_distance.getDistance(t), kMinTime,
+                        kMinDistance), 0.0);
+
+                // Brute force: step forward until both minimums are met.
+                final double distance = reference.getDistance(t);
+                double expected = Math.min(end, t + kMinTime);
+                while (expected < end && reference.getDistance(expected) - distance < kMinDistance) {
+                    expected = Math.min(end, expected + 1e-5);
+                }
+                assertEquals(expected, lookahead, 1e-4);
+                assertTrue(lookahead >= Math.min(end, t + kMinTime));
+            }
+
+            // Going back in time falls back to a search from scratch.
+            assertEquals(finder.getLookaheadTime(0.0, 0.0, kMinDistance),
+                    new LookaheadFinder<>(trajectory).getLookaheadTime(0.0, 0.0, kMinDistance), 0.0);
+        }
+    }
+}
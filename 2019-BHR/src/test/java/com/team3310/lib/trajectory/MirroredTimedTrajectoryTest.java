@@ -0,0 +1,67 @@
+package com.team3310.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.trajectory.DistanceView;
+import frc.team3310.utility.lib.trajectory.MirroredTimedTrajectory;
+import frc.team3310.utility.lib.trajectory.MirroredTrajectory;
+import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryUtil;
+import frc.team3310.utility.lib.trajectory.timing.CentripetalAccelerationConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingUtil;
+
+public class MirroredTimedTrajectoryTest {
+    public static final double kTestEpsilon = Util.kEpsilon;
+
+    public static final List<Pose2d> kWaypoints = Arrays.asList(
+            new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0)),
+            new Pose2d(100.0, -48.0, Rotation2d.fromDegrees(-90.0)));
+
+    private static void assertStatesEqual(TimedState<Pose2dWithCurvature> expected,
+                                          TimedState<Pose2dWithCurvature> actual) {
+        assertTrue(expected.state().equals(actual.state()));
+        assertEquals(expected.state().getCurvature(), actual.state().getCurvature(), kTestEpsilon);
+        assertEquals(expected.state().getDCurvatureDs(), actual.state().getDCurvatureDs(), kTestEpsilon);
+        assertEquals(expected.t(), actual.t(), kTestEpsilon);
+        assertEquals(expected.velocity(), actual.velocity(), kTestEpsilon);
+        assertEquals(expected.acceleration(), actual.acceleration(), kTestEpsilon);
+    }
+
+    @Test
+    public void test() {
+        Trajectory<TimedState<Pose2dWithCurvature>> traj = TimingUtil.timeParameterizeTrajectory(false,
+                new DistanceView<>(TrajectoryUtil.trajectoryFromSplineWaypoints(kWaypoints, 2.0, 0.25,
+                        Math.toRadians(5.0))), 2.0,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 0.0, 0.0, 120.0, 120.0);
+        Trajectory<TimedState<Pose2dWithCurvature>> expected = TrajectoryUtil.mirrorTimed(traj);
+        MirroredTimedTrajectory<Pose2dWithCurvature> mirrored = new MirroredTimedTrajectory<>(traj);
+
+        assertEquals(expected.length(), mirrored.length());
+        for (int i = 0; i < expected.length(); ++i) {
+            assertStatesEqual(expected.getState(i), mirrored.getState(i));
+            assertEquals(i, mirrored.getPoint(i).index());
+        }
+
+        TimedView<Pose2dWithCurvature> expected_view = new TimedView<>(expected);
+        TimedView<Pose2dWithCurvature> mirrored_view = new TimedView<>(mirrored);
+        for (double t = 0.0; t < expected_view.last_interpolant(); t += 0.05) {
+            assertStatesEqual(expected_view.sample(t).state(), mirrored_view.sample(t).state());
+        }
+
+        MirroredTrajectory both = new MirroredTrajectory(traj);
+        assertTrue(both.get(false) == traj);
+        assertStatesEqual(expected.getLastState(), both.get(true).getLastState());
+    }
+}
@@ -0,0 +1,136 @@
+package com.team3310.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.trajectory.DistanceView;
+import frc.team3310.utility.lib.trajectory.MirroredTimedTrajectory;
+import frc.team3310.utility.lib.trajectory.PackedTrajectory;
+import frc.team3310.utility.lib.trajectory.TimedPoseSample;
+import frc.team3310.utility.lib.trajectory.TimedView;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectorySamplePoint;
+import frc.team3310.utility.lib.trajectory.TrajectoryUtil;
+import frc.team3310.utility.lib.trajectory.TrajectoryView;
+import frc.team3310.utility.lib.trajectory.timing.CentripetalAccelerationConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+import frc.team3310.utility.lib.trajectory.timing.TimingUtil;
+
+public class PackedTrajectoryTest {
+    public static final double kTestEpsilon = Util.kEpsilon;
+
+    public static final List<Pose2d> kWaypoints = Arrays.asList(
+            new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0)),
+            new Pose2d(100.0, 48.0, Rotation2d.fromDegrees(90.0)));
+
+    private static void assertStatesEqual(TimedState<Pose2dWithCurvature> expected,
+                                          TimedState<Pose2dWithCurvature> actual) {
+        assertTrue(expected.state().equals(actual.state()));
+        assertEquals(expected.t(), actual.t(), kTestEpsilon);
+        assertEquals(expected.velocity(), actual.velocity(), kTestEpsilon);
+        assertEquals(expected.acceleration(), actual.acceleration(), kTestEpsilon);
+    }
+
+    @Test
+    public void test() {
+        Trajectory<TimedState<Pose2dWithCurvature>> traj = TimingUtil.timeParameterizeTrajectory(false,
+                new DistanceView<>(TrajectoryUtil.trajectoryFromSplineWaypoints(kWaypoints, 2.0, 0.25,
+                        Math.toRadians(5.0))), 2.0,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 0.0, 0.0, 120.0, 120.0);
+        PackedTrajectory packed = new PackedTrajectory(traj);
+
+        assertEquals(traj.length(), packed.length());
+        for (int i = 0; i < traj.length(); ++i) {
+            assertStatesEqual(traj.getState(i), packed.getState(i));
+            assertEquals(i, packed.getPoint(i).index());
+        }
+
+        // Sampling by time matches the object trajectory, both through the generic and the packed view.
+        TimedView<Pose2dWithCurvature> view = new TimedView<>(traj);
+        TimedView<Pose2dWithCurvature> generic_packed_view = new TimedView<>(packed);
+        PackedTrajectory.PackedTimedView packed_view = packed.getTimedView();
+        assertEquals(view.first_interpolant(), packed_view.first_interpolant(), kTestEpsilon);
+        assertEquals(view.last_interpolant(), packed_view.last_interpolant(), kTestEpsilon);
+        for (double t = -0.1; t < view.last_interpolant() + 0.1; t += 0.013) {
+            assertStatesEqual(view.sample(t).state(), packed_view.sample(t).state());
+            assertStatesEqual(view.sample(t).state(), generic_packed_view.sample(t).state());
+            assertEquals(view.sample(t).index_floor(), packed_view.sample(t).index_floor());
+            assertEquals(view.sample(t).index_ceil(), packed_view.sample(t).index_ceil());
+        }
+
+        // Mirroring matches TrajectoryUtil.
+        Trajectory<TimedState<Pose2dWithCurvature>> mirrored = TrajectoryUtil.mirrorTimed(traj);
+        PackedTrajectory packed_mirrored = packed.mirror();
+        for (int i = 0; i < traj.length(); ++i) {
+            assertStatesEqual(mirrored.getState(i), packed_mirrored.getState(i));
+        }
+    }
+
+    @Test
+    public void testTimedViewMatchesExactly() {
+        for (boolean reversed : new boolean[]{false, true}) {
+            Trajectory<TimedState<Pose2dWithCurvature>> traj = TimingUtil.timeParameterizeTrajectory(reversed,
+                    new DistanceView<>(TrajectoryUtil.trajectoryFromSplineWaypoints(kWaypoints, 2.0, 0.25,
+                            Math.toRadians(5.0))), 2.0,
+                    Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 0.0, 0.0, 120.0, 120.0);
+            PackedTrajectory packed = new PackedTrajectory(traj);
+            for (boolean mirrored : new boolean[]{false, true}) {
+                Trajectory<TimedState<Pose2dWithCurvature>> trajectory = mirrored
+                        ? new MirroredTimedTrajectory<>(packed) : packed;
+                TimedView<Pose2dWithCurvature> expected_view = new TimedView<>(trajectory);
+                TrajectoryView<TimedState<Pose2dWithCurvature>> view = PackedTrajectory.timedView(trajectory);
+                assertTrue(view instanceof PackedTrajectory.PackedTimedView);
+                assertSame(mirrored, view.trajectory() instanceof MirroredTimedTrajectory);
+                TimedPoseSample sample = new TimedPoseSample();
+                for (double t = -0.1; t < expected_view.last_interpolant() + 0.1; t += 0.007) {
+                    TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> expected = expected_view.sample(t);
+                    TrajectorySamplePoint<TimedState<Pose2dWithCurvature>> actual = view.sample(t);
+                    assertEquals(expected.index_floor(), actual.index_floor());
+                    assertEquals(expected.index_ceil(), actual.index_ceil());
+                    Pose2dWithCurvature expected_state = expected.state().state();
+                    Pose2dWithCurvature actual_state = actual.state().state();
+                    assertEquals(expected_state.getTranslation().x(), actual_state.getTranslation().x(), 0.0);
+                    assertEquals(expected_state.getTranslation().y(), actual_state.getTranslation().y(), 0.0);
+                    assertEquals(expected_state.getRotation().cos(), actual_state.getRotation().cos(), 0.0);
+                    assertEquals(expected_state.getRotation().sin(), actual_state.getRotation().sin(), 0.0);
+                    assertEquals(expected_state.getCurvature(), actual_state.getCurvature(), 0.0);
+                    assertEquals(expected_state.getDCurvatureDs(), actual_state.getDCurvatureDs(), 0.0);
+                    assertEquals(expected.state().t(), actual.state().t(), 0.0);
+                    assertEquals(expected.state().velocity(), actual.state().velocity(), 0.0);
+                    assertEquals(expected.state().acceleration(), actual.state().acceleration(), 0.0);
+
+                    // Sampling in place gives the same sample.
+                    ((PackedTrajectory.PackedTimedView) view).sample(t, sample);
+                    assertEquals(expected.index_floor(), sample.index_floor);
+                    assertEquals(expected.index_ceil(), sample.index_ceil);
+                    assertEquals(expected_state.getTranslation().x(), sample.pose.getTranslation().x(), 0.0);
+                    assertEquals(expected_state.getTranslation().y(), sample.pose.getTranslation().y(), 0.0);
+                    assertEquals(expected_state.getRotation().cos(), sample.pose.getRotation().cos(), 0.0);
+                    assertEquals(expected_state.getRotation().sin(), sample.pose.getRotation().sin(), 0.0);
+                    assertEquals(expected_state.getCurvature(), sample.curvature, 0.0);
+                    assertEquals(expected_state.getDCurvatureDs(), sample.dcurvature_ds, 0.0);
+                    assertEquals(expected.state().t(), sample.t, 0.0);
+                    assertEquals(expected.state().velocity(), sample.velocity, 0.0);
+                    assertEquals(expected.state().acceleration(), sample.acceleration, 0.0);
+                }
+            }
+        }
+
+        // Anything else gets the generic view.
+        Trajectory<TimedState<Pose2dWithCurvature>> traj = TimingUtil.timeParameterizeTrajectory(false,
+                new DistanceView<>(TrajectoryUtil.trajectoryFromSplineWaypoints(kWaypoints, 2.0, 0.25,
+                        Math.toRadians(5.0))), 2.0,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 0.0, 0.0, 120.0, 120.0);
+        assertTrue(PackedTrajectory.timedView(traj) instanceof TimedView);
+    }
+}
@@ -1,5 +1,6 @@
 package com.team3310.lib.trajectory;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Arrays;
@@ -7,6 +8,8 @@ import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import frc.team3310.utility.lib.geometry.MutablePose2d;
+import frc.team3310.utility.lib.geometry.MutableTwist2d;
 import frc.team3310.utility.lib.geometry.Pose2d;
 import frc.team3310.utility.lib.geometry.Rotation2d;
 import frc.team3310.utility.lib.geometry.Translation2d;
@@ -45,6 +48,26 @@ public class PurePursuitControllerTest {
         assertTrue(i < kMaxIter);
     }
 
+    @Test
+    public void testArcRadius() {
+        MutablePose2d scratch = new MutablePose2d();
+        MutableTwist2d twist = new MutableTwist2d();
+        List<Pose2d> poses = Arrays.asList(Pose2d.identity(), new Pose2d(10.0, -5.0, Rotation2d.fromDegrees(30.0)),
+                new Pose2d(-3.0, 7.0, Rotation2d.fromDegrees(-180.0)),
+                new Pose2d(1.0, 1.0, Rotation2d.fromDegrees(90.0)));
+        for (Pose2d pose : poses) {
+            for (double angle = -180.0; angle < 180.0; angle += 7.5) {
+                for (double distance : new double[]{0.0, 1e-12, 0.5, 12.0, 100.0}) {
+                    // Includes points straight ahead of and behind the pose, where the radius is infinite.
+                    Translation2d point = pose.transformBy(Pose2d.fromTranslation(
+                            Rotation2d.fromDegrees(angle).toTranslation().scale(distance))).getTranslation();
+                    assertEquals(new PurePursuitController.Arc<>(pose, point).radius,
+                            PurePursuitController.Arc.getRadius(pose, point.x(), point.y(), scratch, twist), 0.0);
+                }
+            }
+        }
+    }
+
     // @Test
     // public void testTheta180() {
     //     List<Pose2d> waypoints = Arrays.asList(kLoadingPose, kCargoSideTurnToLoadingPose );
@@ -0,0 +1,110 @@
+package com.team3310.lib.trajectory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.Util;
+import frc.team3310.utility.lib.geometry.Pose2d;
+import frc.team3310.utility.lib.geometry.Pose2dWithCurvature;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.TrajectoryCache;
+import frc.team3310.utility.lib.trajectory.timing.CentripetalAccelerationConstraint;
+import frc.team3310.utility.lib.trajectory.timing.TimedState;
+
+public class TrajectoryCacheTest {
+    public static final double kTestEpsilon = Util.kEpsilon;
+
+    public static final List<Pose2d> kWaypoints = Arrays.asList(
+            new Pose2d(0.0, 0.0, Rotation2d.fromDegrees(0.0)),
+            new Pose2d(100.0, 24.0, Rotation2d.fromDegrees(45.0)));
+
+    private File mDirectory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        mDirectory = Files.createTempDirectory("trajectory_cache").toFile();
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(mDirectory.toPath())) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testKey() {
+        String key = TrajectoryCache.key(false, kWaypoints, Arrays.asList(new CentripetalAccelerationConstraint(110.0)),
+                120.0);
+        assertEquals(key, TrajectoryCache.key(false, kWaypoints,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 120.0));
+        assertNotEquals(key, TrajectoryCache.key(true, kWaypoints,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 120.0));
+        assertNotEquals(key, TrajectoryCache.key(false, kWaypoints,
+                Arrays.asList(new CentripetalAccelerationConstraint(100.0)), 120.0));
+        assertNotEquals(key, TrajectoryCache.key(false, kWaypoints,
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 121.0));
+        assertNotEquals(key, TrajectoryCache.key(false, Arrays.asList(kWaypoints.get(0)),
+                Arrays.asList(new CentripetalAccelerationConstraint(110.0)), 120.0));
+        // Rotations that differ only in the last bit of cos and sin, as Math.cos and Math.sin may between platforms,
+        // hash the same.
+        Rotation2d heading = kWaypoints.get(1).getRotation();
+        Rotation2d strict = new Rotation2d(StrictMath.cos(Math.toRadians(45.0)), StrictMath.sin(Math.toRadians(45.0)),
+                false);
+        Rotation2d perturbed = new Rotation2d(Math.nextUp(heading.cos()), Math.nextDown(heading.sin()), false);
+        assertEquals(TrajectoryCache.key(heading), TrajectoryCache.key(strict));
+        assertEquals(TrajectoryCache.key(heading), TrajectoryCache.key(perturbed));
+        assertEquals(TrajectoryCache.key(Rotation2d.fromDegrees(180.0)),
+                TrajectoryCache.key(new Rotation2d(-1.0, -1e-17, false)));
+        assertNotEquals(TrajectoryCache.key(heading), TrajectoryCache.key(Rotation2d.fromDegrees(45.001)));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Trajectory<TimedState<Pose2dWithCurvature>> traj = new Trajectory<>(Arrays.asList(
+                new TimedState<>(new Pose2dWithCurvature(kWaypoints.get(0), 0.0, 0.1), 0.0, 0.0, 10.0),
+                new TimedState<>(new Pose2dWithCurvature(kWaypoints.get(1), 0.02, -0.1), 1.5, 15.0, -2.0)));
+
+        TrajectoryCache cache = new TrajectoryCache(mDirectory);
+        assertNull(cache.get("abc"));
+        cache.put("abc", traj);
+
+        Trajectory<TimedState<Pose2dWithCurvature>> loaded = cache.get("abc");
+        assertNotNull(loaded);
+        assertEquals(traj.length(), loaded.length());
+        for (int i = 0; i < traj.length(); ++i) {
+            TimedState<Pose2dWithCurvature> expected = traj.getState(i);
+            TimedState<Pose2dWithCurvature> actual = loaded.getState(i);
+            assertEquals(expected.state().getTranslation().x(), actual.state().getTranslation().x(), kTestEpsilon);
+            assertEquals(expected.state().getTranslation().y(), actual.state().getTranslation().y(), kTestEpsilon);
+            assertEquals(expected.state().getRotation().getDegrees(), actual.state().getRotation().getDegrees(),
+                    kTestEpsilon);
+            assertEquals(expected.state().getCurvature(), actual.state().getCurvature(), kTestEpsilon);
+            assertEquals(expected.state().getDCurvatureDs(), actual.state().getDCurvatureDs(), kTestEpsilon);
+            assertEquals(expected.t(), actual.t(), kTestEpsilon);
+            assertEquals(expected.velocity(), actual.velocity(), kTestEpsilon);
+            assertEquals(expected.acceleration(), actual.acceleration(), kTestEpsilon);
+        }
+
+        // An entry whose stored key does not match is rejected.
+        assertNull(TrajectoryCache.read(cache.getFile("abc"), "def"));
+    }
+}
@@ -15,6 +15,7 @@ import frc.team3310.utility.lib.geometry.Translation2d;
 import frc.team3310.utility.lib.geometry.State;
 import frc.team3310.utility.lib.trajectory.DistanceView;
 import frc.team3310.utility.lib.trajectory.Trajectory;
+import frc.team3310.utility.lib.trajectory.timing.BulkTimingConstraint;
 import frc.team3310.utility.lib.trajectory.timing.TimedState;
 import frc.team3310.utility.lib.trajectory.timing.TimingConstraint;
 import frc.team3310.utility.lib.trajectory.timing.TimingConstraint.MinMaxAcceleration;
@@ -159,4 +160,46 @@ public class TimingUtilTest {
         System.out.println(timed_traj.toCSV());
     }
 
+    @Test
+    public void testBulkConstraintMatchesPerState() {
+        Trajectory<Translation2d> traj = new Trajectory<>(kWaypoints);
+        DistanceView<Translation2d> dist_view = new DistanceView<>(traj);
+
+        final VelocityLimitRegionConstraint<Translation2d> bulk = new VelocityLimitRegionConstraint<>(
+                new Translation2d(6.0, -6.0), new Translation2d(18.0, 6.0), 3.0);
+        assertTrue(bulk instanceof BulkTimingConstraint);
+        TimingConstraint<Translation2d> per_state = new TimingConstraint<Translation2d>() {
+            @Override
+            public double getMaxVelocity(Translation2d state) {
+                return bulk.getMaxVelocity(state);
+            }
+
+            @Override
+            public MinMaxAcceleration getMinMaxAcceleration(Translation2d state, double velocity) {
+                return new MinMaxAcceleration(-10.0, 10.0 / velocity);
+            }
+        };
+        TimingConstraint<Translation2d> acceleration_only = new TimingConstraint<Translation2d>() {
+            @Override
+            public double getMaxVelocity(Translation2d state) {
+                return Double.POSITIVE_INFINITY;
+            }
+
+            @Override
+            public MinMaxAcceleration getMinMaxAcceleration(Translation2d state, double velocity) {
+                return new MinMaxAcceleration(-10.0, 10.0 / velocity);
+            }
+        };
+
+        Trajectory<TimedState<Translation2d>> expected = buildAndCheckTrajectory(dist_view, 1.0,
+                Arrays.asList(per_state), 0.0, 0.0, 10.0, 5.0);
+        Trajectory<TimedState<Translation2d>> actual = buildAndCheckTrajectory(dist_view, 1.0,
+                Arrays.asList(bulk, acceleration_only), 0.0, 0.0, 10.0, 5.0);
+        assertEquals(expected.length(), actual.length());
+        for (int i = 0; i < expected.length(); ++i) {
+            assertEquals(expected.getState(i).t(), actual.getState(i).t(), 0.0);
+            assertEquals(expected.getState(i).velocity(), actual.getState(i).velocity(), 0.0);
+            assertEquals(expected.getState(i).acceleration(), actual.getState(i).acceleration(), 0.0);
+        }
+    }
 }
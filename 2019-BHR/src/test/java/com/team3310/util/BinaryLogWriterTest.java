@@ -0,0 +1,102 @@
+package com.team3310.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.BinaryLogWriter;
+import frc.team3310.utility.lib.geometry.Rotation2d;
+
+public class BinaryLogWriterTest {
+    public static class Sample {
+        public int ticks;
+        public double distance;
+        public float ratio;
+        public boolean enabled;
+        public long timestamp;
+        public char gear = 'L';
+        public Rotation2d heading = Rotation2d.identity();
+        public String name;
+    }
+
+    private File mDirectory;
+
+    @BeforeEach
+    public void createDirectory() throws IOException {
+        mDirectory = Files.createTempDirectory("binary-log").toFile();
+    }
+
+    @AfterEach
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> paths = Files.walk(mDirectory.toPath())) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testExportMatchesFields() throws IOException {
+        File binary = new File(mDirectory, "log.bin");
+        File csv = new File(mDirectory, "log.csv");
+
+        BinaryLogWriter<Sample> writer = new BinaryLogWriter<>(binary.getPath(), Sample.class);
+        Sample sample = new Sample();
+        final int kRecords = 100;
+        for (int i = 0; i < kRecords; ++i) {
+            sample.ticks = -i;
+            sample.distance = i * 0.1;
+            sample.ratio = i * 0.1f;
+            sample.enabled = i % 2 == 0;
+            sample.timestamp = Long.MAX_VALUE - i;
+            sample.gear = i < 50 ? 'L' : 'H';
+            sample.heading = Rotation2d.fromDegrees(i);
+            sample.name = i == 0 ? null : "sample " + i;
+            writer.add(sample);
+        }
+        writer.close();
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(kRecords, writer.getWrittenCount());
+
+        BinaryLogWriter.exportCSV(binary.getPath(), csv.getPath());
+        List<String> lines = Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8);
+        assertEquals(kRecords + 1, lines.size());
+        assertEquals("ticks, distance, ratio, enabled, timestamp, gear, heading, name", lines.get(0));
+        for (int i = 0; i < kRecords; ++i) {
+            String expected = -i + ", " + i * 0.1 + ", " + i * 0.1f + ", " + (i % 2 == 0) + ", " + (Long.MAX_VALUE - i)
+                    + ", " + (i < 50 ? 'L' : 'H') + ", " + Rotation2d.fromDegrees(i) + ", "
+                    + (i == 0 ? "null" : "sample " + i);
+            assertEquals(expected, lines.get(i + 1));
+        }
+    }
+
+    @Test
+    public void testBounded() throws IOException {
+        File binary = new File(mDirectory, "log.bin");
+
+        // Adding much faster than the writer drains fills the buffer; records past it are dropped, never queued.
+        BinaryLogWriter<Sample> writer = new BinaryLogWriter<>(binary.getPath(), Sample.class, 4);
+        Sample sample = new Sample();
+        final int kRecords = 100000;
+        int added = 0;
+        for (int i = 0; i < kRecords; ++i) {
+            if (writer.add(sample)) {
+                added++;
+            }
+        }
+        writer.close();
+        assertEquals(kRecords, added + writer.getDroppedCount());
+        assertEquals(added, writer.getWrittenCount());
+    }
+}
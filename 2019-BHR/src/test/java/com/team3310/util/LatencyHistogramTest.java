@@ -0,0 +1,42 @@
+package com.team3310.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import frc.team3310.utility.LatencyHistogram;
+
+public class LatencyHistogramTest {
+    private static final double kEpsilon = 1E-12;
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram(0.001, 0.1);
+        assertEquals(0.0, histogram.getPercentile(50.0), 0.0);
+
+        // 1 ms to 100 ms in 1 ms steps, recorded just under each bucket edge.
+        for (int i = 1; i <= 100; ++i) {
+            histogram.record(i * 0.001 - 0.0001);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(0.050, histogram.getPercentile(50.0), kEpsilon);
+        assertEquals(0.099, histogram.getPercentile(99.0), kEpsilon);
+        assertEquals(0.001, histogram.getPercentile(0.0), kEpsilon);
+        assertEquals(0.0999, histogram.getPercentile(100.0), kEpsilon);
+        assertEquals(0.0999, histogram.getMax(), kEpsilon);
+        assertEquals(0.0504, histogram.getMean(), kEpsilon);
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0.0, histogram.getMax(), 0.0);
+    }
+
+    @Test
+    public void testOverflow() {
+        LatencyHistogram histogram = new LatencyHistogram(0.001, 0.01);
+        histogram.record(0.0005);
+        histogram.record(0.5);
+        assertEquals(0.001, histogram.getPercentile(50.0), kEpsilon);
+        assertEquals(0.5, histogram.getPercentile(100.0), kEpsilon);
+    }
+}
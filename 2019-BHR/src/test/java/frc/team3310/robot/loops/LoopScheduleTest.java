@@ -0,0 +1,76 @@
+package frc.team3310.robot.loops;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class LoopScheduleTest {
+    private static final double kEpsilon = 1E-12;
+
+    @Test
+    public void testMixedPeriods() {
+        // 5 ms, 10 ms and 100 ms loops.
+        LoopSchedule schedule = LoopSchedule.create(new long[] { 5000, 10000, 100000 }, new int[] { 0, 0, 0 });
+        assertEquals(5000, schedule.tick_micros);
+        assertEquals(0.005, schedule.getPeriod(), kEpsilon);
+        assertEquals(20, schedule.length);
+        assertArrayEquals(new int[] { 1, 2, 20 }, schedule.ticks_per_run);
+        // The 10 ms loop takes the even ticks, so the 100 ms loop goes on an odd one.
+        assertArrayEquals(new int[] { 0, 0, 1 }, schedule.phase);
+        assertArrayEquals(new int[] { 0, 1, 2 }, schedule.order);
+
+        // Registered slowest first, the 100 ms loop takes tick 0 and the 10 ms loop the odd ticks.
+        schedule = LoopSchedule.create(new long[] { 100000, 10000, 5000 }, new int[] { 0, 0, 0 });
+        assertEquals(5000, schedule.tick_micros);
+        assertArrayEquals(new int[] { 20, 2, 1 }, schedule.ticks_per_run);
+        assertArrayEquals(new int[] { 0, 1, 0 }, schedule.phase);
+    }
+
+    @Test
+    public void testLeastLoadedPhase() {
+        LoopSchedule schedule = LoopSchedule.create(new long[] { 10000, 10000, 20000, 20000, 40000 },
+                new int[] { 0, 0, 0, 0, 0 });
+        assertEquals(10000, schedule.tick_micros);
+        assertEquals(4, schedule.length);
+        assertArrayEquals(new int[] { 1, 1, 2, 2, 4 }, schedule.ticks_per_run);
+        // The second 20 ms loop avoids the first. That leaves every tick equally busy, so the 40 ms loop takes tick 0.
+        assertArrayEquals(new int[] { 0, 0, 0, 1, 0 }, schedule.phase);
+
+        int[] load = new int[schedule.length];
+        for (int i = 0; i < schedule.phase.length; ++i) {
+            for (int tick = schedule.phase[i]; tick < load.length; tick += schedule.ticks_per_run[i]) {
+                load[tick]++;
+            }
+        }
+        assertArrayEquals(new int[] { 4, 3, 3, 3 }, load);
+    }
+
+    @Test
+    public void testPriorityOrder() {
+        LoopSchedule schedule = LoopSchedule.create(new long[] { 10000, 10000, 10000, 10000, 10000 },
+                new int[] { 0, 5, 0, 5, -1 });
+        // Decreasing priority, registration order within a priority.
+        assertArrayEquals(new int[] { 1, 3, 0, 2, 4 }, schedule.order);
+        // Phases only depend on registration order.
+        assertArrayEquals(new int[] { 0, 0, 0, 0, 0 }, schedule.phase);
+    }
+
+    @Test
+    public void testRejected() {
+        // No common divisor of at least 1 ms.
+        assertThrows(RuntimeException.class,
+                () -> LoopSchedule.create(new long[] { 10000, 10001 }, new int[] { 0, 0 }));
+        // A common divisor, but the cycle is 257 * 263 ticks long.
+        assertThrows(RuntimeException.class,
+                () -> LoopSchedule.create(new long[] { 257000, 263000 }, new int[] { 0, 0 }));
+        // Shorter than 1 ms.
+        assertThrows(RuntimeException.class, () -> LoopSchedule.create(new long[] { 500 }, new int[] { 0 }));
+        assertThrows(RuntimeException.class, () -> LoopSchedule.create(new long[0], new int[0]));
+
+        LoopSchedule schedule = LoopSchedule.create(new long[] { 7000 }, new int[] { 0 });
+        assertEquals(7000, schedule.tick_micros);
+        assertEquals(1, schedule.length);
+    }
+}